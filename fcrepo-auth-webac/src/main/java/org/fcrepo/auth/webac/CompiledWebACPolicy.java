@@ -0,0 +1,191 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import static java.util.Collections.emptyMap;
+import static org.fcrepo.auth.webac.URIConstants.FOAF_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_APPEND;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_CONTROL;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_WRITE;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+
+/**
+ * A set of {@link WebACAuthorization}s compiled into lookup tables, so that resolving the roles granted for a
+ * resource takes a few map lookups and bit operations rather than a scan of every authorization.
+ *
+ * Each authorization is numbered. The authorizations granting access to a resource or an rdf:type are indexed as a
+ * bitset of those numbers, and the modes each authorization grants are held as a bitmask. The agents and agent
+ * classes an authorization names are filtered once, when the policy is compiled. The authorizations of an ACL
+ * inherited from an ancestor are expected to be limited to those with an acl:default before they are compiled.
+ * Instances are immutable and may be shared between threads.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+final class CompiledWebACPolicy {
+
+    private static final Logger LOGGER = getLogger(CompiledWebACPolicy.class);
+
+    // The standard modes are always given the lowest bits
+    private static final List<URI> STANDARD_MODES =
+            List.of(WEBAC_MODE_READ, WEBAC_MODE_WRITE, WEBAC_MODE_APPEND, WEBAC_MODE_CONTROL);
+
+    private static final int MAX_MODES = Long.SIZE;
+
+    private final Map<String, BitSet> byAccessTo = new HashMap<>();
+
+    private final Map<String, BitSet> byAccessToClass = new HashMap<>();
+
+    private final long[] modeMasks;
+
+    private final String[][] agents;
+
+    private final String[][] agentGroups;
+
+    private final List<String> modes = new ArrayList<>();
+
+    // Mode names of each mask handed out, shared between the roles maps built from this policy
+    private final Map<Long, List<String>> modeNames = new ConcurrentHashMap<>();
+
+    private CompiledWebACPolicy(final List<WebACAuthorization> authorizations) {
+        final int size = authorizations.size();
+        this.modeMasks = new long[size];
+        this.agents = new String[size][];
+        this.agentGroups = new String[size][];
+
+        final Map<URI, Integer> modeBits = new HashMap<>();
+        STANDARD_MODES.forEach(mode -> modeBits.put(mode, modeBits.size()));
+        STANDARD_MODES.forEach(mode -> modes.add(mode.toString()));
+
+        for (int i = 0; i < size; i++) {
+            final WebACAuthorization auth = authorizations.get(i);
+            final int index = i;
+            auth.getAccessToURIs().forEach(uri -> byAccessTo.computeIfAbsent(uri, k -> new BitSet()).set(index));
+            auth.getAccessToClassURIs().forEach(uri ->
+                    byAccessToClass.computeIfAbsent(uri, k -> new BitSet()).set(index));
+
+            for (final URI mode : auth.getModes()) {
+                Integer bit = modeBits.get(mode);
+                if (bit == null) {
+                    if (modeBits.size() == MAX_MODES) {
+                        LOGGER.warn("Ignoring mode {}: more than {} distinct modes in one ACL", mode, MAX_MODES);
+                        continue;
+                    }
+                    bit = modeBits.size();
+                    modeBits.put(mode, bit);
+                    modes.add(mode.toString());
+                }
+                modeMasks[i] |= 1L << bit;
+            }
+
+            final List<String> named = new ArrayList<>();
+            auth.getAgents().stream().filter(CompiledWebACPolicy::isIndividualAgent).forEach(named::add);
+            auth.getAgentClasses().stream().filter(agentClass -> !isIndividualAgent(agentClass))
+                    .forEach(named::add);
+            agents[i] = named.toArray(new String[0]);
+            agentGroups[i] = auth.getAgentGroups().toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Compile a list of authorizations
+     *
+     * @param authorizations the authorizations
+     * @return the compiled policy
+     */
+    static CompiledWebACPolicy compile(final List<WebACAuthorization> authorizations) {
+        return new CompiledWebACPolicy(authorizations);
+    }
+
+    /**
+     * Resolve the modes granted to each agent for a resource.
+     *
+     * @param accessTo the acl:accessTo values which match the resource
+     * @param accessToClass the acl:accessToClass values which match the resource
+     * @param dereferenceAgentGroups maps the acl:agentGroup values of an authorization to their members
+     * @return the mode URIs granted to each agent, agent class or group member
+     */
+    Map<String, Collection<String>> getRoles(final Collection<String> accessTo,
+                                             final Collection<String> accessToClass,
+                                             final Function<Collection<String>, Collection<String>>
+                                                     dereferenceAgentGroups) {
+        final BitSet matched = new BitSet();
+        accessTo.forEach(uri -> orInto(matched, byAccessTo.get(uri)));
+        accessToClass.forEach(uri -> orInto(matched, byAccessToClass.get(uri)));
+        if (matched.isEmpty()) {
+            return emptyMap();
+        }
+
+        final Map<String, Long> masks = new LinkedHashMap<>();
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            final long mask = modeMasks[i];
+            for (final String agent : agents[i]) {
+                masks.merge(agent, mask, (a, b) -> a | b);
+            }
+            if (agentGroups[i].length > 0) {
+                for (final String member : dereferenceAgentGroups.apply(List.of(agentGroups[i]))) {
+                    if (isIndividualAgent(member)) {
+                        masks.merge(member, mask, (a, b) -> a | b);
+                    }
+                }
+            }
+        }
+
+        final Map<String, Collection<String>> roles = new HashMap<>(masks.size() * 2);
+        masks.forEach((agent, mask) -> roles.put(agent, modeNames.computeIfAbsent(mask, this::decode)));
+        return roles;
+    }
+
+    private List<String> decode(final long mask) {
+        final List<String> names = new ArrayList<>(Long.bitCount(mask));
+        for (int bit = 0; bit < modes.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                names.add(modes.get(bit));
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    private static void orInto(final BitSet target, final BitSet source) {
+        if (source != null) {
+            target.or(source);
+        }
+    }
+
+    /**
+     * Whether an acl:agent value names an individual, rather than all agents or all authenticated agents.
+     */
+    private static boolean isIndividualAgent(final String agent) {
+        return !agent.equals(FOAF_AGENT_VALUE) && !agent.equals(WEBAC_AUTHENTICATED_AGENT_VALUE);
+    }
+}
@@ -23,6 +23,7 @@ import static org.fcrepo.auth.webac.URIConstants.FOAF_AGENT_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
 import static org.fcrepo.auth.common.HttpHeaderPrincipalProvider.HttpHeaderPrincipal;
 import static org.fcrepo.auth.common.DelegateHeaderPrincipalProvider.DelegatedHeaderPrincipal;
+import static org.fcrepo.http.commons.session.RequestAuthorizationContext.getContext;
 import static org.fcrepo.http.commons.session.TransactionProvider.ATOMIC_ID_HEADER;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -183,15 +184,18 @@ public class WebACAuthorizingRealm extends AuthorizingRealm {
     }
 
     private Map<String, Collection<String>> getRolesForPath(final String path) {
-
-        Map<String, Collection<String>> roles = null;
-        final FedoraResource fedoraResource = getResourceOrParentFromPath(path);
-
-        if (fedoraResource != null) {
-            // check ACL for the request URI and get a mapping of agent => modes
-            roles = rolesProvider.getRoles(fedoraResource, transaction());
-        }
-        return roles;
+        // resolved once per request, however many permission checks re-enter this realm
+        final Transaction transaction = transaction();
+        return getContext(request).getRoles(transaction, path, p -> {
+            Map<String, Collection<String>> roles = null;
+            final FedoraResource fedoraResource = getResourceOrParentFromPath(p);
+
+            if (fedoraResource != null) {
+                // check ACL for the request URI and get a mapping of agent => modes
+                roles = rolesProvider.getRoles(fedoraResource, transaction);
+            }
+            return roles;
+        });
     }
 
     private void addPermissions(final SimpleAuthorizationInfo authzInfo,
@@ -25,9 +25,7 @@ import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.query.QueryParseException;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFReader;
-import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RiotException;
@@ -42,13 +40,13 @@ import org.apache.shiro.subject.PrincipalCollection;
 import org.apache.shiro.subject.SimplePrincipalCollection;
 import org.apache.shiro.subject.Subject;
 import org.fcrepo.http.api.FedoraLdp;
-import org.fcrepo.http.commons.api.rdf.HttpResourceConverter;
+import org.fcrepo.http.commons.api.rdf.HttpIdentifierConverter;
+import org.fcrepo.http.commons.session.ParsedRequestBody;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.TransactionManager;
 import org.fcrepo.kernel.api.exception.MalformedRdfException;
 import org.fcrepo.kernel.api.exception.PathNotFoundException;
 import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
-import org.fcrepo.kernel.api.identifiers.IdentifierConverter;
 import org.fcrepo.kernel.api.models.FedoraResource;
 import org.fcrepo.kernel.api.models.ResourceFactory;
 import org.slf4j.Logger;
@@ -91,9 +89,12 @@ import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_CONTROL;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_WRITE;
 import static org.fcrepo.auth.webac.WebACAuthorizingRealm.URIS_TO_AUTHORIZE;
+import static org.fcrepo.http.commons.session.ParsedRequestBody.getParsedRequestBody;
+import static org.fcrepo.http.commons.session.RequestAuthorizationContext.getContext;
 import static org.fcrepo.http.commons.session.TransactionProvider.ATOMIC_ID_HEADER;
 import static org.fcrepo.kernel.api.FedoraTypes.FCR_ACL;
 import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_BINARY;
+import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_ID_PREFIX;
 import static org.fcrepo.kernel.api.RdfLexicon.DIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.INDIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.MEMBERSHIP_RESOURCE;
@@ -133,6 +134,9 @@ public class WebACFilter extends RequestContextFilter {
     @Inject
     private TransactionManager transactionManager;
 
+    @Inject
+    private WebACRolesProvider rolesProvider;
+
     private static Set<URI> directOrIndirect = new HashSet<>();
 
     private static Set<String> rdfContentTypes = new HashSet<>();
@@ -170,8 +174,8 @@ public class WebACFilter extends RequestContextFilter {
                                     final FilterChain chain) throws ServletException, IOException {
         final Subject currentUser = SecurityUtils.getSubject();
         HttpServletRequest httpRequest = (HttpServletRequest) request;
-        if (isSparqlUpdate(httpRequest) || isRdfRequest(httpRequest)) {
-            // If this is a sparql request or contains RDF.
+        if (isSparqlUpdate(httpRequest) || (isRdfRequest(httpRequest) && isPayloadIndirectOrDirect(httpRequest))) {
+            // If this is a sparql request or contains RDF which is read to authorize the request.
             httpRequest = new CachedHttpRequest(httpRequest);
         }
 
@@ -208,6 +212,56 @@ public class WebACFilter extends RequestContextFilter {
 
         // proceed to the next filter
         chain.doFilter(httpRequest, response);
+
+        if (response.getStatus() < 400) {
+            invalidateEffectiveAcls(httpRequest);
+            invalidateAgentGroups(httpRequest);
+        }
+    }
+
+    /**
+     * Discard the cached effective ACLs a request may have changed: all of them if it may have changed an ACL, or
+     * those governed by the ACL of the updated resource, whose types may have changed.
+     */
+    private void invalidateEffectiveAcls(final HttpServletRequest httpRequest) {
+        final String method = httpRequest.getMethod();
+        if (mayHaveChangedAcls(httpRequest)) {
+            rolesProvider.invalidateEffectiveAcls();
+        } else if ((method.equals("PUT") || method.equals("PATCH"))
+                && !httpRequest.getRequestURL().toString().contains("/fcr:tx")) {
+            rolesProvider.invalidateEffectiveAcls(getRepoPath(httpRequest));
+        }
+    }
+
+    /**
+     * Discard the cached members of any agent group a request may have changed: those stored in the updated or
+     * deleted resource, or all of them once a transaction is committed.
+     */
+    private void invalidateAgentGroups(final HttpServletRequest httpRequest) {
+        final String method = httpRequest.getMethod();
+        final String requestURL = httpRequest.getRequestURL().toString();
+        if (requestURL.contains("/fcr:tx")) {
+            if (method.equals("PUT") && requestURL.endsWith("/commit")) {
+                rolesProvider.invalidateAgentGroups();
+            }
+        } else if (method.equals("PUT") || method.equals("PATCH") || method.equals("DELETE")) {
+            rolesProvider.invalidateAgentGroups(getRepoPath(httpRequest));
+        }
+    }
+
+    /**
+     * Whether a request may have created, updated or deleted an ACL: any change to an ACL, the deletion of a
+     * resource which may carry one, or the commit of a transaction which may have deleted one.
+     */
+    private static boolean mayHaveChangedAcls(final HttpServletRequest httpRequest) {
+        final String method = httpRequest.getMethod();
+        final String requestURL = httpRequest.getRequestURL().toString();
+        if (method.equals("DELETE")) {
+            return true;
+        } else if (requestURL.endsWith(FCR_ACL)) {
+            return method.equals("PUT") || method.equals("PATCH") || method.equals("POST");
+        }
+        return method.equals("PUT") && requestURL.contains("/fcr:tx/") && requestURL.endsWith("/commit");
     }
 
     private Subject getFoafAgentSubject() {
@@ -256,36 +310,61 @@ public class WebACFilter extends RequestContextFilter {
             return resource(servletRequest).getContainer();
         }
         final String parentURI = getContainerUrl(servletRequest);
-        return resource(servletRequest, getRepoPath(servletRequest, parentURI));
+        return resource(servletRequest, getResourceId(servletRequest, parentURI));
     }
 
     private FedoraResource resource(final HttpServletRequest servletRequest) {
-        return resource(servletRequest, getRepoPath(servletRequest));
+        return resource(servletRequest, getResourceId(servletRequest));
     }
 
-    private FedoraResource resource(final HttpServletRequest servletRequest, final String path) {
-        try {
-            return this.resourceFactory.getResource(transaction(servletRequest), path);
-        } catch (PathNotFoundException e) {
+    /**
+     * Load a resource by its Fedora ID, the form the JAX-RS resources use, so that the resource serving the request
+     * can reuse it from the RequestAuthorizationContext.
+     */
+    private FedoraResource resource(final HttpServletRequest servletRequest, final String fedoraId) {
+        if (fedoraId == null) {
             return null;
         }
+        final Transaction transaction = transaction(servletRequest);
+        return getContext(servletRequest).getResource(transaction, fedoraId, id -> {
+            try {
+                return this.resourceFactory.getResource(transaction, id);
+            } catch (PathNotFoundException e) {
+                return null;
+            }
+        });
     }
 
-    private IdentifierConverter<Resource, FedoraResource> translator(final HttpServletRequest servletRequest) {
+    private HttpIdentifierConverter identifierConverter(final HttpServletRequest servletRequest) {
         final UriBuilder uriBuilder = UriBuilder.fromUri(getBaseURL(servletRequest)).path(FedoraLdp.class);
-        return new HttpResourceConverter(transaction(servletRequest), uriBuilder);
+        return new HttpIdentifierConverter(uriBuilder);
     }
 
-    private String getRepoPath(final HttpServletRequest servletRequest) {
+    private String getResourceId(final HttpServletRequest servletRequest) {
         final String httpURI = servletRequest.getRequestURL().toString();
-        return getRepoPath(servletRequest, httpURI);
+        return getResourceId(servletRequest, httpURI);
     }
 
-    private String getRepoPath(final HttpServletRequest servletRequest, final String httpURI) {
-        final Resource resource = ModelFactory.createDefaultModel().createResource(httpURI);
-        final String repoPath = translator(servletRequest).asString(resource);
-        log.debug("Converted request URI {} to repo path {}", httpURI, repoPath);
-        return repoPath;
+    /**
+     * The Fedora ID of a request URI, or null if the URI is outside the repository.
+     */
+    private String getResourceId(final HttpServletRequest servletRequest, final String httpURI) {
+        final HttpIdentifierConverter converter = identifierConverter(servletRequest);
+        if (!converter.inExternalDomain(httpURI)) {
+            log.debug("Request URI {} is not in the repository", httpURI);
+            return null;
+        }
+        final String fedoraId = converter.toInternalId(httpURI);
+        log.debug("Converted request URI {} to Fedora ID {}", httpURI, fedoraId);
+        return fedoraId;
+    }
+
+    /**
+     * The repository path of the request URI, i.e. its Fedora ID without the info:fedora prefix.
+     */
+    private String getRepoPath(final HttpServletRequest servletRequest) {
+        final String fedoraId = getResourceId(servletRequest);
+        return fedoraId == null ? null : fedoraId.substring(FEDORA_ID_PREFIX.length() - 1);
     }
 
     private boolean isAuthorized(final Subject currentUser, final HttpServletRequest httpRequest) throws IOException {
@@ -446,7 +525,7 @@ public class WebACFilter extends RequestContextFilter {
         if (httpRequest.getInputStream() != null) {
             boolean noDeletes = false;
             try {
-                noDeletes = !hasDeleteClause(IOUtils.toString(httpRequest.getInputStream(), UTF_8));
+                noDeletes = !hasDeleteClause(parseSparqlUpdate(httpRequest));
             } catch (final QueryParseException ex) {
                 log.error("Cannot verify authorization! Exception while inspecting SPARQL query!", ex);
             }
@@ -457,8 +536,7 @@ public class WebACFilter extends RequestContextFilter {
         }
     }
 
-    private boolean hasDeleteClause(final String sparqlString) {
-        final UpdateRequest sparqlUpdate = UpdateFactory.create(sparqlString);
+    private boolean hasDeleteClause(final UpdateRequest sparqlUpdate) {
         return sparqlUpdate.getOperations().stream()
                 .filter(update -> update instanceof UpdateDataDelete)
                 .map(update -> (UpdateDataDelete) update)
@@ -470,6 +548,21 @@ public class WebACFilter extends RequestContextFilter {
                 .anyMatch(update -> update.getDeleteQuads().size() > 0);
     }
 
+    /**
+     * Parse the SPARQL Update body of a request, once however many checks inspect it.
+     *
+     * @param request the request
+     * @return the parsed SPARQL Update
+     * @throws IOException when getting request's inputstream
+     */
+    private UpdateRequest parseSparqlUpdate(final HttpServletRequest request) throws IOException {
+        final ParsedRequestBody parsedBody = getParsedRequestBody(request);
+        if (parsedBody.getUpdateRequest() == null) {
+            parsedBody.setUpdateRequest(UpdateFactory.create(IOUtils.toString(request.getInputStream(), UTF_8)));
+        }
+        return parsedBody.getUpdateRequest();
+    }
+
     private boolean isSparqlUpdate(final HttpServletRequest request) {
         try {
             return request.getMethod().equals("PATCH") &&
@@ -606,6 +699,8 @@ public class WebACFilter extends RequestContextFilter {
             inputModel = createDefaultModel();
             reader = inputModel.getReader(format.getName().toUpperCase());
             reader.read(inputModel, request.getInputStream(), baseUri);
+            // share the parsed body with the JAX-RS resource
+            getParsedRequestBody(request).setModel(baseUri, inputModel);
             final Statement st = inputModel.getProperty(null, MEMBERSHIP_RESOURCE);
             return (st != null ? URI.create(st.getObject().toString()) : null);
         } catch (final RiotException e) {
@@ -626,10 +721,9 @@ public class WebACFilter extends RequestContextFilter {
      * @throws IOException converting the request body to a string.
      */
     private URI getHasMemberFromPatch(final HttpServletRequest request) throws IOException {
-        final String sparqlString = IOUtils.toString(request.getInputStream(), UTF_8);
         final String baseURI = request.getRequestURL().toString().replace(request.getContextPath(), "").replaceAll(
                 request.getPathInfo(), "").replaceAll("rest$", "");
-        final UpdateRequest sparqlUpdate = UpdateFactory.create(sparqlString);
+        final UpdateRequest sparqlUpdate = parseSparqlUpdate(request);
         // The INSERT|DELETE DATA quads
         final Stream<Quad> insertDeleteData = sparqlUpdate.getOperations().stream()
                 .filter(update -> update instanceof UpdateData)
@@ -18,11 +18,11 @@
 package org.fcrepo.auth.webac;
 
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
-import static java.util.stream.Collectors.toSet;
+import static java.util.stream.Collectors.toUnmodifiableSet;
 import static java.util.stream.IntStream.range;
-import static java.util.stream.Stream.concat;
 import static java.util.stream.Stream.empty;
 import static java.util.stream.Stream.of;
 import static org.apache.jena.graph.NodeFactory.createURI;
@@ -34,12 +34,12 @@ import static org.fcrepo.auth.webac.URIConstants.WEBAC_ACCESSTO_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AGENT_CLASS_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AGENT_GROUP_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AGENT_VALUE;
-import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHORIZATION_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_DEFAULT_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_VALUE;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_NAMESPACE_VALUE;
 import static org.fcrepo.http.api.FedoraAcl.getDefaultAcl;
+import static org.fcrepo.kernel.api.FedoraTypes.FCR_METADATA;
 import static org.fcrepo.kernel.api.RdfLexicon.RDF_NAMESPACE;
 import org.fcrepo.kernel.api.exception.PathNotFoundException;
 import org.fcrepo.kernel.api.exception.PathNotFoundRuntimeException;
@@ -53,18 +53,24 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.Statement;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.exception.RepositoryException;
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.api.identifiers.IdentifierConverter;
 import org.fcrepo.kernel.api.models.FedoraResource;
 import org.slf4j.Logger;
@@ -84,6 +90,22 @@ public class WebACRolesProvider {
 
     public static final String USER_AGENT_BASE_URI_PROPERTY = "fcrepo.auth.webac.userAgent.baseUri";
 
+    /**
+     * Maximum number of resources whose effective ACL is cached.
+     */
+    public static final String EFFECTIVE_ACL_CACHE_SIZE_PROPERTY = "fcrepo.auth.webac.cache.size";
+
+    /**
+     * Minutes after which a cached effective ACL is resolved again, even if no ACL has changed.
+     */
+    public static final String EFFECTIVE_ACL_CACHE_TIMEOUT_PROPERTY = "fcrepo.auth.webac.cache.timeout.minutes";
+
+    /**
+     * Maximum number of acl:agentGroup resources whose members are cached. Cached members expire after the same
+     * timeout as effective ACLs.
+     */
+    public static final String AGENT_GROUP_CACHE_SIZE_PROPERTY = "fcrepo.auth.webac.groupCache.size";
+
     private static final Logger LOGGER = getLogger(WebACRolesProvider.class);
 
     private static final String FEDORA_INTERNAL_PREFIX = "info:fedora";
@@ -95,6 +117,206 @@ public class WebACRolesProvider {
     @Inject
     private ResourceFactory resourceFactory;
 
+    /*
+     * Effective ACL of each resource, keyed by path, as seen outside of any long-running transaction. Emptied
+     * whenever an ACL is created, updated or deleted, and entries governed by the ACL of a resource are discarded
+     * whenever that resource is updated.
+     */
+    private final Cache<String, Optional<EffectiveAcl>> effectiveAclCache;
+
+    /*
+     * Incremented on every invalidation of the effective ACL cache, so that an effective ACL resolved before a
+     * concurrent invalidation is not put into the cache after it. Guarded by this.
+     */
+    private long effectiveAclGeneration;
+
+    /*
+     * Compiled authorizations of each ACL, shared by the effective ACLs of every resource it governs. Keyed by the
+     * resource the ACL belongs to, whether the authorizations are inherited, and the number of times all ACLs had been
+     * invalidated when the ACL was read, so that a policy read before an ACL changed is never used after.
+     */
+    private final Cache<PolicyKey, CompiledWebACPolicy> policyCache;
+
+    // Incremented whenever every effective ACL is invalidated. Guarded by this.
+    private long policyGeneration;
+
+    /*
+     * Members of each acl:agentGroup, keyed by group URI, as seen outside of any long-running transaction. Entries
+     * are discarded whenever the group resource changes.
+     */
+    private final Cache<String, Set<String>> agentGroupCache;
+
+    /*
+     * Incremented on every invalidation of the agent group cache, so that members read before a concurrent
+     * invalidation are not put into the cache after it. Guarded by this.
+     */
+    private long agentGroupGeneration;
+
+    // Compiled authorizations of the system/classpath-based ACL, read once
+    private volatile CompiledWebACPolicy defaultPolicy;
+
+    /**
+     * The location, types and authorizations of the ACL-bearing resource which governs access to a resource. Unlike
+     * an {@link ACLHandle}, it holds no reference to the resource or the transaction it was read in.
+     */
+    private static class EffectiveAcl {
+        final String resourcePath;
+        final List<URI> resourceTypes;
+        final CompiledWebACPolicy policy;
+
+        EffectiveAcl(final ACLHandle aclHandle, final CompiledWebACPolicy policy) {
+            this.resourcePath = aclHandle.resource.getPath();
+            this.resourceTypes = List.copyOf(aclHandle.resource.getTypes());
+            this.policy = policy;
+        }
+    }
+
+    /**
+     * The key of a compiled policy
+     */
+    private static class PolicyKey {
+        final String resourcePath;
+        final boolean inherited;
+        final long generation;
+
+        PolicyKey(final String resourcePath, final boolean inherited, final long generation) {
+            this.resourcePath = resourcePath;
+            this.inherited = inherited;
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof PolicyKey)) {
+                return false;
+            }
+            final PolicyKey other = (PolicyKey) o;
+            return resourcePath.equals(other.resourcePath) && inherited == other.inherited
+                    && generation == other.generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resourcePath, inherited, generation);
+        }
+    }
+
+    /**
+     * Default constructor
+     */
+    public WebACRolesProvider() {
+        this(Long.getLong(EFFECTIVE_ACL_CACHE_SIZE_PROPERTY, 10000),
+                Long.getLong(AGENT_GROUP_CACHE_SIZE_PROPERTY, 1000),
+                Long.getLong(EFFECTIVE_ACL_CACHE_TIMEOUT_PROPERTY, 10));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param cacheSize maximum number of resources whose effective ACL is cached
+     * @param groupCacheSize maximum number of agent groups whose members are cached
+     * @param cacheTimeoutMinutes minutes after which a cached effective ACL or group is resolved again
+     */
+    WebACRolesProvider(final long cacheSize, final long groupCacheSize, final long cacheTimeoutMinutes) {
+        this.effectiveAclCache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTimeoutMinutes, MINUTES)
+                .recordStats()
+                .build();
+        this.policyCache = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTimeoutMinutes, MINUTES)
+                .recordStats()
+                .build();
+        this.agentGroupCache = CacheBuilder.newBuilder()
+                .maximumSize(groupCacheSize)
+                .expireAfterWrite(cacheTimeoutMinutes, MINUTES)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Discard all cached effective ACLs, to be called once an ACL has been created, updated or deleted.
+     */
+    public synchronized void invalidateEffectiveAcls() {
+        LOGGER.debug("Invalidating {} cached effective ACLs", effectiveAclCache.size());
+        effectiveAclGeneration++;
+        effectiveAclCache.invalidateAll();
+        policyGeneration++;
+        policyCache.invalidateAll();
+    }
+
+    /**
+     * Discard the cached effective ACLs governed by the ACL of a resource, to be called once that resource has been
+     * updated, as they hold a copy of its types. Every cached effective ACL is discarded if the path is not known.
+     *
+     * @param path the path of the updated resource, or of its description, or null
+     */
+    public void invalidateEffectiveAcls(final String path) {
+        if (path == null) {
+            invalidateEffectiveAcls();
+            return;
+        }
+        final String describedPath = path.endsWith("/" + FCR_METADATA) ?
+                path.substring(0, path.length() - FCR_METADATA.length() - 1) : path;
+        synchronized (this) {
+            effectiveAclGeneration++;
+            effectiveAclCache.asMap().values()
+                    .removeIf(acl -> acl.filter(a -> a.resourcePath.equals(describedPath)).isPresent());
+        }
+    }
+
+    /**
+     * @return the hit and miss counts of the effective ACL cache
+     */
+    public CacheStats getEffectiveAclCacheStats() {
+        return effectiveAclCache.stats();
+    }
+
+    /**
+     * @return the hit and miss counts of the compiled policy cache
+     */
+    public CacheStats getPolicyCacheStats() {
+        return policyCache.stats();
+    }
+
+    /**
+     * Discard the cached members of any agent group stored in, or beneath, a resource, to be called once that
+     * resource has been updated or deleted. Every cached group is discarded if the path is not known.
+     *
+     * @param path the path of the changed resource, or null
+     */
+    public void invalidateAgentGroups(final String path) {
+        if (path == null) {
+            invalidateAgentGroups();
+            return;
+        }
+        synchronized (this) {
+            agentGroupGeneration++;
+            agentGroupCache.asMap().keySet().removeIf(agentGroup -> {
+                final String groupPath = getAgentGroupPath(agentGroup);
+                return groupPath.equals(path) || groupPath.startsWith(path + "/") ||
+                        path.startsWith(groupPath + "/");
+            });
+        }
+    }
+
+    /**
+     * Discard the cached members of all agent groups, to be called once a transaction has been committed.
+     */
+    public synchronized void invalidateAgentGroups() {
+        LOGGER.debug("Invalidating {} cached agent groups", agentGroupCache.size());
+        agentGroupGeneration++;
+        agentGroupCache.invalidateAll();
+    }
+
+    /**
+     * @return the hit and miss counts of the agent group cache
+     */
+    public CacheStats getAgentGroupCacheStats() {
+        return agentGroupCache.stats();
+    }
+
     /**
      * Get the roles assigned to this Node.
      *
@@ -114,7 +336,7 @@ public class WebACRolesProvider {
         LOGGER.debug("Getting agent roles for: {}", resource.getPath());
 
         // Get the effective ACL by searching the target node and any ancestors.
-        final Optional<ACLHandle> effectiveAcl = getEffectiveAcl(resource, false);
+        final Optional<EffectiveAcl> effectiveAcl = resolveEffectiveAcl(resource, transaction);
 
         // Construct a list of acceptable acl:accessTo values for the target resource.
         final List<String> resourcePaths = new ArrayList<>();
@@ -126,66 +348,97 @@ public class WebACRolesProvider {
         // Add the resource location and types of the ACL-bearing parent,
         // if present and if different than the target resource.
         effectiveAcl
-            .map(aclHandle -> aclHandle.resource)
-            .filter(effectiveResource -> !effectiveResource.getPath().equals(resource.getPath()))
-            .ifPresent(effectiveResource -> {
-                resourcePaths.add(FEDORA_INTERNAL_PREFIX + effectiveResource.getPath());
-                rdfTypes.addAll(effectiveResource.getTypes());
+            .filter(acl -> !acl.resourcePath.equals(resource.getPath()))
+            .ifPresent(acl -> {
+                resourcePaths.add(FEDORA_INTERNAL_PREFIX + acl.resourcePath);
+                rdfTypes.addAll(acl.resourceTypes);
             });
 
         // If we fall through to the system/classpath-based Authorization and it
         // contains any acl:accessTo properties, it is necessary to add each ancestor
         // path up the node hierarchy, starting at the resource location up to the
-        // root location. This way, the checkAccessTo predicate (below) can be properly
-        // created to match any acl:accessTo values that are part of the getDefaultAuthorization.
+        // root location. This way, the compiled policy (below) can properly
+        // match any acl:accessTo values that are part of the getDefaultAuthorization.
         // This is not relevant if an effectiveAcl is present.
         if (!effectiveAcl.isPresent()) {
             resourcePaths.addAll(getAllPathAncestors(resource.getPath()));
         }
 
-        // Create a function to check acl:accessTo, scoped to the given resourcePaths
-        final Predicate<WebACAuthorization> checkAccessTo = accessTo.apply(resourcePaths);
-
-        // Create a function to check acl:accessToClass, scoped to the given rdf:type values,
-        // but transform the URIs to Strings first.
-        final Predicate<WebACAuthorization> checkAccessToClass =
-            accessToClass.apply(rdfTypes.stream().map(URI::toString).collect(toList()));
-
-        // Read the effective Acl and return a list of acl:Authorization statements
-        final List<WebACAuthorization> authorizations = effectiveAcl
-                .map(auth -> auth.authorizations)
-                .orElseGet(() -> getDefaultAuthorizations());
-
-        // Filter the acl:Authorization statements so that they correspond only to statements that apply to
-        // the target (or acl-bearing ancestor) resource path or rdf:type.
-        // Then, assign all acceptable acl:mode values to the relevant acl:agent values: this creates a UNION
-        // of acl:modes for each particular acl:agent.
-        final Map<String, Collection<String>> effectiveRoles = new HashMap<>();
-        authorizations.stream()
-                      .filter(checkAccessTo.or(checkAccessToClass))
-                      .forEach(auth -> {
-                          concat(auth.getAgents().stream(),
-                                  dereferenceAgentGroups(transaction, auth.getAgentGroups()).stream())
-                              .filter(agent -> !agent.equals(FOAF_AGENT_VALUE) &&
-                                               !agent.equals(WEBAC_AUTHENTICATED_AGENT_VALUE))
-                              .forEach(agent -> {
-                                  effectiveRoles.computeIfAbsent(agent, key -> new HashSet<>())
-                                                .addAll(auth.getModes().stream().map(URI::toString).collect(toSet()));
-                              });
-                          auth.getAgentClasses().stream().filter(agentClass -> agentClass.equals(FOAF_AGENT_VALUE) ||
-                                                                               agentClass.equals(
-                                                                                   WEBAC_AUTHENTICATED_AGENT_VALUE))
-                              .forEach(agentClass -> {
-                                  effectiveRoles.computeIfAbsent(agentClass, key -> new HashSet<>())
-                                                .addAll(auth.getModes().stream().map(URI::toString).collect(toSet()));
-                              });
-                      });
+        // Read the compiled authorizations of the effective Acl, or of the system/classpath-based Authorization
+        final CompiledWebACPolicy policy = effectiveAcl
+                .map(acl -> acl.policy)
+                .orElseGet(this::getDefaultPolicy);
+
+        // Select the acl:Authorization statements that apply to the target (or acl-bearing ancestor) resource path
+        // or rdf:type, then assign all acceptable acl:mode values to the relevant acl:agent values: this creates a
+        // UNION of acl:modes for each particular acl:agent.
+        final Map<String, Collection<String>> effectiveRoles = policy.getRoles(resourcePaths,
+                rdfTypes.stream().map(URI::toString).collect(toList()),
+                agentGroups -> dereferenceAgentGroups(transaction, agentGroups));
 
         LOGGER.debug("Unfiltered ACL: {}", effectiveRoles);
 
         return effectiveRoles;
     }
 
+    /**
+     * Find the effective ACL of a resource, from the cache unless the resource is read within a long-running
+     * transaction, whose uncommitted changes the cache must not see.
+     */
+    private Optional<EffectiveAcl> resolveEffectiveAcl(final FedoraResource resource,
+                                                       final Transaction transaction) {
+        if (transaction != null && !transaction.isShortLived()) {
+            return getEffectiveAcl(resource, false)
+                    .map(aclHandle -> new EffectiveAcl(aclHandle,
+                            CompiledWebACPolicy.compile(aclHandle.authorizations)));
+        }
+        final String path = resource.getPath();
+        final Optional<EffectiveAcl> cached = effectiveAclCache.getIfPresent(path);
+        if (cached != null) {
+            return cached;
+        }
+
+        final long loadGeneration;
+        final long loadPolicyGeneration;
+        synchronized (this) {
+            loadGeneration = effectiveAclGeneration;
+            loadPolicyGeneration = policyGeneration;
+        }
+        final Optional<EffectiveAcl> effectiveAcl = getEffectiveAcl(resource, false)
+                .map(aclHandle -> new EffectiveAcl(aclHandle, getPolicy(resource, aclHandle, loadPolicyGeneration)));
+        synchronized (this) {
+            if (loadGeneration == effectiveAclGeneration) {
+                effectiveAclCache.put(path, effectiveAcl);
+            }
+        }
+        return effectiveAcl;
+    }
+
+    /**
+     * Find the compiled authorizations of an effective ACL in the cache, compiling them on a miss. The
+     * authorizations of an ACL inherited from an ancestor were limited to those with an acl:default when read.
+     */
+    private CompiledWebACPolicy getPolicy(final FedoraResource resource, final ACLHandle aclHandle,
+                                          final long generation) {
+        final String aclResourcePath = aclHandle.resource.getPath();
+        final PolicyKey key = new PolicyKey(aclResourcePath, !aclResourcePath.equals(resource.getPath()), generation);
+        try {
+            return policyCache.get(key, () -> CompiledWebACPolicy.compile(aclHandle.authorizations));
+        } catch (final ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RepositoryRuntimeException(e.getCause());
+        }
+    }
+
+    private CompiledWebACPolicy getDefaultPolicy() {
+        if (defaultPolicy == null) {
+            defaultPolicy = CompiledWebACPolicy.compile(getDefaultAuthorizations());
+        }
+        return defaultPolicy;
+    }
+
     /**
      * Given a path (e.g. /a/b/c/d) retrieve a list of all ancestor paths.
      * In this case, that would be a list of "/a/b/c", "/a/b", "/a" and "/".
@@ -198,52 +451,20 @@ public class WebACRolesProvider {
     }
 
     /**
-     *  This is a function for generating a Predicate that filters WebACAuthorizations according
-     *  to whether the given acl:accessToClass values contain any of the rdf:type values provided
-     *  when creating the predicate.
-     */
-    private static final Function<List<String>, Predicate<WebACAuthorization>> accessToClass = uris -> auth ->
-        uris.stream().anyMatch(uri -> auth.getAccessToClassURIs().contains(uri));
-
-    /**
-     *  This is a function for generating a Predicate that filters WebACAuthorizations according
-     *  to whether the given acl:accessTo values contain any of the target resource values provided
-     *  when creating the predicate.
-     */
-    private static final Function<List<String>, Predicate<WebACAuthorization>> accessTo = uris -> auth ->
-        uris.stream().anyMatch(uri -> auth.getAccessToURIs().contains(uri));
-
-    /**
-     *  This maps a Collection of acl:agentGroup values to a List of agents.
+     *  This maps a Collection of acl:agentGroup values to a Set of agents.
      *  Any out-of-domain URIs are silently ignored.
      */
-    private List<String> dereferenceAgentGroups(final Transaction transaction, final Collection<String> agentGroups) {
-        //TODO figure out where the translator should be coming from.
-        final IdentifierConverter<Resource, FedoraResource> translator = null;
-
-        final List<String> members = agentGroups.stream().flatMap(agentGroup -> {
+    private Set<String> dereferenceAgentGroups(final Transaction transaction, final Collection<String> agentGroups) {
+        final Set<String> members = new HashSet<>();
+        agentGroups.forEach(agentGroup -> {
             if (agentGroup.startsWith(FEDORA_INTERNAL_PREFIX)) {
-                //strip off trailing hash.
-                final int hashIndex = agentGroup.indexOf("#");
-                final String agentGroupNoHash = hashIndex > 0 ?
-                                         agentGroup.substring(0, hashIndex) :
-                                         agentGroup;
-                final String hashedSuffix = hashIndex > 0 ? agentGroup.substring(hashIndex) : null;
-                try {
-                    final FedoraResource resource = resourceFactory.getResource(
-                            transaction, agentGroupNoHash.substring(FEDORA_INTERNAL_PREFIX.length()));
-
-                    return getAgentMembers(translator, resource, hashedSuffix);
-                } catch (PathNotFoundException e) {
-                    throw new PathNotFoundRuntimeException(e);
-                }
+                members.addAll(getAgentGroupMembers(transaction, agentGroup));
             } else if (agentGroup.equals(FOAF_AGENT_VALUE)) {
-                return of(agentGroup);
+                members.add(agentGroup);
             } else {
                 LOGGER.info("Ignoring agentGroup: {}", agentGroup);
-                return empty();
             }
-        }).collect(toList());
+        });
 
         if (LOGGER.isDebugEnabled() && !agentGroups.isEmpty()) {
             LOGGER.debug("Found {} members in {} agentGroups resources", members.size(), agentGroups.size());
@@ -252,6 +473,56 @@ public class WebACRolesProvider {
         return members;
     }
 
+    /**
+     * Read the members of a repository acl:agentGroup, from the cache unless the group is read within a
+     * long-running transaction.
+     */
+    private Set<String> getAgentGroupMembers(final Transaction transaction, final String agentGroup) {
+        if (transaction != null && !transaction.isShortLived()) {
+            return readAgentGroupMembers(transaction, agentGroup);
+        }
+        final Set<String> cached = agentGroupCache.getIfPresent(agentGroup);
+        if (cached != null) {
+            return cached;
+        }
+
+        final long loadGeneration;
+        synchronized (this) {
+            loadGeneration = agentGroupGeneration;
+        }
+        final Set<String> members = readAgentGroupMembers(transaction, agentGroup);
+        synchronized (this) {
+            if (loadGeneration == agentGroupGeneration) {
+                agentGroupCache.put(agentGroup, members);
+            }
+        }
+        return members;
+    }
+
+    private Set<String> readAgentGroupMembers(final Transaction transaction, final String agentGroup) {
+        //TODO figure out where the translator should be coming from.
+        final IdentifierConverter<Resource, FedoraResource> translator = null;
+
+        //strip off trailing hash.
+        final int hashIndex = agentGroup.indexOf("#");
+        final String hashedSuffix = hashIndex > 0 ? agentGroup.substring(hashIndex) : null;
+        try {
+            final FedoraResource resource = resourceFactory.getResource(transaction, getAgentGroupPath(agentGroup));
+            return getAgentMembers(translator, resource, hashedSuffix).collect(toUnmodifiableSet());
+        } catch (PathNotFoundException e) {
+            throw new PathNotFoundRuntimeException(e);
+        }
+    }
+
+    /**
+     * The repository path of an acl:agentGroup, without the info:fedora prefix or any hash fragment.
+     */
+    private static String getAgentGroupPath(final String agentGroup) {
+        final int hashIndex = agentGroup.indexOf("#");
+        final String agentGroupNoHash = hashIndex > 0 ? agentGroup.substring(0, hashIndex) : agentGroup;
+        return agentGroupNoHash.substring(FEDORA_INTERNAL_PREFIX.length());
+    }
+
     /**
      * Given a FedoraResource, return a list of agents.
      */
@@ -0,0 +1,131 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.auth.webac;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.fcrepo.auth.webac.URIConstants.FOAF_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_AUTHENTICATED_AGENT_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_APPEND;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ_VALUE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_WRITE;
+import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_WRITE_VALUE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent
+ * @since 6.0.0
+ */
+public class CompiledWebACPolicyTest {
+
+    private static final String AGENT1 = "me";
+    private static final String AGENT2 = "you";
+    private static final String GROUP_MEMBER = "them";
+    private static final String ACCESS_TO = "info:fedora/foo";
+    private static final String ACCESS_TO_CLASS = "ex:Image";
+    private static final String GROUP = "info:fedora/group";
+    private static final URI CUSTOM_MODE = URI.create("http://example.org/ns#Custom");
+
+    @Test
+    public void testUnionOfModesPerAgent() {
+        final CompiledWebACPolicy policy = CompiledWebACPolicy.compile(Arrays.asList(
+                authorization(singletonList(AGENT1), emptyList(), singletonList(WEBAC_MODE_READ),
+                        singletonList(ACCESS_TO), emptyList(), emptyList()),
+                authorization(Arrays.asList(AGENT1, AGENT2), emptyList(), singletonList(WEBAC_MODE_WRITE),
+                        emptyList(), singletonList(ACCESS_TO_CLASS), emptyList())));
+
+        final Map<String, Collection<String>> roles = getRoles(policy);
+
+        assertEquals(2, roles.size());
+        assertEquals(2, roles.get(AGENT1).size());
+        assertTrue(roles.get(AGENT1).contains(WEBAC_MODE_READ_VALUE));
+        assertTrue(roles.get(AGENT1).contains(WEBAC_MODE_WRITE_VALUE));
+        assertEquals(singletonList(WEBAC_MODE_WRITE_VALUE), roles.get(AGENT2));
+    }
+
+    @Test
+    public void testUnmatchedAuthorizationsIgnored() {
+        final CompiledWebACPolicy policy = CompiledWebACPolicy.compile(singletonList(
+                authorization(singletonList(AGENT1), emptyList(), singletonList(WEBAC_MODE_READ),
+                        singletonList("info:fedora/bar"), singletonList("ex:Archive"), emptyList())));
+
+        assertTrue(getRoles(policy).isEmpty());
+    }
+
+    @Test
+    public void testAgentClasses() {
+        final CompiledWebACPolicy policy = CompiledWebACPolicy.compile(singletonList(
+                authorization(singletonList(FOAF_AGENT_VALUE),
+                        Arrays.asList(FOAF_AGENT_VALUE, WEBAC_AUTHENTICATED_AGENT_VALUE, "ex:Other"),
+                        singletonList(WEBAC_MODE_READ), singletonList(ACCESS_TO), emptyList(), emptyList())));
+
+        final Map<String, Collection<String>> roles = getRoles(policy);
+
+        assertEquals(2, roles.size());
+        assertEquals(singletonList(WEBAC_MODE_READ_VALUE), roles.get(FOAF_AGENT_VALUE));
+        assertEquals(singletonList(WEBAC_MODE_READ_VALUE), roles.get(WEBAC_AUTHENTICATED_AGENT_VALUE));
+    }
+
+    @Test
+    public void testAgentGroups() {
+        final CompiledWebACPolicy policy = CompiledWebACPolicy.compile(singletonList(
+                authorization(emptyList(), emptyList(), singletonList(WEBAC_MODE_APPEND),
+                        singletonList(ACCESS_TO), emptyList(), singletonList(GROUP))));
+
+        final Map<String, Collection<String>> roles = policy.getRoles(singletonList(ACCESS_TO), emptyList(),
+                groups -> {
+                    assertEquals(singletonList(GROUP), groups);
+                    return Arrays.asList(GROUP_MEMBER, FOAF_AGENT_VALUE);
+                });
+
+        assertEquals(1, roles.size());
+        assertEquals(singletonList(WEBAC_MODE_APPEND.toString()), roles.get(GROUP_MEMBER));
+    }
+
+    @Test
+    public void testCustomModes() {
+        final CompiledWebACPolicy policy = CompiledWebACPolicy.compile(singletonList(
+                authorization(singletonList(AGENT1), emptyList(), Arrays.asList(CUSTOM_MODE, WEBAC_MODE_READ),
+                        singletonList(ACCESS_TO), emptyList(), emptyList())));
+
+        assertEquals(Arrays.asList(WEBAC_MODE_READ_VALUE, CUSTOM_MODE.toString()),
+                getRoles(policy).get(AGENT1));
+    }
+
+    private static Map<String, Collection<String>> getRoles(final CompiledWebACPolicy policy) {
+        return policy.getRoles(singletonList(ACCESS_TO), singletonList(ACCESS_TO_CLASS), groups -> emptyList());
+    }
+
+    private static WebACAuthorization authorization(final List<String> agents, final List<String> agentClasses,
+                                                    final List<URI> modes, final List<String> accessTo,
+                                                    final List<String> accessToClass,
+                                                    final List<String> agentGroups) {
+        return new WebACAuthorization(agents, agentClasses, modes, accessTo, accessToClass, agentGroups,
+                emptyList());
+    }
+}
@@ -27,7 +27,10 @@ import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_APPEND;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_CONTROL;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_READ;
 import static org.fcrepo.auth.webac.URIConstants.WEBAC_MODE_WRITE;
+import static org.fcrepo.http.commons.session.TransactionProvider.ATOMIC_ID_HEADER;
+import static org.fcrepo.http.commons.test.util.TestHelpers.getUriInfoImpl;
 import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_BINARY;
+import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_ID_PREFIX;
 import static org.fcrepo.kernel.api.RdfLexicon.BASIC_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.NON_RDF_SOURCE;
 import static org.fcrepo.kernel.api.RdfLexicon.REPOSITORY_NAMESPACE;
@@ -35,18 +38,25 @@ import static org.fcrepo.kernel.api.RdfLexicon.REPOSITORY_NAMESPACE;
 import org.fcrepo.kernel.api.TransactionManager;
 import org.fcrepo.kernel.api.models.ResourceFactory;
 import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.getField;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
+import com.google.common.cache.Cache;
 import org.apache.shiro.SecurityUtils;
 import org.apache.shiro.mgt.SecurityManager;
 import org.apache.shiro.subject.Subject;
 import org.apache.shiro.subject.support.SubjectThreadState;
+import org.fcrepo.http.api.FedoraLdp;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.models.Container;
 import org.fcrepo.kernel.api.models.Binary;
@@ -78,6 +88,10 @@ public class WebACFilterTest {
 
     private static final String testAclPath = testPath + "/fcr:acl";
 
+    private static final String testId = FEDORA_ID_PREFIX + testPath.substring(1);
+
+    private static final String testChildId = FEDORA_ID_PREFIX + testChildPath.substring(1);
+
     private static final URI testURI = URI.create(baseURL + testPath);
 
     private static final URI testAclURI = URI.create(baseURL + testAclPath);
@@ -96,6 +110,9 @@ public class WebACFilterTest {
     @Mock
     private Transaction mockTransaction;
 
+    @Mock
+    private WebACRolesProvider mockRolesProvider;
+
     private FedoraResource mockContainer;
 
     private FedoraResource mockChildContainer;
@@ -149,6 +166,7 @@ public class WebACFilterTest {
         // so the request URI and path info are the same
         request.setPathInfo(testPath);
         request.setRequestURI(testPath);
+        request.addHeader(ATOMIC_ID_HEADER, "tx-id");
 
         setField(webacFilter, "transactionManager", mockTransactionManager);
 
@@ -159,9 +177,9 @@ public class WebACFilterTest {
 
         when(mockTransactionManager.get("tx-id")).thenReturn(mockTransaction);
 
-        when(mockResourceFactory.getResource(mockTransaction, testChildPath)).thenReturn(null);
+        when(mockResourceFactory.getResource(mockTransaction, testChildId)).thenReturn(null);
 
-        when(mockResourceFactory.getResource(mockTransaction, "/")).thenReturn(mockRoot);
+        when(mockResourceFactory.getResource(mockTransaction, FEDORA_ID_PREFIX)).thenReturn(mockRoot);
         when(mockContainer.getContainer()).thenReturn(mockRoot);
         when(mockChildContainer.getContainer()).thenReturn(mockContainer);
 
@@ -179,13 +197,13 @@ public class WebACFilterTest {
     }
 
     private void setupContainerResource() throws Exception {
-        when(mockResourceFactory.getResource(mockTransaction, testPath)).thenReturn(mockContainer);
-        when(mockResourceFactory.getResource(mockTransaction, testChildPath)).thenReturn(mockChildContainer);
+        when(mockResourceFactory.getResource(mockTransaction, testId)).thenReturn(mockContainer);
+        when(mockResourceFactory.getResource(mockTransaction, testChildId)).thenReturn(mockChildContainer);
         when(mockBinary.hasType(FEDORA_BINARY)).thenReturn(false);
     }
 
     private void setupBinaryResource() throws Exception {
-        when(mockResourceFactory.getResource(mockTransaction, testPath)).thenReturn(mockBinary);
+        when(mockResourceFactory.getResource(mockTransaction, testId)).thenReturn(mockBinary);
         when(mockBinary.hasType(FEDORA_BINARY)).thenReturn(true);
     }
 
@@ -426,6 +444,24 @@ public class WebACFilterTest {
         assertEquals(SC_OK, response.getStatus());
     }
 
+    @Test
+    public void testAuthUserReadOnlyGetReusesAuthorizedResource() throws Exception {
+        setupAuthUserReadOnly();
+        request.setMethod("GET");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockResourceFactory).getResource(mockTransaction, testId);
+
+        final FedoraLdp ldp = new FedoraLdp(testPath);
+        setField(ldp, "servletRequest", request);
+        setField(ldp, "uriInfo", getUriInfoImpl());
+        setField(ldp, "transaction", mockTransaction);
+        setField(ldp, "resourceFactory", mockResourceFactory);
+        assertEquals(mockContainer, ldp.getResourceFromPath(testPath));
+        // still only the one load made by the filter
+        verify(mockResourceFactory).getResource(mockTransaction, testId);
+    }
+
     @Test
     public void testAuthUserReadOnlyOptions() throws Exception {
         setupAuthUserReadOnly();
@@ -714,6 +750,7 @@ public class WebACFilterTest {
     @Test
     public void testAuthUserAppendPutNewChild() throws Exception {
         setupAuthUserAppendOnly();
+        when(mockResourceFactory.getResource(mockTransaction, testChildId)).thenReturn(null);
         // PUT => 200
         request.setRequestURI(testChildPath);
         request.setPathInfo(testChildPath);
@@ -731,6 +768,106 @@ public class WebACFilterTest {
         assertEquals(SC_OK, response.getStatus());
     }
 
+    @Test
+    public void testAclControlPutToAclInvalidatesEffectiveAcls() throws Exception {
+        setupAuthUserAclControl();
+        request.setRequestURI(testAclPath);
+        request.setMethod("PUT");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockRolesProvider).invalidateEffectiveAcls();
+    }
+
+    @Test
+    public void testNoAclControlPutToAclKeepsEffectiveAcls() throws Exception {
+        setupAuthUserNoAclControl();
+        request.setRequestURI(testAclPath);
+        request.setMethod("PUT");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_FORBIDDEN, response.getStatus());
+        verify(mockRolesProvider, never()).invalidateEffectiveAcls();
+    }
+
+    @Test
+    public void testAdminUserGetKeepsEffectiveAcls() throws Exception {
+        setupAdminUser();
+        request.setMethod("GET");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockRolesProvider, never()).invalidateEffectiveAcls();
+    }
+
+    @Test
+    public void testAdminUserDeleteInvalidatesEffectiveAcls() throws Exception {
+        setupAdminUser();
+        request.setMethod("DELETE");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockRolesProvider).invalidateEffectiveAcls();
+    }
+
+    @Test
+    public void testAdminUserPatchInvalidatesEffectiveAclsOfResource() throws Exception {
+        setupAdminUser();
+        request.setMethod("PATCH");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockRolesProvider).invalidateEffectiveAcls(testPath);
+        verify(mockRolesProvider, never()).invalidateEffectiveAcls();
+    }
+
+    @Test
+    public void testAdminUserDeleteInvalidatesAgentGroups() throws Exception {
+        setupAdminUser();
+        request.setMethod("DELETE");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockRolesProvider).invalidateAgentGroups(testPath);
+    }
+
+    @Test
+    public void testAdminUserPutUnderContextPathInvalidatesAgentGroups() throws Exception {
+        setupAdminUser();
+        request.setMethod("PUT");
+        request.setContextPath("/fcrepo");
+        request.setServletPath("/rest");
+        request.setRequestURI("/fcrepo/rest" + testChildPath);
+        request.setPathInfo(testChildPath);
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockRolesProvider).invalidateAgentGroups(testChildPath);
+    }
+
+    @Test
+    public void testAdminUserDeleteDiscardsCachedAgentGroup() throws Exception {
+        final WebACRolesProvider rolesProvider = new WebACRolesProvider();
+        final Cache<String, Set<String>> agentGroupCache = getAgentGroupCache(rolesProvider);
+        agentGroupCache.put("info:fedora" + testPath + "/group#members", Set.of("person1"));
+        agentGroupCache.put("info:fedora/otherGroup", Set.of("person2"));
+        setField(webacFilter, "rolesProvider", rolesProvider);
+
+        setupAdminUser();
+        request.setMethod("DELETE");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        assertEquals(Set.of("info:fedora/otherGroup"), agentGroupCache.asMap().keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<String, Set<String>> getAgentGroupCache(final WebACRolesProvider rolesProvider) {
+        return (Cache<String, Set<String>>) getField(rolesProvider, "agentGroupCache");
+    }
+
+    @Test
+    public void testAdminUserGetKeepsAgentGroups() throws Exception {
+        setupAdminUser();
+        request.setMethod("GET");
+        webacFilter.doFilter(request, response, filterChain);
+        assertEquals(SC_OK, response.getStatus());
+        verify(mockRolesProvider, never()).invalidateAgentGroups(any());
+        verify(mockRolesProvider, never()).invalidateAgentGroups();
+    }
+
     @Test
     public void testNoAclControlPutToAcl() throws Exception {
         setupAuthUserNoAclControl();
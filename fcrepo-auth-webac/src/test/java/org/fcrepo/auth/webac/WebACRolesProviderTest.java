@@ -32,6 +32,8 @@ import org.fcrepo.kernel.api.models.ResourceFactory;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
@@ -40,6 +42,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
@@ -86,6 +89,9 @@ public class WebACRolesProviderTest {
     @Mock
     private FedoraResource mockAgentClassResource;
 
+    @Mock
+    private FedoraResource mockSiblingResource, mockEmptyAclResource;
+
     @Rule
     public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
 
@@ -127,6 +133,127 @@ public class WebACRolesProviderTest {
         assertOnlyDefaultAgentInRoles(roles);
     }
 
+    @Test
+    public void acl01CachedUntilInvalidatedTest() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+
+        when(mockTransaction.isShortLived()).thenReturn(true);
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getPath()).thenReturn(accessTo);
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getPath()).thenReturn(accessTo + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        verify(mockAclResource, times(1)).getTriples();
+        assertEquals(1, roleProvider.getEffectiveAclCacheStats().hitCount());
+
+        roleProvider.invalidateEffectiveAcls();
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        verify(mockAclResource, times(2)).getTriples();
+    }
+
+    @Test
+    public void acl01NotCachedWhenInvalidatedDuringLoadTest() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+        final AtomicInteger loads = new AtomicInteger();
+
+        when(mockTransaction.isShortLived()).thenReturn(true);
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getPath()).thenReturn(accessTo);
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                // the ACL is changed while it is being read
+                roleProvider.invalidateEffectiveAcls();
+            }
+            return getRdfStreamFromResource(acl, TTL);
+        });
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getPath()).thenReturn(accessTo + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        verify(mockAclResource, times(2)).getTriples();
+    }
+
+    @Test
+    public void acl01InvalidatedWhenAclBearingResourceUpdatedTest() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+
+        when(mockTransaction.isShortLived()).thenReturn(true);
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getPath()).thenReturn(accessTo);
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getPath()).thenReturn(accessTo + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        roleProvider.invalidateEffectiveAcls("/webacl_box2");
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        verify(mockAclResource, times(1)).getTriples();
+
+        roleProvider.invalidateEffectiveAcls(accessTo + "/fcr:metadata");
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        verify(mockAclResource, times(2)).getTriples();
+    }
+
+    @Test
+    public void acl01InheritedPolicySharedTest() throws RepositoryException {
+        final String agent = "user01";
+        final String parentPath = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+
+        when(mockTransaction.isShortLived()).thenReturn(true);
+        when(mockEmptyAclResource.isAcl()).thenReturn(false);
+        when(mockParentResource.getPath()).thenReturn(parentPath);
+        when(mockParentResource.getAcl()).thenReturn(mockAclResource);
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getPath()).thenReturn(parentPath + "/fcr:acl");
+        for (final FedoraResource child : List.of(mockResource, mockSiblingResource)) {
+            when(child.getDescribedResource()).thenReturn(child);
+            when(child.getDescription()).thenReturn(child);
+            when(child.getAcl()).thenReturn(mockEmptyAclResource);
+            when(child.getContainer()).thenReturn(mockParentResource);
+        }
+        when(mockResource.getPath()).thenReturn(parentPath + "/foo");
+        when(mockSiblingResource.getPath()).thenReturn(parentPath + "/bar");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        assertEquals(2, roleProvider.getRoles(mockSiblingResource, mockTransaction).get(agent).size());
+        assertEquals(1, roleProvider.getPolicyCacheStats().hitCount());
+
+        roleProvider.invalidateEffectiveAcls();
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        assertEquals(1, roleProvider.getPolicyCacheStats().hitCount());
+    }
+
+    @Test
+    public void acl01NotCachedInLongRunningTransactionTest() throws RepositoryException {
+        final String agent = "user01";
+        final String accessTo = "/webacl_box1";
+        final String acl = "/acls/01/acl.ttl";
+
+        when(mockTransaction.isShortLived()).thenReturn(false);
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getPath()).thenReturn(accessTo);
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getPath()).thenReturn(accessTo + "/fcr:acl");
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent).size());
+        verify(mockAclResource, times(2)).getTriples();
+    }
+
     @Ignore // TODO FIX THIS TEST
     @Test
     public void acl01ParentTest() throws RepositoryException {
@@ -475,6 +602,88 @@ public class WebACRolesProviderTest {
         assertTrue("The agent should be able to write", roles.get(agent1).contains(WEBAC_MODE_WRITE_VALUE));
     }
 
+    @Test
+    public void acl09GroupMembersCachedUntilInvalidatedTest() throws RepositoryException, PathNotFoundException {
+        final String agent1 = "person1";
+        final String accessTo = "/anotherCollection";
+
+        final String groupResource = "/group/foo";
+        final String aclDir = "/acls/09";
+        final String acl = aclDir + "/acl.ttl";
+        final String group = aclDir + "/group.ttl";
+
+        when(mockTransaction.isShortLived()).thenReturn(true);
+        when(mockResourceFactory.getResource(mockTransaction, groupResource)).thenReturn(mockAgentClassResource);
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getPath()).thenReturn(accessTo);
+        when(mockResource.getOriginalResource()).thenReturn(mockResource);
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getPath()).thenReturn(accessTo + "/fcr:acl");
+
+        when(mockAgentClassResource.getTypes()).thenReturn(singletonList(VCARD_GROUP));
+        when(mockAgentClassResource.getPath()).thenReturn(groupResource);
+        when(mockAgentClassResource.getTriples()).thenAnswer(invocation -> getRdfStreamFromResource(group, TTL));
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        roleProvider.invalidateEffectiveAcls();
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        verify(mockAgentClassResource, times(1)).getTriples();
+        assertEquals(1, roleProvider.getAgentGroupCacheStats().hitCount());
+
+        roleProvider.invalidateAgentGroups("/group/bar");
+        roleProvider.invalidateEffectiveAcls();
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        verify(mockAgentClassResource, times(1)).getTriples();
+
+        roleProvider.invalidateAgentGroups(groupResource);
+        roleProvider.invalidateEffectiveAcls();
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        verify(mockAgentClassResource, times(2)).getTriples();
+
+        roleProvider.invalidateAgentGroups((String) null);
+        roleProvider.invalidateEffectiveAcls();
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        verify(mockAgentClassResource, times(3)).getTriples();
+    }
+
+    @Test
+    public void acl09GroupMembersNotCachedWhenInvalidatedDuringLoadTest() throws RepositoryException,
+            PathNotFoundException {
+        final String agent1 = "person1";
+        final String accessTo = "/anotherCollection";
+
+        final String groupResource = "/group/foo";
+        final String aclDir = "/acls/09";
+        final String acl = aclDir + "/acl.ttl";
+        final String group = aclDir + "/group.ttl";
+        final AtomicInteger loads = new AtomicInteger();
+
+        when(mockTransaction.isShortLived()).thenReturn(true);
+        when(mockResourceFactory.getResource(mockTransaction, groupResource)).thenReturn(mockAgentClassResource);
+        when(mockResource.getAcl()).thenReturn(mockAclResource);
+        when(mockResource.getPath()).thenReturn(accessTo);
+        when(mockResource.getOriginalResource()).thenReturn(mockResource);
+        when(mockAclResource.getTriples()).thenAnswer(invocation -> getRdfStreamFromResource(acl, TTL));
+        when(mockAclResource.isAcl()).thenReturn(true);
+        when(mockAclResource.getPath()).thenReturn(accessTo + "/fcr:acl");
+
+        when(mockAgentClassResource.getTypes()).thenReturn(singletonList(VCARD_GROUP));
+        when(mockAgentClassResource.getPath()).thenReturn(groupResource);
+        when(mockAgentClassResource.getTriples()).thenAnswer(invocation -> {
+            if (loads.incrementAndGet() == 1) {
+                // the group is changed while its members are being read
+                roleProvider.invalidateAgentGroups(groupResource);
+            }
+            return getRdfStreamFromResource(group, TTL);
+        });
+
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        assertEquals(2, roleProvider.getRoles(mockResource, mockTransaction).get(agent1).size());
+        verify(mockAgentClassResource, times(2)).getTriples();
+    }
+
     /* (non-Javadoc)
      * Test that an in-repository resource used as a target for acl:agentClass has
      * the rdf:type of foaf:Group. This test mocks a resource that is not of the type
@@ -56,6 +56,7 @@ import static org.fcrepo.http.commons.domain.RDFMediaType.N3_ALT2;
 import static org.fcrepo.http.commons.domain.RDFMediaType.NTRIPLES;
 import static org.fcrepo.http.commons.domain.RDFMediaType.RDF_XML;
 import static org.fcrepo.http.commons.domain.RDFMediaType.TURTLE;
+import static org.fcrepo.http.commons.session.ParsedRequestBody.PARSED_REQUEST_BODY;
 import static org.fcrepo.kernel.api.RdfLexicon.ARCHIVAL_GROUP;
 import static org.fcrepo.kernel.api.FedoraTypes.FCR_ACL;
 import static org.fcrepo.kernel.api.FedoraTypes.LDP_BASIC_CONTAINER;
@@ -63,6 +64,7 @@ import static org.fcrepo.kernel.api.FedoraTypes.LDP_DIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.FedoraTypes.LDP_INDIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.BASIC_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.CONTAINS;
 import static org.fcrepo.kernel.api.RdfLexicon.DIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.INDIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.LDP_NAMESPACE;
@@ -79,6 +81,7 @@ import static org.fcrepo.kernel.api.models.ExternalContent.REDIRECT;
 import static org.fcrepo.kernel.api.services.VersionService.MEMENTO_RFC_1123_FORMATTER;
 import static org.slf4j.LoggerFactory.getLogger;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
@@ -91,6 +94,8 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -112,7 +117,9 @@ import javax.ws.rs.core.Response;
 
 import org.apache.http.client.methods.HttpPatch;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Model;
 import org.fcrepo.http.api.services.HttpRdfService;
 import org.fcrepo.http.commons.api.HttpHeaderInjector;
 import org.fcrepo.http.commons.api.rdf.HttpTripleUtil;
@@ -120,8 +127,14 @@ import org.fcrepo.http.commons.domain.MultiPrefer;
 import org.fcrepo.http.commons.domain.PreferTag;
 import org.fcrepo.http.commons.domain.Range;
 import org.fcrepo.http.commons.domain.ldp.LdpPreferTag;
+import org.fcrepo.http.commons.responses.FileChannelStreamingOutput;
+import org.fcrepo.http.commons.responses.MultipartByteRangesOutput;
 import org.fcrepo.http.commons.responses.RangeRequestInputStream;
 import org.fcrepo.http.commons.responses.RdfNamespacedStream;
+import org.fcrepo.http.commons.session.ParsedRequestBody;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.kernel.api.ReferenceIndex;
 import org.fcrepo.kernel.api.RdfStream;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.TripleCategory;
@@ -215,6 +228,15 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
     @Inject
     protected HttpRdfService httpRdfService;
 
+    @Inject
+    protected ContainmentIndex containmentIndex;
+
+    @Inject
+    protected MembershipIndex membershipIndex;
+
+    @Inject
+    protected ReferenceIndex referenceIndex;
+
     private static final Predicate<Triple> IS_MANAGED_TYPE = t -> t.getPredicate().equals(type.asNode()) &&
             isManagedNamespace.test(t.getObject().getNameSpace());
     private static final Predicate<Triple> IS_MANAGED_TRIPLE = IS_MANAGED_TYPE
@@ -318,28 +340,18 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
             }
 
             // containment triples about this resource
-            if (ldpPreferences.prefersContainment()) {
-                if (limit == -1) {
-                    //TODO Implement retrieving containment triples service
-                    //  https://jira.lyrasis.org/browse/FCREPO-3164
-                    //streams.add(getTriples(resource, LDP_CONTAINMENT));
-                } else {
-                    //streams.add(getTriples(resource, LDP_CONTAINMENT).limit(limit));
-                }
+            if (ldpPreferences.prefersContainment() && resource instanceof Container) {
+                streams.add(getContainmentTriples(limit, resource));
             }
 
             // LDP container membership triples for this resource
             if (ldpPreferences.prefersMembership()) {
-                //TODO implement memebership triple retrieval service:
-                // https://jira.lyrasis.org/browse/FCREPO-3165
-                //streams.add(getTriples(resource, LDP_MEMBERSHIP));
+                streams.add(getMembershipTriples(limit, resource));
             }
 
             // Include inbound references to this object
             if (ldpPreferences.prefersReferences()) {
-                //TODO implement inbound triple retrieval service:
-                // https://jira.lyrasis.org/browse/FCREPO-3166
-                //streams.add(getTriples(resource, INBOUND_REFERENCES));
+                streams.add(getInboundReferenceTriples(resource));
             }
 
             // Embed the children of this object
@@ -359,6 +371,55 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
         return rdfStream;
     }
 
+    /**
+     * Produce the ldp:contains triples of a container, read from the containment index in identifier order.
+     *
+     * @param limit is the number of child resources returned, -1 for all
+     * @param resource the container
+     * @return a stream of containment triples
+     */
+    private Stream<Triple> getContainmentTriples(final int limit, final FedoraResource resource) {
+        final Node subject = asNode(resource);
+        return containmentIndex.getContainedBy(transaction.getId(), resource.getId(), null, limit)
+                .map(childId -> Triple.create(subject, CONTAINS.asNode(),
+                        createURI(identifierConverter().toExternalId(childId))));
+    }
+
+    /**
+     * Produce the membership triples whose subject is this resource, read from the membership index.
+     *
+     * @param limit is the number of membership triples returned, -1 for all
+     * @param resource the resource
+     * @return a stream of membership triples
+     */
+    private Stream<Triple> getMembershipTriples(final int limit, final FedoraResource resource) {
+        final Node subject = asNode(resource);
+        return membershipIndex.getMembership(transaction.getId(), resource.getId(), null, limit)
+                .map(t -> Triple.create(subject, t.getPredicate(), toExternalNode(t.getObject())));
+    }
+
+    /**
+     * Produce the triples of other resources which refer to this resource, read from the reference index.
+     *
+     * @param resource the resource
+     * @return a stream of referencing triples
+     */
+    private Stream<Triple> getInboundReferenceTriples(final FedoraResource resource) {
+        final Node object = asNode(resource);
+        return referenceIndex.getInboundReferences(transaction.getId(), resource.getId(), -1)
+                .map(t -> Triple.create(toExternalNode(t.getSubject()), t.getPredicate(), object));
+    }
+
+    /**
+     * Translate a node holding an internal identifier to the external URI of the resource.
+     */
+    private Node toExternalNode(final Node node) {
+        if (node.isURI() && identifierConverter().inInternalDomain(node.getURI())) {
+            return createURI(identifierConverter().toExternalId(node.getURI()));
+        }
+        return node;
+    }
+
     /**
      * Get the binary content of a datastream
      *
@@ -374,56 +435,91 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
             cc.setMaxAge(0);
             cc.setMustRevalidate(true);
             final Response.ResponseBuilder builder;
+            final String binaryMediaType = getBinaryResourceMediaType(resource).toString();
+            String responseMediaType = binaryMediaType;
 
-            if (rangeValue != null && rangeValue.startsWith("bytes")) {
+            final List<Range> requested = rangeValue != null && rangeValue.startsWith("bytes") ?
+                    Range.convertAll(rangeValue) : List.of();
 
-                final Range range = Range.convert(rangeValue);
+            // a malformed or abusive Range header is ignored, and the full content returned
+            if (requested.stream().anyMatch(Range::hasRange)) {
 
                 final long contentSize = binary.getContentSize();
+                final List<Range> ranges = Range.coalesce(requested, contentSize);
 
-                final String endAsString;
-
-                if (range.end() == -1) {
-                    endAsString = Long.toString(contentSize - 1);
-                } else {
-                    endAsString = Long.toString(range.end());
-                }
-
-                final String contentRangeValue =
-                        String.format("bytes %s-%s/%s", range.start(),
-                                endAsString, contentSize);
-
-                if (range.end() > contentSize ||
-                        (range.end() == -1 && range.start() > contentSize)) {
-
+                if (ranges.isEmpty()) {
                     builder = status(REQUESTED_RANGE_NOT_SATISFIABLE)
-                            .header("Content-Range", contentRangeValue);
-                } else {
-                    @SuppressWarnings("resource")
-                    final RangeRequestInputStream rangeInputStream =
-                            new RangeRequestInputStream(binary.getContent(), range.start(), range.size());
-
-                    builder = status(PARTIAL_CONTENT).entity(rangeInputStream)
+                            .header("Content-Range", "bytes */" + contentSize);
+                } else if (ranges.size() == 1) {
+                    final Range range = ranges.get(0);
+                    final String contentRangeValue =
+                            String.format("bytes %s-%s/%s", range.start(), range.end(), contentSize);
+                    builder = status(PARTIAL_CONTENT).entity(rangeEntity(binary, range.start(), range.size()))
                             .header("Content-Range", contentRangeValue)
                             .header(CONTENT_LENGTH, range.size());
+                } else {
+                    final String boundary = UUID.randomUUID().toString();
+                    builder = status(PARTIAL_CONTENT).entity(new MultipartByteRangesOutput(ranges,
+                            contentSize, binaryMediaType, boundary, rangeReader(binary)));
+                    responseMediaType = "multipart/byteranges; boundary=" + boundary;
                 }
 
             } else {
-                @SuppressWarnings("resource")
-                final InputStream content = binary.getContent();
-                builder = ok(content);
+                builder = ok(rangeEntity(binary, 0, -1));
             }
 
 
             // we set the content-type explicitly to avoid content-negotiation from getting in the way
             // getBinaryResourceMediaType will try to use the mime type on the resource, falling back on
             // 'application/octet-stream' if the mime type is syntactically invalid
-            return builder.type(getBinaryResourceMediaType(resource).toString())
+            return builder.type(responseMediaType)
                     .cacheControl(cc)
                     .build();
 
         }
 
+    /**
+     * Create the response entity for a range of the content of a binary. Content stored in a file is read from
+     * the file's channel at the start of the range, other content is skipped up to the start of the range.
+     *
+     * @param binary the binary
+     * @param start the position of the first byte of the range
+     * @param length the length of the range, or -1 for the remainder of the content
+     * @return the response entity
+     * @throws IOException if the content could not be positioned at the start of the range
+     */
+    @SuppressWarnings("resource")
+    private static Object rangeEntity(final Binary binary, final long start, final long length) throws IOException {
+        final InputStream content = binary.getContent();
+        if (content instanceof FileInputStream) {
+            return new FileChannelStreamingOutput(((FileInputStream) content).getChannel(), start, length);
+        }
+        if (start == 0 && length == -1) {
+            return content;
+        }
+        return new RangeRequestInputStream(content, start, length);
+    }
+
+    /**
+     * Create a reader for the ranges of a multipart/byteranges response, which reads positionally from the file
+     * channel when the content is stored in a file.
+     *
+     * @param binary the binary
+     * @return the range reader
+     */
+    @SuppressWarnings("resource")
+    private static MultipartByteRangesOutput.RangeReader rangeReader(final Binary binary) {
+        final InputStream content = binary.getContent();
+        if (content instanceof FileInputStream) {
+            return MultipartByteRangesOutput.fromChannel(((FileInputStream) content).getChannel());
+        }
+        final var first = new AtomicReference<>(content);
+        return MultipartByteRangesOutput.fromStreams(() -> {
+            final InputStream stream = first.getAndSet(null);
+            return stream != null ? stream : binary.getContent();
+        });
+    }
+
     private RdfStream getTriples(final FedoraResource resource, final Set<? extends TripleCategory> x) {
         return null;
     }
@@ -448,6 +544,28 @@ public abstract class ContentExposingResource extends FedoraBaseResource {
         return fedoraResource;
     }
 
+    /**
+     * Parse an RDF request body to a Model with Fedora IDs in it. A body already parsed against the same base URI
+     * while the request was authorized is reused rather than parsed again.
+     *
+     * @param extResourceId the external ID the body is parsed against
+     * @param requestBodyStream the request body
+     * @param contentType the media type of the body
+     * @return the model
+     */
+    protected Model bodyToInternalModel(final String extResourceId, final InputStream requestBodyStream,
+                                        final MediaType contentType) {
+        final ParsedRequestBody parsedBody = servletRequest == null ? null :
+                (ParsedRequestBody) servletRequest.getAttribute(PARSED_REQUEST_BODY);
+        final Model parsed = parsedBody == null ? null : parsedBody.takeModel(extResourceId);
+        if (parsed != null) {
+            LOGGER.debug("Reusing the request body parsed against {}", extResourceId);
+            return httpRdfService.toInternalModel(parsed, identifierConverter());
+        }
+        return httpRdfService.bodyToInternalModel(extResourceId, requestBodyStream, contentType,
+                identifierConverter());
+    }
+
     /**
      * Add the standard Accept-Post header, for reuse.
      */
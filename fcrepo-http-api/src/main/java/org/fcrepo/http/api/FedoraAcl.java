@@ -144,8 +144,8 @@ public class FedoraAcl extends ContentExposingResource {
         if (isRdfContentType(contentType.toString())) {
 
             // TODO: confirm this is correct logic for ACL's
-            final Model model = httpRdfService.bodyToInternalModel(externalPath() + "/fcr:acl",
-                    requestBodyStream, requestContentType, identifierConverter());
+            final Model model = bodyToInternalModel(externalPath() + "/fcr:acl", requestBodyStream,
+                    requestContentType);
 
             replacePropertiesService.perform(transaction.getId(), getUserPrincipal(), aclResource.getId(),
                 requestContentType.toString(), model);
@@ -24,6 +24,7 @@ import org.apache.jena.rdf.model.Resource;
 import org.fcrepo.http.commons.AbstractResource;
 import org.fcrepo.http.commons.api.rdf.HttpIdentifierConverter;
 import org.fcrepo.http.commons.api.rdf.HttpResourceConverter;
+import org.fcrepo.http.commons.session.RequestAuthorizationContext;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.exception.PathNotFoundException;
 import org.fcrepo.kernel.api.exception.PathNotFoundRuntimeException;
@@ -36,8 +37,10 @@ import org.slf4j.Logger;
 
 import java.net.URI;
 import java.security.Principal;
+import java.util.Set;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.SecurityContext;
@@ -45,6 +48,7 @@ import javax.ws.rs.core.UriInfo;
 
 // import static org.fcrepo.kernel.api.observer.OptionalValues.BASE_URL;
 // import static org.fcrepo.kernel.api.observer.OptionalValues.USER_AGENT;
+import static org.fcrepo.http.commons.session.RequestAuthorizationContext.REQUEST_AUTHORIZATION_CONTEXT;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -59,12 +63,17 @@ abstract public class FedoraBaseResource extends AbstractResource {
 
     private static final Pattern TRAILING_SLASH_REGEX = Pattern.compile("/+$");
 
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
     @Inject
     protected Transaction transaction;
 
     @Context
     protected SecurityContext securityContext;
 
+    @Context
+    protected HttpServletRequest servletRequest;
+
     @Inject
     private ResourceFactory resourceFactory;
 
@@ -142,7 +151,9 @@ abstract public class FedoraBaseResource extends AbstractResource {
     public FedoraResource getResourceFromPath(final String externalPath) {
         final String fedoraId = identifierConverter().toInternalId(identifierConverter().toDomain(externalPath));
         try {
-            final FedoraResource fedoraResource = resourceFactory.getResource(transaction, fedoraId);
+            final FedoraResource authorizedResource = getAuthorizedResource(fedoraId);
+            final FedoraResource fedoraResource = authorizedResource != null ?
+                    authorizedResource : resourceFactory.getResource(transaction, fedoraId);
 
             if (fedoraResource instanceof Tombstone) {
                 final String resourceURI = TRAILING_SLASH_REGEX.matcher(externalPath).replaceAll("");
@@ -155,6 +166,22 @@ abstract public class FedoraBaseResource extends AbstractResource {
         }
     }
 
+    /**
+     * Get a resource already loaded in this transaction while the request was authorized. Only read-only requests
+     * reuse it, since any other request may change the resource after it was loaded.
+     *
+     * @param fedoraId identifier of the resource
+     * @return the resource, or null if it was not loaded during authorization
+     */
+    private FedoraResource getAuthorizedResource(final String fedoraId) {
+        if (servletRequest == null || !SAFE_METHODS.contains(servletRequest.getMethod())) {
+            return null;
+        }
+        final RequestAuthorizationContext context = (RequestAuthorizationContext) servletRequest
+                .getAttribute(REQUEST_AUTHORIZATION_CONTEXT);
+        return context == null ? null : context.getLoadedResource(transaction, fedoraId);
+    }
+
     /**
      * Set the baseURL for JMS events.
      * @param uriInfo the uri info
@@ -474,8 +474,7 @@ public class FedoraLdp extends ContentExposingResource {
             }
         } else {
             final var contentType = requestContentType != null ? requestContentType : DEFAULT_RDF_CONTENT_TYPE;
-            final Model model = httpRdfService.bodyToInternalModel(externalUri, requestBodyStream,
-                    contentType, identifierConverter());
+            final Model model = bodyToInternalModel(externalUri, requestBodyStream, contentType);
 
             if (resourceExists) {
                 replacePropertiesService.perform(transaction.getId(),
@@ -637,8 +636,7 @@ public class FedoraLdp extends ContentExposingResource {
                                                         extContent);
         } else {
             final var contentType = requestContentType != null ? requestContentType : DEFAULT_RDF_CONTENT_TYPE;
-            final Model model = httpRdfService.bodyToInternalModel(externalPath(), requestBodyStream,
-                    contentType, identifierConverter());
+            final Model model = bodyToInternalModel(externalPath(), requestBodyStream, contentType);
             newFedoraId = createResourceService.perform(transaction.getId(),
                                                         getUserPrincipal(),
                                                         fedoraId, slug,
@@ -72,7 +72,17 @@ public class HttpRdfService {
                                      final MediaType contentType, final HttpIdentifierConverter idTranslator)
                                      throws RepositoryRuntimeException, BadRequestException {
 
-        final Model model = parseBodyAsModel(stream, contentType, extResourceId);
+        return toInternalModel(parseBodyAsModel(stream, contentType, extResourceId), idTranslator);
+    }
+
+    /**
+     * Translate the resource URIs of an already parsed request body to Fedora IDs, in place.
+     *
+     * @param model the parsed RDF
+     * @param idTranslator the identifier convert
+     * @return the same model, with Fedora IDs in it
+     */
+    public Model toInternalModel(final Model model, final HttpIdentifierConverter idTranslator) {
         final List<Statement> insertStatements = new ArrayList<>();
         final StmtIterator stmtIterator = model.listStatements();
 
@@ -48,6 +48,8 @@ import static org.fcrepo.kernel.api.FedoraTypes.LDP_DIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.FedoraTypes.LDP_INDIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfCollectors.toModel;
 import static org.fcrepo.kernel.api.RdfLexicon.BASIC_CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.CONTAINS;
+import static org.fcrepo.kernel.api.RdfLexicon.LDP_MEMBER;
 import static org.fcrepo.kernel.api.RdfLexicon.DIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.EXTERNAL_CONTENT;
 import static org.fcrepo.kernel.api.RdfLexicon.INBOUND_REFERENCES;
@@ -62,9 +64,11 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -110,6 +114,9 @@ import org.fcrepo.http.commons.api.rdf.HttpResourceConverter;
 import org.fcrepo.http.commons.domain.MultiPrefer;
 import org.fcrepo.http.commons.domain.PreferTag;
 import org.fcrepo.http.commons.responses.RdfNamespacedStream;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.kernel.api.ReferenceIndex;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.RdfStream;
 import org.fcrepo.kernel.api.exception.CannotCreateResourceException;
@@ -225,6 +232,15 @@ public class FedoraLdpTest {
     @Mock
     private DeleteResourceService deleteResourceService;
 
+    @Mock
+    private ContainmentIndex containmentIndex;
+
+    @Mock
+    private MembershipIndex membershipIndex;
+
+    @Mock
+    private ReferenceIndex referenceIndex;
+
     private static final Logger log = getLogger(FedoraLdpTest.class);
 
 
@@ -253,6 +269,9 @@ public class FedoraLdpTest {
         setField(testObj, "extContentHandlerFactory", extContentHandlerFactory);
         setField(testObj, "namespaceRegistry", rdfNamespaceRegistry);
         setField(testObj, "deleteResourceService", deleteResourceService);
+        setField(testObj, "containmentIndex", containmentIndex);
+        setField(testObj, "membershipIndex", membershipIndex);
+        setField(testObj, "referenceIndex", referenceIndex);
 
         when(rdfNamespaceRegistry.getNamespaces()).thenReturn(new HashMap<>());
 
@@ -710,6 +729,46 @@ public class FedoraLdpTest {
         }
     }
 
+    @Test
+    public void testGetWithObjectIncludesContainment() throws Exception {
+        final FedoraResource resource = setResource(Container.class);
+        final String resourceId = "info:fedora/some/path";
+        when(resource.getId()).thenReturn(resourceId);
+        when(mockRequest.getMethod()).thenReturn("GET");
+        when(containmentIndex.getContainedBy(eq(mockTransaction.getId()), eq(resourceId), isNull(), anyInt()))
+                .thenReturn(of(resourceId + "/child"));
+        final Response actual = testObj.getResource(null);
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+
+        try (final RdfNamespacedStream entity = (RdfNamespacedStream) actual.getEntity()) {
+            final Model model = entity.stream.collect(toModel());
+            final List<String> children = model.listObjectsOfProperty(CONTAINS).mapWith(RDFNode::toString).toList();
+            assertEquals(1, children.size());
+            assertTrue("Should contain the child", children.get(0).endsWith("/some/path/child"));
+        }
+    }
+
+    @Test
+    public void testGetWithObjectIncludesMembership() throws Exception {
+        final FedoraResource resource = setResource(Container.class);
+        final String resourceId = "info:fedora/some/path";
+        when(resource.getId()).thenReturn(resourceId);
+        when(mockRequest.getMethod()).thenReturn("GET");
+        when(membershipIndex.getMembership(eq(mockTransaction.getId()), eq(resourceId), isNull(), anyInt()))
+                .thenReturn(of(Triple.create(createURI(resourceId), LDP_MEMBER.asNode(),
+                        createURI("info:fedora/some/member"))));
+        final Response actual = testObj.getResource(null);
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+
+        try (final RdfNamespacedStream entity = (RdfNamespacedStream) actual.getEntity()) {
+            final Model model = entity.stream.collect(toModel());
+            final List<String> members = model.listObjectsOfProperty(LDP_MEMBER).mapWith(RDFNode::toString)
+                    .toList();
+            assertEquals(1, members.size());
+            assertTrue("Should contain the member", members.get(0).endsWith("/some/member"));
+        }
+    }
+
     @Test
     public void testGetWithObjectOmitMembership() throws Exception {
         setResource(Container.class);
@@ -746,6 +805,28 @@ public class FedoraLdpTest {
         }
     }
 
+    @Test
+    public void testGetWithObjectIncludeReferencesFromIndex() throws Exception {
+        final FedoraResource resource = setResource(Container.class);
+        final String resourceId = "info:fedora/some/path";
+        when(resource.getId()).thenReturn(resourceId);
+        when(mockRequest.getMethod()).thenReturn("GET");
+        setField(testObj, "prefer", new MultiPrefer("return=representation; include=\"" + INBOUND_REFERENCES + "\""));
+        when(referenceIndex.getInboundReferences(eq(mockTransaction.getId()), eq(resourceId), anyInt()))
+                .thenReturn(of(Triple.create(createURI("info:fedora/some/other"), LDP_MEMBER.asNode(),
+                        createURI(resourceId))));
+        final Response actual = testObj.getResource(null);
+        assertEquals(OK.getStatusCode(), actual.getStatus());
+
+        try (final RdfNamespacedStream entity = (RdfNamespacedStream) actual.getEntity()) {
+            final Model model = entity.stream.collect(toModel());
+            final List<String> subjects = model.listSubjectsWithProperty(LDP_MEMBER).mapWith(RDFNode::toString)
+                    .toList();
+            assertEquals(1, subjects.size());
+            assertTrue("Should contain the referring resource", subjects.get(0).endsWith("/some/other"));
+        }
+    }
+
     @Test
     public void testGetWithBinary() throws Exception {
         final Binary mockResource = (Binary)setResource(Binary.class);
@@ -19,7 +19,9 @@ package org.fcrepo.http.api.services;
 
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.when;
+import static org.apache.jena.rdf.model.ModelFactory.createDefaultModel;
 import static org.fcrepo.kernel.api.RdfCollectors.toModel;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -109,6 +111,17 @@ public class HttpRdfServiceTest {
         verifyTriples(stream);
     }
 
+    @Test
+    public void testTranslateParsedModel() {
+
+        final Model parsed = createDefaultModel();
+        parsed.read(new ByteArrayInputStream(RDF.getBytes()), FEDORA_URI_1, "TURTLE");
+        final Model model = httpRdfService.toInternalModel(parsed, idTranslator);
+
+        assertSame(parsed, model);
+        verifyTriples(model);
+    }
+
     private void verifyTriples(final Model model)  {
 
         final Resource fedoraResource = model.createResource(FEDORA_ID_1);
@@ -60,8 +60,9 @@ public class HttpIdentifierConverter {
     private static String truncateSuffixes(final String uri) {
         String internalUri = uri;
         for (final String suffix : FEDORA_STRIP_SUFFIX) {
-            if (internalUri.contains(suffix)) {
-                internalUri = internalUri.split(suffix)[0];
+            final int index = internalUri.indexOf(suffix);
+            if (index >= 0) {
+                internalUri = internalUri.substring(0, index);
             }
         }
         return internalUri;
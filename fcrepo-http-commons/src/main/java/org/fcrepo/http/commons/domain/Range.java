@@ -18,8 +18,15 @@
 package org.fcrepo.http.commons.domain;
 
 import static java.lang.Long.parseLong;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Comparator.comparingLong;
 import static java.util.regex.Pattern.compile;
+import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,13 +37,24 @@ import java.util.regex.Pattern;
  */
 public class Range {
 
+    /**
+     * Largest number of ranges honoured in a single Range header. A header listing more is ignored.
+     */
+    public static final int MAX_RANGES = 64;
+
     private final long start;
 
     private final long end;
 
+    private final boolean suffix;
+
     private static final Pattern rangePattern =
         compile("^bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)");
 
+    private static final Pattern rangeSetPattern = compile("^bytes\\s*=(.*)");
+
+    private static final Pattern rangeSpecPattern = compile("^\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$");
+
     /**
      * Unbounded Range
      */
@@ -58,8 +76,22 @@ public class Range {
      * @param end the end
      */
     private Range(final long start, final long end) {
+        this(start, end, false);
+    }
+
+    private Range(final long start, final long end, final boolean suffix) {
         this.start = start;
         this.end = end;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Suffix range, covering the last bytes of the content
+     * @param length the number of bytes at the end of the content
+     * @return the suffix range
+     */
+    private static Range suffix(final long length) {
+        return new Range(-1, length, true);
     }
 
     /**
@@ -70,6 +102,14 @@ public class Range {
         return !(start == 0 && end == -1);
     }
 
+    /**
+     * Is this a suffix range, such as bytes=-500, whose start depends on the size of the content
+     * @return true if the range covers the last end() bytes of the content
+     */
+    public boolean isSuffix() {
+        return suffix;
+    }
+
     /**
      * Length contained in the range
      * @return length of the range
@@ -78,11 +118,14 @@ public class Range {
         if (end == -1) {
             return -1;
         }
+        if (suffix) {
+            return end;
+        }
         return end - start + 1;
     }
 
     /**
-     * Start of the range
+     * Start of the range, -1 for a suffix range
      * @return start of the range
      */
     public long start() {
@@ -90,7 +133,7 @@ public class Range {
     }
 
     /**
-     * End of the range
+     * End of the range, the number of bytes requested for a suffix range
      * @return end of the range
      */
     public long end() {
@@ -110,9 +153,96 @@ public class Range {
             return new Range();
         }
 
+        return fromMatch(matcher);
+    }
+
+    /**
+     * Convert an HTTP Range header, which may list several comma separated ranges, to a list of Range objects
+     * @param source the source
+     * @return the ranges in the order requested, or a single unbounded range if the header is malformed or lists
+     *         more than MAX_RANGES ranges
+     */
+    public static List<Range> convertAll(final String source) {
+
+        final Matcher setMatcher = rangeSetPattern.matcher(source);
+
+        if (!setMatcher.matches()) {
+            return List.of(new Range());
+        }
+
+        final String[] specs = setMatcher.group(1).split(",", MAX_RANGES + 1);
+        if (specs.length > MAX_RANGES) {
+            return List.of(new Range());
+        }
+
+        final List<Range> ranges = new ArrayList<>();
+        for (final String spec : specs) {
+            final Matcher matcher = rangeSpecPattern.matcher(spec);
+            if (!matcher.matches()) {
+                return List.of(new Range());
+            }
+            try {
+                ranges.add(fromMatch(matcher));
+            } catch (final NumberFormatException e) {
+                return List.of(new Range());
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Resolve this range against the size of the content, clipping its end to the last byte of the content
+     * @param contentSize the size of the content
+     * @return a range with both ends set, or null if no byte of the content is in the range
+     */
+    public Range resolve(final long contentSize) {
+        if (suffix) {
+            if (end == 0 || contentSize == 0) {
+                return null;
+            }
+            return new Range(max(0, contentSize - end), contentSize - 1);
+        }
+        if (start >= contentSize || (end != -1 && end < start)) {
+            return null;
+        }
+        return new Range(start, end == -1 ? contentSize - 1 : min(end, contentSize - 1));
+    }
+
+    /**
+     * Resolve ranges against the size of the content, dropping those which are not satisfiable and merging those
+     * which overlap or are adjacent, so that no byte of the content is covered twice
+     * @param ranges the requested ranges
+     * @param contentSize the size of the content
+     * @return the satisfiable ranges in ascending order, empty if none is satisfiable
+     */
+    public static List<Range> coalesce(final List<Range> ranges, final long contentSize) {
+        final List<Range> resolved = ranges.stream()
+                .map(range -> range.resolve(contentSize))
+                .filter(Objects::nonNull)
+                .sorted(comparingLong(Range::start))
+                .collect(toList());
+
+        final List<Range> coalesced = new ArrayList<>();
+        for (final Range range : resolved) {
+            final int last = coalesced.size() - 1;
+            if (last >= 0 && range.start() <= coalesced.get(last).end() + 1) {
+                final Range previous = coalesced.get(last);
+                coalesced.set(last, new Range(previous.start(), max(previous.end(), range.end())));
+            } else {
+                coalesced.add(range);
+            }
+        }
+        return coalesced;
+    }
+
+    private static Range fromMatch(final Matcher matcher) {
         final String from = matcher.group(1);
         final String to = matcher.group(2);
 
+        if (from.equals("") && !to.equals("")) {
+            return suffix(parseLong(to));
+        }
+
         final long start;
 
         if (from.equals("")) {
@@ -0,0 +1,86 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Streams a range of a file using positional reads from its {@link FileChannel}, so that the bytes before the range
+ * are never read and the transfer can be delegated to the operating system where supported. The channel is closed
+ * once the range has been written.
+ *
+ * @author agent
+ */
+public class FileChannelStreamingOutput implements StreamingOutput {
+
+    private final FileChannel channel;
+
+    private final long start;
+
+    private final long length;
+
+    /**
+     * @param channel the channel of the file to stream
+     * @param start the position of the first byte to write
+     * @param length the number of bytes to write, or -1 to write to the end of the file
+     */
+    public FileChannelStreamingOutput(final FileChannel channel, final long start, final long length) {
+        this.channel = channel;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        try {
+            transfer(channel, start, length, Channels.newChannel(output));
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Write a range of a file to a channel using positional reads, leaving the position of the file channel
+     * unchanged.
+     *
+     * @param channel the channel of the file
+     * @param start the position of the first byte to write
+     * @param length the number of bytes to write, or -1 to write to the end of the file
+     * @param target the channel to write to
+     * @throws IOException if the file could not be read or the target written
+     */
+    static void transfer(final FileChannel channel, final long start, final long length,
+                         final WritableByteChannel target) throws IOException {
+        final long size = channel.size();
+        final long end = length < 0 ? size : Math.min(size, start + length);
+        long position = start;
+        while (position < end) {
+            final long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.commons.io.IOUtils;
+import org.fcrepo.http.commons.domain.Range;
+
+/**
+ * Writes several ranges of a binary as a multipart/byteranges body, as described in RFC 7233 appendix A.
+ *
+ * @author agent
+ */
+public class MultipartByteRangesOutput implements StreamingOutput {
+
+    private static final String CRLF = "\r\n";
+
+    private final List<Range> ranges;
+
+    private final long contentSize;
+
+    private final String contentType;
+
+    private final String boundary;
+
+    private final RangeReader reader;
+
+    /**
+     * Reads ranges of the content of a binary.
+     */
+    public interface RangeReader extends Closeable {
+
+        /**
+         * Write a range of the content.
+         *
+         * @param start the position of the first byte to write
+         * @param length the number of bytes to write
+         * @param out the stream to write to
+         * @throws IOException if the content could not be read or written
+         */
+        void writeRange(long start, long length, OutputStream out) throws IOException;
+    }
+
+    /**
+     * @param ranges the satisfiable ranges to write, in ascending order as resolved by Range.coalesce
+     * @param contentSize the size of the content
+     * @param contentType the media type of the content
+     * @param boundary the multipart boundary
+     * @param reader reads the ranges of the content, and is closed once the body has been written
+     */
+    public MultipartByteRangesOutput(final List<Range> ranges, final long contentSize, final String contentType,
+                                     final String boundary, final RangeReader reader) {
+        this.ranges = ranges;
+        this.contentSize = contentSize;
+        this.contentType = contentType;
+        this.boundary = boundary;
+        this.reader = reader;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        try {
+            for (final Range range : ranges) {
+                final long end = lastByte(range, contentSize);
+                final String partHeaders = "--" + boundary + CRLF +
+                        "Content-Type: " + contentType + CRLF +
+                        "Content-Range: bytes " + range.start() + "-" + end + "/" + contentSize + CRLF +
+                        CRLF;
+                output.write(partHeaders.getBytes(US_ASCII));
+                reader.writeRange(range.start(), end - range.start() + 1, output);
+                output.write(CRLF.getBytes(US_ASCII));
+            }
+            output.write(("--" + boundary + "--" + CRLF).getBytes(US_ASCII));
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * @param range a range
+     * @param contentSize the size of the content
+     * @return the position of the last byte of the range within the content
+     */
+    public static long lastByte(final Range range, final long contentSize) {
+        return range.end() == -1 ? contentSize - 1 : Math.min(range.end(), contentSize - 1);
+    }
+
+    /**
+     * Read ranges from a file using positional reads, without moving the position of the channel.
+     *
+     * @param channel the channel of the file, closed when the reader is closed
+     * @return the reader
+     */
+    public static RangeReader fromChannel(final FileChannel channel) {
+        return new RangeReader() {
+            @Override
+            public void writeRange(final long start, final long length, final OutputStream out)
+                    throws IOException {
+                FileChannelStreamingOutput.transfer(channel, start, length, Channels.newChannel(out));
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * Read ranges from content which can only be streamed. Ranges after the previous one are read by skipping
+     * forward in the same stream, the content is only opened again when a range starts before the current
+     * position.
+     *
+     * @param content opens a new stream of the content
+     * @return the reader
+     */
+    public static RangeReader fromStreams(final Supplier<InputStream> content) {
+        return new RangeReader() {
+            private InputStream stream;
+
+            private long position;
+
+            @Override
+            public void writeRange(final long start, final long length, final OutputStream out)
+                    throws IOException {
+                if (stream == null || start < position) {
+                    close();
+                    stream = content.get();
+                    position = 0;
+                }
+                final var range = new RangeRequestInputStream(stream, start - position, length);
+                range.setPropagateClose(false);
+                position = start + IOUtils.copyLarge(range, out);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (stream != null) {
+                    stream.close();
+                    stream = null;
+                }
+            }
+        };
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.fcrepo.http.commons.responses;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -39,6 +40,29 @@ public class RangeRequestInputStream extends BoundedInputStream {
      */
     public RangeRequestInputStream(final InputStream in, final long skip, final long length) throws IOException {
         super(in, length);
-        in.skip(skip);
+        seek(in, skip);
+    }
+
+    /**
+     * Advance the stream to the start of the range. File streams are repositioned directly, other streams are
+     * skipped until the full offset has been consumed, since a single skip may move fewer bytes than requested.
+     */
+    private static void seek(final InputStream in, final long offset) throws IOException {
+        if (in instanceof FileInputStream) {
+            final var channel = ((FileInputStream) in).getChannel();
+            channel.position(channel.position() + offset);
+            return;
+        }
+        long remaining = offset;
+        while (remaining > 0) {
+            final long skipped = in.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (in.read() == -1) {
+                return;
+            } else {
+                remaining--;
+            }
+        }
     }
 }
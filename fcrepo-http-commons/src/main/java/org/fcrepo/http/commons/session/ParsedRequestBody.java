@@ -0,0 +1,108 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.session;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.update.UpdateRequest;
+
+/**
+ * The body of a request, as parsed by the first component to read it, held as a request attribute so that the
+ * authorization filter and the JAX-RS resource do not each parse the same RDF or SPARQL Update again.
+ *
+ * An RDF body is held with the base URI it was parsed against, since relative IRIs resolve differently against
+ * another base. A parsed body is only ever used by the thread serving its request.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class ParsedRequestBody {
+
+    /**
+     * Name of the request attribute holding the parsed body
+     */
+    public static final String PARSED_REQUEST_BODY = ParsedRequestBody.class.getName();
+
+    private String baseUri;
+
+    private Model model;
+
+    private UpdateRequest updateRequest;
+
+    /**
+     * Get the parsed body of a request, creating an empty one if need be.
+     *
+     * @param request the request
+     * @return the parsed body of the request
+     */
+    public static ParsedRequestBody getParsedRequestBody(final HttpServletRequest request) {
+        ParsedRequestBody parsedBody = (ParsedRequestBody) request.getAttribute(PARSED_REQUEST_BODY);
+        if (parsedBody == null) {
+            parsedBody = new ParsedRequestBody();
+            request.setAttribute(PARSED_REQUEST_BODY, parsedBody);
+        }
+        return parsedBody;
+    }
+
+    /**
+     * @param baseUri the base URI the body must have been parsed against
+     * @return the RDF body, or null if it has not been parsed against that base URI
+     */
+    public Model getModel(final String baseUri) {
+        return model != null && this.baseUri.equals(baseUri) ? model : null;
+    }
+
+    /**
+     * Remove the RDF body, handing it to a caller which may then modify it.
+     *
+     * @param baseUri the base URI the body must have been parsed against
+     * @return the RDF body, or null if it has not been parsed against that base URI
+     */
+    public Model takeModel(final String baseUri) {
+        final Model parsed = getModel(baseUri);
+        if (parsed != null) {
+            this.model = null;
+            this.baseUri = null;
+        }
+        return parsed;
+    }
+
+    /**
+     * @param baseUri the base URI the body was parsed against
+     * @param model the RDF body
+     */
+    public void setModel(final String baseUri, final Model model) {
+        this.baseUri = baseUri;
+        this.model = model;
+    }
+
+    /**
+     * @return the SPARQL Update body, or null if it has not been parsed
+     */
+    public UpdateRequest getUpdateRequest() {
+        return updateRequest;
+    }
+
+    /**
+     * @param updateRequest the SPARQL Update body
+     */
+    public void setUpdateRequest(final UpdateRequest updateRequest) {
+        this.updateRequest = updateRequest;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.session;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.fcrepo.kernel.api.Transaction;
+import org.fcrepo.kernel.api.models.FedoraResource;
+
+/**
+ * Resources and WebAC roles resolved while authorizing a request, held as a request attribute so that the
+ * authorization filter, the authorizing realm and the JAX-RS resource each resolve a resource and its roles only
+ * once per request.
+ *
+ * Entries are keyed by transaction as well as by path, so a resource loaded in one transaction is never handed to a
+ * caller working in another. A context is only ever used by the thread serving its request.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class RequestAuthorizationContext {
+
+    /**
+     * Name of the request attribute holding the context
+     */
+    public static final String REQUEST_AUTHORIZATION_CONTEXT = RequestAuthorizationContext.class.getName();
+
+    private final Map<String, Optional<FedoraResource>> resources = new HashMap<>();
+
+    private final Map<String, Map<String, Collection<String>>> roles = new HashMap<>();
+
+    /**
+     * Get the context of a request, creating it if need be.
+     *
+     * @param request the request
+     * @return the authorization context of the request
+     */
+    public static RequestAuthorizationContext getContext(final HttpServletRequest request) {
+        RequestAuthorizationContext context =
+                (RequestAuthorizationContext) request.getAttribute(REQUEST_AUTHORIZATION_CONTEXT);
+        if (context == null) {
+            context = new RequestAuthorizationContext();
+            request.setAttribute(REQUEST_AUTHORIZATION_CONTEXT, context);
+        }
+        return context;
+    }
+
+    /**
+     * Get a resource, loading it on the first request for it.
+     *
+     * @param transaction the transaction the resource is read in
+     * @param path the identifier of the resource, as passed to the ResourceFactory
+     * @param loader loads the resource, returning null if it does not exist
+     * @return the resource, or null if it does not exist
+     */
+    public FedoraResource getResource(final Transaction transaction, final String path,
+                                      final Function<String, FedoraResource> loader) {
+        final String key = key(transaction, path);
+        Optional<FedoraResource> resource = resources.get(key);
+        if (resource == null) {
+            resource = Optional.ofNullable(loader.apply(path));
+            resources.put(key, resource);
+        }
+        return resource.orElse(null);
+    }
+
+    /**
+     * Get a resource which has already been loaded, without loading it.
+     *
+     * @param transaction the transaction the resource is read in
+     * @param path the identifier of the resource, as passed to the ResourceFactory
+     * @return the resource, or null if it has not been loaded or does not exist
+     */
+    public FedoraResource getLoadedResource(final Transaction transaction, final String path) {
+        final Optional<FedoraResource> resource = resources.get(key(transaction, path));
+        return resource == null ? null : resource.orElse(null);
+    }
+
+    /**
+     * Get the WebAC roles of a resource, resolving them on the first request for them.
+     *
+     * @param transaction the transaction the roles are read in
+     * @param path the path of the resource
+     * @param resolver resolves the roles of the resource
+     * @return the mapping of agents to the modes granted to them
+     */
+    public Map<String, Collection<String>> getRoles(final Transaction transaction, final String path,
+                                                    final Function<String, Map<String, Collection<String>>> resolver) {
+        final String key = key(transaction, path);
+        if (!roles.containsKey(key)) {
+            roles.put(key, resolver.apply(path));
+        }
+        return roles.get(key);
+    }
+
+    private static String key(final Transaction transaction, final String path) {
+        final String txId = transaction == null ? "" : transaction.getId();
+        return txId + '\0' + path;
+    }
+}
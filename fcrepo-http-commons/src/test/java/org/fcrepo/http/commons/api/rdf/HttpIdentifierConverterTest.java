@@ -115,6 +115,13 @@ public class HttpIdentifierConverterTest {
         assertEquals(testUri + "/", httpUri);
     }
 
+    @Test
+    public void testRootUriWithAcl() {
+        final String testUri = uriBase + "/" + FCR_ACL;
+        final String fedoraId = converter.toInternalId(testUri);
+        assertEquals("info:fedora/", fedoraId);
+    }
+
     @Test
     public void testFirstLevel() {
         final String baseUid = getUniqueId();
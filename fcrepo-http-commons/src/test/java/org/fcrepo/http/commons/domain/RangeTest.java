@@ -17,10 +17,15 @@
  */
 package org.fcrepo.http.commons.domain;
 
+import static java.util.stream.Collectors.joining;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+import java.util.stream.IntStream;
+
 import org.junit.Test;
 
 /**
@@ -60,16 +65,55 @@ public class RangeTest {
     }
 
     @Test
-    public void testUnboundedLowerRangeParsing() {
+    public void testSuffixRangeParsing() {
         final Range range = Range.convert("bytes=-50");
 
-        assertEquals(0L, range.start());
+        assertTrue(range.isSuffix());
         assertEquals(50L, range.end());
-        assertEquals(51L, range.size());
+        assertEquals(50L, range.size());
         assertTrue(range.hasRange());
 
     }
 
+    @Test
+    public void testResolveSuffixRange() {
+        final Range range = Range.convert("bytes=-50").resolve(200);
+
+        assertFalse(range.isSuffix());
+        assertEquals(150L, range.start());
+        assertEquals(199L, range.end());
+        assertEquals(50L, range.size());
+    }
+
+    @Test
+    public void testResolveSuffixRangeLongerThanContent() {
+        final Range range = Range.convert("bytes=-500").resolve(200);
+
+        assertEquals(0L, range.start());
+        assertEquals(199L, range.end());
+    }
+
+    @Test
+    public void testResolveClipsEndToContent() {
+        final Range range = Range.convert("bytes=50-1000").resolve(200);
+
+        assertEquals(50L, range.start());
+        assertEquals(199L, range.end());
+
+        final Range unbounded = Range.convert("bytes=50-").resolve(200);
+
+        assertEquals(50L, unbounded.start());
+        assertEquals(199L, unbounded.end());
+    }
+
+    @Test
+    public void testResolveUnsatisfiableRanges() {
+        assertNull(Range.convert("bytes=200-300").resolve(200));
+        assertNull(Range.convert("bytes=20-10").resolve(200));
+        assertNull(Range.convert("bytes=-0").resolve(200));
+        assertNull(Range.convert("bytes=-50").resolve(0));
+    }
+
     @Test
     public void testGarbageRangeParsing() {
         final Range range = Range.convert("something-thats-not-a-range");
@@ -80,4 +124,72 @@ public class RangeTest {
         assertEquals(-1L, range.size());
 
     }
+
+    @Test
+    public void testMultipleRangeParsing() {
+        final List<Range> ranges = Range.convertAll("bytes=0-9, 50-, 20-29");
+
+        assertEquals(3, ranges.size());
+        assertEquals(0L, ranges.get(0).start());
+        assertEquals(9L, ranges.get(0).end());
+        assertEquals(50L, ranges.get(1).start());
+        assertEquals(-1L, ranges.get(1).end());
+        assertEquals(20L, ranges.get(2).start());
+        assertEquals(29L, ranges.get(2).end());
+    }
+
+    @Test
+    public void testMalformedMultipleRangeParsing() {
+        final List<Range> ranges = Range.convertAll("bytes=0-9,abc");
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.get(0).hasRange());
+    }
+
+    @Test
+    public void testTooManyRanges() {
+        final String header = "bytes=" + IntStream.rangeClosed(0, Range.MAX_RANGES)
+                .mapToObj(i -> i * 10 + "-" + (i * 10 + 1))
+                .collect(joining(","));
+        final List<Range> ranges = Range.convertAll(header);
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.get(0).hasRange());
+    }
+
+    @Test
+    public void testOversizedRangeParsing() {
+        final List<Range> ranges = Range.convertAll("bytes=0-99999999999999999999");
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.get(0).hasRange());
+    }
+
+    @Test
+    public void testCoalesceOverlappingAndAdjacentRanges() {
+        final List<Range> ranges = Range.coalesce(Range.convertAll("bytes=50-59, 0-9, 5-14, 15-19, -10, 55-"), 100);
+
+        assertEquals(2, ranges.size());
+        assertEquals(0L, ranges.get(0).start());
+        assertEquals(19L, ranges.get(0).end());
+        assertEquals(50L, ranges.get(1).start());
+        assertEquals(99L, ranges.get(1).end());
+    }
+
+    @Test
+    public void testCoalesceRepeatedRanges() {
+        final List<Range> ranges = Range.coalesce(Range.convertAll("bytes=0-0,0-0,0-0,0-0"), 100);
+
+        assertEquals(1, ranges.size());
+        assertEquals(1L, ranges.get(0).size());
+    }
+
+    @Test
+    public void testCoalesceDropsUnsatisfiableRanges() {
+        final List<Range> ranges = Range.coalesce(Range.convertAll("bytes=200-, 10-19"), 100);
+
+        assertEquals(1, ranges.size());
+        assertEquals(10L, ranges.get(0).start());
+        assertTrue(Range.coalesce(Range.convertAll("bytes=200-, 300-"), 100).isEmpty());
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class FileChannelStreamingOutputTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = tempFolder.newFile().toPath();
+        Files.writeString(file, "0123456789");
+    }
+
+    @Test
+    public void shouldWriteRange() throws IOException {
+        assertEquals("567", write(5L, 3L));
+    }
+
+    @Test
+    public void shouldWriteToEndOfFile() throws IOException {
+        assertEquals("3456789", write(3L, -1L));
+    }
+
+    @Test
+    public void shouldLimitRangeToFileSize() throws IOException {
+        assertEquals("89", write(8L, 10L));
+    }
+
+    @Test
+    public void shouldCloseChannel() throws IOException {
+        final var channel = FileChannel.open(file, READ);
+        new FileChannelStreamingOutput(channel, 0L, -1L).write(new ByteArrayOutputStream());
+        assertFalse(channel.isOpen());
+    }
+
+    private String write(final long start, final long length) throws IOException {
+        final var out = new ByteArrayOutputStream();
+        new FileChannelStreamingOutput(FileChannel.open(file, READ), start, length).write(out);
+        return out.toString(UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.responses;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.fcrepo.http.commons.domain.Range;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class MultipartByteRangesOutputTest {
+
+    private static final String CONTENT = "0123456789";
+
+    private static final String EXPECTED = "--b\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "Content-Range: bytes 6-7/10\r\n" +
+            "\r\n" +
+            "67\r\n" +
+            "--b\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "Content-Range: bytes 1-2/10\r\n" +
+            "\r\n" +
+            "12\r\n" +
+            "--b\r\n" +
+            "Content-Type: text/plain\r\n" +
+            "Content-Range: bytes 8-9/10\r\n" +
+            "\r\n" +
+            "89\r\n" +
+            "--b--\r\n";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = tempFolder.newFile().toPath();
+        Files.writeString(file, CONTENT);
+    }
+
+    @Test
+    public void testWriteFromChannel() throws IOException {
+        final var reader = MultipartByteRangesOutput.fromChannel(FileChannel.open(file, READ));
+        assertEquals(EXPECTED, write(reader));
+    }
+
+    @Test
+    public void testWriteFromStreams() throws IOException {
+        final var opened = new AtomicInteger();
+        final var reader = MultipartByteRangesOutput.fromStreams(() -> {
+            opened.incrementAndGet();
+            return new ByteArrayInputStream(CONTENT.getBytes(UTF_8));
+        });
+        assertEquals(EXPECTED, write(reader));
+        // the second range starts before the first, the third continues from the second
+        assertEquals(2, opened.get());
+    }
+
+    private static String write(final MultipartByteRangesOutput.RangeReader reader) throws IOException {
+        final var ranges = Range.convertAll("bytes=6-7,1-2,8-");
+        final var out = new ByteArrayOutputStream();
+        new MultipartByteRangesOutput(ranges, CONTENT.length(), "text/plain", "b", reader).write(out);
+        return out.toString(UTF_8);
+    }
+}
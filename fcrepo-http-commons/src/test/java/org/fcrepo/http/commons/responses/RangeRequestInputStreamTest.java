@@ -21,11 +21,17 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * <p>RangeRequestInputStreamTest class.</p>
@@ -33,6 +39,10 @@ import org.junit.Test;
  * @author awoods
  */
 public class RangeRequestInputStreamTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void shouldLimitTheInputStream() throws IOException {
         final InputStream in = new ByteArrayInputStream("0123456789".getBytes());
@@ -52,6 +62,28 @@ public class RangeRequestInputStreamTest {
         }
     }
 
+    @Test
+    public void shouldSkipFullyWhenSkipIsPartial() throws IOException {
+        final InputStream in = new FilterInputStream(new ByteArrayInputStream("0123456789".getBytes())) {
+            @Override
+            public long skip(final long n) throws IOException {
+                return super.skip(Math.min(n, 2));
+            }
+        };
+        try (final RangeRequestInputStream out = new RangeRequestInputStream(in, 5L, 3L)) {
+            assertEquals("567", IOUtils.toString(out, UTF_8));
+        }
+    }
+
+    @Test
+    public void shouldPositionFileStream() throws IOException {
+        final File file = tempFolder.newFile();
+        Files.writeString(file.toPath(), "0123456789");
+        try (final RangeRequestInputStream out = new RangeRequestInputStream(new FileInputStream(file), 7L, -1L)) {
+            assertEquals("789", IOUtils.toString(out, UTF_8));
+        }
+    }
+
     @Test
     public void getGetLongRange() throws IOException {
         final StringBuilder buf = new StringBuilder();
@@ -0,0 +1,91 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.session;
+
+import static org.apache.jena.rdf.model.ModelFactory.createDefaultModel;
+import static org.fcrepo.http.commons.session.ParsedRequestBody.PARSED_REQUEST_BODY;
+import static org.fcrepo.http.commons.session.ParsedRequestBody.getParsedRequestBody;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.update.UpdateFactory;
+import org.apache.jena.update.UpdateRequest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * @author agent
+ * @since 6.0.0
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ParsedRequestBodyTest {
+
+    private static final String BASE_URI = "http://localhost/rest/resource";
+
+    @Mock
+    private HttpServletRequest mockRequest;
+
+    @Test
+    public void testGetParsedRequestBodyCreatesAttribute() {
+        final ParsedRequestBody created = getParsedRequestBody(mockRequest);
+        verify(mockRequest).setAttribute(PARSED_REQUEST_BODY, created);
+
+        when(mockRequest.getAttribute(PARSED_REQUEST_BODY)).thenReturn(created);
+        assertSame(created, getParsedRequestBody(mockRequest));
+    }
+
+    @Test
+    public void testModelKeyedByBaseUri() {
+        final ParsedRequestBody parsedBody = new ParsedRequestBody();
+        final Model model = createDefaultModel();
+        assertNull(parsedBody.getModel(BASE_URI));
+
+        parsedBody.setModel(BASE_URI, model);
+        assertSame(model, parsedBody.getModel(BASE_URI));
+        assertNull(parsedBody.getModel(BASE_URI + "/child"));
+        assertNull(parsedBody.takeModel(BASE_URI + "/child"));
+    }
+
+    @Test
+    public void testTakeModel() {
+        final ParsedRequestBody parsedBody = new ParsedRequestBody();
+        final Model model = createDefaultModel();
+        parsedBody.setModel(BASE_URI, model);
+
+        assertSame(model, parsedBody.takeModel(BASE_URI));
+        assertNull(parsedBody.getModel(BASE_URI));
+        assertNull(parsedBody.takeModel(BASE_URI));
+    }
+
+    @Test
+    public void testUpdateRequest() {
+        final ParsedRequestBody parsedBody = new ParsedRequestBody();
+        assertNull(parsedBody.getUpdateRequest());
+
+        final UpdateRequest update = UpdateFactory.create("INSERT DATA { <a:b> <a:c> \"d\" }");
+        parsedBody.setUpdateRequest(update);
+        assertSame(update, parsedBody.getUpdateRequest());
+    }
+}
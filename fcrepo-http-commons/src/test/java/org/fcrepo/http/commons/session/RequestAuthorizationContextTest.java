@@ -0,0 +1,136 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.http.commons.session;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.fcrepo.http.commons.session.RequestAuthorizationContext.REQUEST_AUTHORIZATION_CONTEXT;
+import static org.fcrepo.http.commons.session.RequestAuthorizationContext.getContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.fcrepo.kernel.api.Transaction;
+import org.fcrepo.kernel.api.models.FedoraResource;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * @author agent
+ * @since 6.0.0
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class RequestAuthorizationContextTest {
+
+    private static final String PATH = "/some/path";
+
+    @Mock
+    private HttpServletRequest mockRequest;
+
+    @Mock
+    private Transaction mockTransaction;
+
+    @Mock
+    private Transaction mockOtherTransaction;
+
+    @Mock
+    private FedoraResource mockResource;
+
+    private RequestAuthorizationContext context;
+
+    @Before
+    public void setUp() {
+        when(mockTransaction.getId()).thenReturn("tx1");
+        when(mockOtherTransaction.getId()).thenReturn("tx2");
+        context = new RequestAuthorizationContext();
+    }
+
+    @Test
+    public void testGetContextCreatesAttribute() {
+        final RequestAuthorizationContext created = getContext(mockRequest);
+        verify(mockRequest).setAttribute(REQUEST_AUTHORIZATION_CONTEXT, created);
+
+        when(mockRequest.getAttribute(REQUEST_AUTHORIZATION_CONTEXT)).thenReturn(created);
+        assertSame(created, getContext(mockRequest));
+    }
+
+    @Test
+    public void testResourceLoadedOnce() {
+        final AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertSame(mockResource, context.getResource(mockTransaction, PATH, path -> {
+                loads.incrementAndGet();
+                return mockResource;
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertSame(mockResource, context.getLoadedResource(mockTransaction, PATH));
+    }
+
+    @Test
+    public void testMissingResourceLoadedOnce() {
+        final AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            assertNull(context.getResource(mockTransaction, PATH, path -> {
+                loads.incrementAndGet();
+                return null;
+            }));
+        }
+        assertEquals(1, loads.get());
+        assertNull(context.getLoadedResource(mockTransaction, PATH));
+    }
+
+    @Test
+    public void testResourcesKeyedByTransaction() {
+        context.getResource(mockTransaction, PATH, path -> mockResource);
+
+        assertNull(context.getLoadedResource(mockOtherTransaction, PATH));
+        assertNull(context.getLoadedResource(mockTransaction, "/other"));
+    }
+
+    @Test
+    public void testRolesResolvedOnce() {
+        final Map<String, Collection<String>> roles = singletonMap("agent", singletonList("mode"));
+        final AtomicInteger resolutions = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertSame(roles, context.getRoles(mockTransaction, PATH, path -> {
+                resolutions.incrementAndGet();
+                return roles;
+            }));
+        }
+        assertEquals(1, resolutions.get());
+
+        context.getRoles(mockOtherTransaction, PATH, path -> {
+            resolutions.incrementAndGet();
+            return null;
+        });
+        assertNull(context.getRoles(mockOtherTransaction, PATH, path -> roles));
+        assertEquals(2, resolutions.get());
+    }
+}
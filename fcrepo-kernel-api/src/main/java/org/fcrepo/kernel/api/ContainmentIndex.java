@@ -24,10 +24,14 @@ import org.fcrepo.kernel.api.models.FedoraResource;
 /**
  * An interface for retrieving resource IDs by their containment relationships.
  *
+ * Changes made within a transaction are visible only to that transaction until it is committed. Contained
+ * identifiers are always returned in identifier order, so a listing can be resumed after the last identifier of a
+ * previous page.
+ *
  * @author dbernstein
  * @since 6.0.0
  */
-public interface ContainmentIndex {
+public interface ContainmentIndex extends TransactionalIndex {
 
     /**
      * Return a stream of fedora identifiers contained by the specified fedora resource.
@@ -36,5 +40,41 @@ public interface ContainmentIndex {
      * @param fedoraResource The containing fedora resource
      * @return A stream of contained identifiers
      */
-    Stream<String> getContainedBy(Transaction tx, FedoraResource fedoraResource);
+    default Stream<String> getContainedBy(final Transaction tx, final FedoraResource fedoraResource) {
+        return getContainedBy(tx == null ? null : tx.getId(), fedoraResource.getId(), null, -1);
+    }
+
+    /**
+     * Return a page of the fedora identifiers contained by the specified fedora resource, in identifier order.
+     *
+     * @param txId The transaction id.  If no transaction, null is okay.
+     * @param parentId The identifier of the containing fedora resource
+     * @param afterId Only identifiers ordered after this one are returned. If null, start from the first.
+     * @param limit The maximum number of identifiers to return, -1 for all
+     * @return A stream of contained identifiers
+     */
+    Stream<String> getContainedBy(String txId, String parentId, String afterId, int limit);
+
+    /**
+     * Record that a resource is contained by another.
+     *
+     * @param txId The transaction id, or null to apply the change immediately.
+     * @param parentId The identifier of the containing fedora resource
+     * @param childId The identifier of the contained fedora resource
+     */
+    void addContainedBy(String txId, String parentId, String childId);
+
+    /**
+     * Remove the record that a resource is contained by another.
+     *
+     * @param txId The transaction id, or null to apply the change immediately.
+     * @param parentId The identifier of the containing fedora resource
+     * @param childId The identifier of the contained fedora resource
+     */
+    void removeContainedBy(String txId, String parentId, String childId);
+
+    /**
+     * Remove all containment records, for instance before the index is rebuilt.
+     */
+    void reset();
 }
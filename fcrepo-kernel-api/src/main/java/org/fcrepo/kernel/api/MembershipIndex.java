@@ -0,0 +1,62 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.api;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Triple;
+
+/**
+ * An index of the LDP membership triples generated by Direct and Indirect Containers.
+ *
+ * Each membership triple is recorded against the proxy resource which generates it, the member contained by the
+ * container, so that the triples can be replaced when the proxy or its container changes. Triples are returned
+ * grouped by subject in predicate and object order, so a listing can be resumed after the last triple of a previous
+ * page. Changes made within a transaction are visible only to that transaction until it is committed.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public interface MembershipIndex extends TransactionalIndex {
+
+    /**
+     * Return a page of the membership triples whose subject is the specified resource.
+     *
+     * @param txId The transaction id.  If no transaction, null is okay.
+     * @param subjectId The identifier of the subject of the membership triples
+     * @param after Only triples ordered after this one are returned. If null, start from the first.
+     * @param limit The maximum number of triples to return, -1 for all
+     * @return A stream of membership triples
+     */
+    Stream<Triple> getMembership(String txId, String subjectId, Triple after, int limit);
+
+    /**
+     * Replace the membership triples generated by a proxy resource.
+     *
+     * @param txId The transaction id, or null to apply the change immediately.
+     * @param proxyId The identifier of the resource generating the triples
+     * @param membership The membership triples now generated by the proxy, empty if none
+     */
+    void setMembership(String txId, String proxyId, Collection<Triple> membership);
+
+    /**
+     * Remove all membership records, for instance before the index is rebuilt.
+     */
+    void reset();
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.api;
+
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Triple;
+
+/**
+ * An index of the triples of RDF sources whose object is another repository resource, queried by that object.
+ *
+ * References are recorded against the resource whose RDF states them, so they can be replaced when the resource is
+ * updated or removed when it is deleted. Changes made within a transaction are visible only to that transaction
+ * until it is committed.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public interface ReferenceIndex extends TransactionalIndex {
+
+    /**
+     * Return the triples of other resources whose object is the specified resource.
+     *
+     * @param txId The transaction id.  If no transaction, null is okay.
+     * @param targetId The identifier of the referenced resource
+     * @param limit The maximum number of triples to return, -1 for all
+     * @return A stream of referencing triples
+     */
+    Stream<Triple> getInboundReferences(String txId, String targetId, int limit);
+
+    /**
+     * Replace the references stated by a resource.
+     *
+     * @param txId The transaction id, or null to apply the change immediately.
+     * @param resourceId The identifier of the resource stating the references
+     * @param references The triples of the resource referencing other repository resources, empty if none
+     */
+    void setReferences(String txId, String resourceId, Collection<Triple> references);
+
+    /**
+     * Remove all references, for instance before the index is rebuilt.
+     */
+    void reset();
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.api;
+
+import java.util.function.Predicate;
+
+/**
+ * An index whose changes are made within a transaction, and are visible only to that transaction until it is
+ * committed. Each change is made on behalf of a single resource: the contained resource, the proxy generating a
+ * membership triple or the resource stating a reference.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public interface TransactionalIndex {
+
+    /**
+     * Make the changes of a transaction visible outside of it.
+     *
+     * @param txId The transaction id
+     */
+    default void commitTransaction(final String txId) {
+        commitTransaction(txId, resourceId -> true);
+    }
+
+    /**
+     * Make the changes of a transaction made on behalf of some resources visible outside of it, and discard the
+     * rest. This keeps the index in line with storage when only part of a transaction was persisted.
+     *
+     * @param txId The transaction id
+     * @param resourceFilter Matches the identifiers of the resources whose changes are committed
+     */
+    void commitTransaction(String txId, Predicate<String> resourceFilter);
+
+    /**
+     * Discard the changes of a transaction.
+     *
+     * @param txId The transaction id
+     */
+    void rollbackTransaction(String txId);
+}
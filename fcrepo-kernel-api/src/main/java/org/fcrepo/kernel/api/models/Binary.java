@@ -23,6 +23,7 @@ import org.fcrepo.kernel.api.services.policy.StoragePolicyDecisionPoint;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * @author cabeer
@@ -62,6 +63,15 @@ public interface Binary extends FedoraResource {
      */
     URI getContentDigest();
 
+    /**
+     * Get all of the pre-calculated content digests for the binary payload
+     * @return URIs with the format algorithm:value
+     */
+    default Collection<URI> getContentDigests() {
+        final var digest = getContentDigest();
+        return digest == null ? List.of() : List.of(digest);
+    }
+
     /**
      * @return Whether or not this binary is a proxy to another resource
      */
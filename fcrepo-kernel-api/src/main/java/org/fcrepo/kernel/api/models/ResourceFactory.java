@@ -18,6 +18,7 @@
 package org.fcrepo.kernel.api.models;
 
 import java.time.Instant;
+import java.util.stream.Stream;
 
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.exception.PathNotFoundException;
@@ -84,4 +85,13 @@ public interface ResourceFactory {
      * @return True if the identifier resolves to a resource.
      */
     public boolean doesResourceExist(final Transaction transaction, final String fedoraId, final Instant version);
+
+    /**
+     * Get the resources contained by a resource, in identifier order.
+     *
+     * @param transaction The current transaction or null if read-only.
+     * @param identifier The identifier of the containing resource.
+     * @return A stream of the contained resources.
+     */
+    public Stream<FedoraResource> getChildren(final Transaction transaction, final String identifier);
 }
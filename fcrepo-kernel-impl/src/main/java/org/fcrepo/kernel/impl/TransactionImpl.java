@@ -48,13 +48,15 @@ public class TransactionImpl implements Transaction {
 
     private boolean shortLived = true;
 
-    private Instant expiration;
+    private volatile Instant expiration;
 
-    private boolean expired = false;
+    private volatile boolean expired = false;
 
-    private boolean rolledback = false;
+    private volatile boolean rolledback = false;
 
-    private boolean commited = false;
+    private volatile boolean commited = false;
+
+    private volatile boolean committing = false;
 
     protected TransactionImpl(final String id, final TransactionManagerImpl txManager) {
         if (id == null || id.isEmpty()) {
@@ -72,6 +74,7 @@ public class TransactionImpl implements Transaction {
         if (this.commited) {
             return;
         }
+        this.committing = true;
         try {
             log.debug("Commiting transaction {}", id);
             this.getPersistentSession().commit();
@@ -80,9 +83,18 @@ public class TransactionImpl implements Transaction {
             // Rollback on commit failure
             rollback();
             throw new RepositoryRuntimeException("failed to commit transaction " + id, ex);
+        } finally {
+            this.committing = false;
         }
     }
 
+    /**
+     * @return true while the transaction is being committed
+     */
+    boolean isCommitting() {
+        return committing;
+    }
+
     @Override
     public synchronized boolean isCommitted() {
         return commited;
@@ -122,6 +134,7 @@ public class TransactionImpl implements Transaction {
     public synchronized void expire() {
         this.expiration = Instant.now();
         this.expired = true;
+        this.txManager.expiryUpdated(this);
     }
 
     @Override
@@ -23,60 +23,214 @@ import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.TransactionManager;
 import org.fcrepo.kernel.api.exception.TransactionRuntimeException;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 
 /**
  * The Fedora Transaction Manager implementation
  *
+ * Transactions are held in a concurrent registry alongside a queue ordered by expiry, and each has a persistent
+ * storage session created along with it. A background reaper periodically rolls back transactions which have
+ * expired, cleaning up their staged changes, and removes them from the registry, releasing their sessions.
+ *
  * @author mohideen
  */
 @Component
 public class TransactionManagerImpl implements TransactionManager {
 
-    private final HashMap<String, Transaction> transactions;
+    private static final Logger log = LoggerFactory.getLogger(TransactionManagerImpl.class);
+
+    /**
+     * System property for the number of seconds between runs of the expired transaction reaper
+     */
+    public static final String TRANSACTION_REAPER_INTERVAL = "fcrepo.transaction.reaper.interval.seconds";
+
+    private static final long REAPER_INTERVAL_SECONDS = Long.parseLong(
+            System.getProperty(TRANSACTION_REAPER_INTERVAL, "10"));
+
+    private final ConcurrentHashMap<String, Transaction> transactions;
+
+    private final DelayQueue<ExpiryEntry> expiryQueue;
+
+    private final AtomicLong expiredCount = new AtomicLong();
+
+    private ScheduledExecutorService reaper;
 
     @Inject
     private PersistentStorageSessionManager pSessionManager;
 
     TransactionManagerImpl() {
-        transactions = new HashMap();
+        transactions = new ConcurrentHashMap<>();
+        expiryQueue = new DelayQueue<>();
+    }
+
+    /**
+     * Start the background reaper for expired transactions
+     */
+    @PostConstruct
+    public void startReaper() {
+        reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "fcrepo-transaction-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleWithFixedDelay(this::cleanupExpiredTransactions, REAPER_INTERVAL_SECONDS,
+                REAPER_INTERVAL_SECONDS, TimeUnit.SECONDS);
     }
 
-    // TODO Add a timer to periadically rollback and cleanup expired transaction?
+    /**
+     * Stop the background reaper
+     */
+    @PreDestroy
+    public void stopReaper() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+    }
 
     @Override
-    public synchronized Transaction create() {
+    public Transaction create() {
         String txId = randomUUID().toString();
-        while(transactions.containsKey(txId)) {
+        Transaction tx = new TransactionImpl(txId, this);
+        while (transactions.putIfAbsent(txId, tx) != null) {
             txId = randomUUID().toString();
+            tx = new TransactionImpl(txId, this);
         }
-        final Transaction tx = new TransactionImpl(txId, this);
-        transactions.put(txId, tx);
+        pSessionManager.createSession(txId);
+        expiryQueue.add(new ExpiryEntry(txId, tx.getExpires()));
         return tx;
     }
 
     @Override
     public Transaction get(final String transactionId) {
-        if (transactions.containsKey(transactionId)) {
-            final Transaction transaction = transactions.get(transactionId);
+        final Transaction transaction = transactionId == null ? null : transactions.get(transactionId);
+        if (transaction == null) {
+            throw new TransactionRuntimeException("No Transaction found with transactionId: " + transactionId);
+        }
+        if (transaction.hasExpired()) {
+            reap(transactionId, transaction);
+            throw new TransactionRuntimeException("Transaction with transactionId: " + transactionId +
+                " expired at " + transaction.getExpires() + "!");
+        }
+        return transaction;
+    }
+
+    /**
+     * Roll back and remove all transactions whose expiry has passed. Transactions whose expiry was extended since
+     * they were queued are requeued at their new expiry, and those still being committed are checked again on a later
+     * run.
+     */
+    void cleanupExpiredTransactions() {
+        ExpiryEntry entry;
+        while ((entry = expiryQueue.poll()) != null) {
+            final Transaction transaction = transactions.get(entry.txId);
+            if (transaction == null) {
+                continue;
+            }
             if (transaction.hasExpired()) {
-                transaction.rollback();
-                transactions.remove(transactionId);
-                throw new TransactionRuntimeException("Transaction with transactionId: " + transactionId +
-                    " expired at " + transaction.getExpires() + "!");
+                reap(entry.txId, transaction);
+            } else {
+                expiryQueue.add(new ExpiryEntry(entry.txId, transaction.getExpires()));
             }
-            return transaction;
-        } else {
-            throw new TransactionRuntimeException("No Transaction found with transactionId: " + transactionId);
         }
     }
 
+    /**
+     * Queue a transaction whose expiry was brought forward, so the reaper collects it at its new expiry rather than
+     * the one it was originally queued with.
+     *
+     * @param transaction the transaction
+     */
+    void expiryUpdated(final Transaction transaction) {
+        if (transactions.containsKey(transaction.getId())) {
+            expiryQueue.add(new ExpiryEntry(transaction.getId(), transaction.getExpires()));
+        }
+    }
+
+    private void reap(final String transactionId, final Transaction transaction) {
+        // a commit which outlives the expiry is left to finish, and the transaction is checked again later
+        if (transaction instanceof TransactionImpl && ((TransactionImpl) transaction).isCommitting()) {
+            log.debug("Skipping expired transaction {} while it is being committed", transactionId);
+            expiryQueue.add(new ExpiryEntry(transactionId, Instant.now().plusSeconds(REAPER_INTERVAL_SECONDS)));
+            return;
+        }
+        // only the caller which removes the transaction rolls it back
+        if (!transactions.remove(transactionId, transaction)) {
+            return;
+        }
+        try {
+            if (transaction.isCommitted()) {
+                log.debug("Removed committed transaction {}", transactionId);
+                return;
+            }
+            expiredCount.incrementAndGet();
+            log.debug("Rolling back expired transaction {}", transactionId);
+            transaction.rollback();
+        } catch (final RuntimeException e) {
+            log.error("Failed to roll back expired transaction {}: {}", transactionId, e.getMessage(), e);
+        } finally {
+            pSessionManager.releaseSession(transactionId);
+        }
+    }
+
+    /**
+     * @return the number of transactions currently held by this manager
+     */
+    public int getActiveTransactionCount() {
+        return transactions.size();
+    }
+
+    /**
+     * @return the number of uncommitted transactions which have been rolled back on expiry since startup
+     */
+    public long getExpiredTransactionCount() {
+        return expiredCount.get();
+    }
+
     protected PersistentStorageSessionManager getPersistentStorageSessionManager() {
         return pSessionManager;
     }
+
+    /**
+     * Entry in the expiry queue, which becomes available once the expiry it was queued with has passed
+     */
+    private static class ExpiryEntry implements Delayed {
+
+        private final String txId;
+
+        private final Instant expires;
+
+        private ExpiryEntry(final String txId, final Instant expires) {
+            this.txId = txId;
+            this.expires = expires;
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return unit.convert(expires.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            if (other instanceof ExpiryEntry) {
+                return expires.compareTo(((ExpiryEntry) other).expires);
+            }
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
 }
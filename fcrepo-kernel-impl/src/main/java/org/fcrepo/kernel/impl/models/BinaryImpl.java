@@ -23,6 +23,7 @@ import static org.fcrepo.kernel.api.models.ExternalContent.PROXY;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
+import java.util.List;
 
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.exception.InvalidChecksumException;
@@ -107,6 +108,11 @@ public class BinaryImpl extends FedoraResourceImpl implements Binary {
         return digest.isPresent() ? digest.get() : null;
     }
 
+    @Override
+    public Collection<URI> getContentDigests() {
+        return digests == null ? List.of() : digests;
+    }
+
     @Override
     public Boolean isProxy() {
         return PROXY.equals(externalHandling);
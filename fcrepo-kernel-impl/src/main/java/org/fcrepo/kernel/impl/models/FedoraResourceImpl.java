@@ -97,8 +97,11 @@ public class FedoraResourceImpl implements FedoraResource {
 
     @Override
     public Stream<FedoraResource> getChildren(final Boolean recursive) {
-        // TODO Auto-generated method stub
-        return null;
+        final Stream<FedoraResource> children = resourceFactory.getChildren(tx, getId());
+        if (recursive) {
+            return children.flatMap(child -> Stream.concat(Stream.of(child), child.getChildren(true)));
+        }
+        return children;
     }
 
     @Override
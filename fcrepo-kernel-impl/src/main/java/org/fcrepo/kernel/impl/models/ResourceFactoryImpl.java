@@ -27,9 +27,12 @@ import static org.slf4j.LoggerFactory.getLogger;
 import javax.inject.Inject;
 
 import java.time.Instant;
+import java.util.stream.Stream;
 
+import org.fcrepo.kernel.api.ContainmentIndex;
 import org.fcrepo.kernel.api.Transaction;
 import org.fcrepo.kernel.api.exception.PathNotFoundException;
+import org.fcrepo.kernel.api.exception.PathNotFoundRuntimeException;
 import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.api.exception.ResourceTypeException;
 import org.fcrepo.kernel.api.models.Binary;
@@ -58,6 +61,9 @@ public class ResourceFactoryImpl implements ResourceFactory {
     @Inject
     private PersistentStorageSessionManager persistentStorageSessionManager;
 
+    @Inject
+    private ContainmentIndex containmentIndex;
+
     @Override
     public FedoraResource getResource(final String identifier)
             throws PathNotFoundException {
@@ -113,6 +119,18 @@ public class ResourceFactoryImpl implements ResourceFactory {
         }
     }
 
+    @Override
+    public Stream<FedoraResource> getChildren(final Transaction transaction, final String identifier) {
+        final String txId = transaction == null ? null : transaction.getId();
+        return containmentIndex.getContainedBy(txId, identifier, null, -1).map(childId -> {
+            try {
+                return getResource(transaction, childId);
+            } catch (final PathNotFoundException e) {
+                throw new PathNotFoundRuntimeException(e);
+            }
+        });
+    }
+
     /**
      * Returns the appropriate FedoraResource class for an object based on the provided headers
      *
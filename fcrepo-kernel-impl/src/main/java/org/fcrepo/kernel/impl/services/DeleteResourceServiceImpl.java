@@ -52,7 +52,7 @@ public class DeleteResourceServiceImpl implements DeleteResourceService {
 
     private final static Logger log = LoggerFactory.getLogger(DeleteResourceService.class);
 
-    // TODO: Should eventually `Inject`
+    @Inject
     private ContainmentIndex containmentIndex;
 
     @Inject
@@ -17,35 +17,303 @@
  */
 package org.fcrepo.kernel.impl.services;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.apache.jena.vocabulary.RDF.type;
+import static org.fcrepo.kernel.api.RdfLexicon.EVENT_OUTCOME_INFORMATION;
+import static org.fcrepo.kernel.api.RdfLexicon.FIXITY_TYPE;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_FIXITY_RESULT;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_FIXITY_STATE;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_MESSAGE_DIGEST;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_SIZE;
+import static org.fcrepo.kernel.api.utils.ContentDigest.DEFAULT_ALGORITHM;
+import static org.fcrepo.kernel.api.utils.ContentDigest.asURI;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Triple;
 import org.fcrepo.kernel.api.RdfStream;
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.api.exception.UnsupportedAlgorithmException;
 import org.fcrepo.kernel.api.models.Binary;
+import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.fcrepo.kernel.api.services.FixityService;
+import org.fcrepo.kernel.api.utils.ContentDigest.DIGEST_ALGORITHM;
+import org.fcrepo.kernel.api.utils.FixityResult.FixityState;
+import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of {@link org.fcrepo.kernel.api.services.FixityService}
  *
+ * Digests already recorded for a binary are returned without reading its content. When digests must be computed,
+ * all requested algorithms are computed in a single pass over the content, optionally on a separate hashing thread
+ * so that reading and hashing overlap. Hashing threads are drawn from a bounded pool; when every one is busy the
+ * digests are computed on the calling thread.
+ *
  * @author dbernstein
  */
 @Component
 public class FixityServiceImpl extends AbstractService implements FixityService {
+
+    private static final Logger LOGGER = getLogger(FixityServiceImpl.class);
+
+    /**
+     * System property enabling hashing on a separate thread, pipelined with reading the content
+     */
+    public static final String FIXITY_PIPELINED_HASHING = "fcrepo.fixity.pipelined";
+
+    private static final boolean PIPELINED_HASHING =
+            Boolean.parseBoolean(System.getProperty(FIXITY_PIPELINED_HASHING, "false"));
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Number of buffers which may be read ahead of the hashing thread
+    private static final int PIPELINE_DEPTH = 4;
+
+    private static final ByteBuffer END_OF_CONTENT = ByteBuffer.allocate(0);
+
+    // Maximum number of hashing threads; once all are busy, content is hashed on the calling thread instead
+    private static final int HASHING_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final ExecutorService HASHING_EXECUTOR = PIPELINED_HASHING ?
+            new ThreadPoolExecutor(0, HASHING_THREADS, 60, SECONDS, new SynchronousQueue<>(),
+                    new HashingThreadFactory()) : null;
+
     @Override
     public RdfStream getFixity(final Binary binary) {
-        return null;
+        return getFixity(binary, binary.getContentDigest(), binary.getContentSize());
     }
 
     @Override
     public RdfStream getFixity(final Binary binary, final URI contentDigest, final long size) {
-        return null;
+        final String algorithm = digestAlgorithm(contentDigest);
+        final var result = digest(binary, List.of(algorithm));
+        final URI computedDigest = asURI(algorithm, result.digests.get(algorithm));
+
+        final Set<FixityState> status = EnumSet.noneOf(FixityState.class);
+        if (contentDigest != null && !contentDigest.toString().equalsIgnoreCase(computedDigest.toString())) {
+            status.add(FixityState.BAD_CHECKSUM);
+        }
+        if (size > -1 && size != result.size) {
+            status.add(FixityState.BAD_SIZE);
+        }
+        if (status.isEmpty()) {
+            status.add(FixityState.SUCCESS);
+        }
+        LOGGER.debug("Fixity of {} computed with {}: {}", binary.getId(), algorithm, status);
+
+        final var subject = createURI(binary.getId());
+        final var resultSubject = createURI(binary.getId() + "#fixity/" + Instant.now().toEpochMilli());
+        final List<Triple> triples = new ArrayList<>();
+        triples.add(Triple.create(subject, HAS_FIXITY_RESULT.asNode(), resultSubject));
+        triples.add(Triple.create(resultSubject, type.asNode(), FIXITY_TYPE.asNode()));
+        triples.add(Triple.create(resultSubject, type.asNode(), EVENT_OUTCOME_INFORMATION.asNode()));
+        status.forEach(state -> triples.add(Triple.create(resultSubject, HAS_FIXITY_STATE.asNode(),
+                createLiteral(state.toString()))));
+        triples.add(Triple.create(resultSubject, HAS_MESSAGE_DIGEST.asNode(), createURI(computedDigest.toString())));
+        triples.add(Triple.create(resultSubject, HAS_SIZE.asNode(),
+                createLiteral(Long.toString(result.size), XSDDatatype.XSDlong)));
+
+        return new DefaultRdfStream(subject, triples.stream());
     }
 
     @Override
     public Collection<URI> checkFixity(final Binary binary, final Collection<String> algorithms)
             throws UnsupportedAlgorithmException {
-        return null;
+        final List<String> requested = new ArrayList<>();
+        for (final String algorithm : algorithms) {
+            if (!DIGEST_ALGORITHM.isSupportedAlgorithm(algorithm)) {
+                throw new UnsupportedAlgorithmException("Unsupported digest algorithm: " + algorithm);
+            }
+            requested.add(normalizeAlgorithm(algorithm));
+        }
+
+        // digests recorded when the content was stored can be returned without reading the content
+        final Map<String, URI> stored = new HashMap<>();
+        binary.getContentDigests().forEach(digest -> stored.putIfAbsent(digestAlgorithm(digest), digest));
+
+        final List<String> missing = requested.stream()
+                .filter(algorithm -> !stored.containsKey(algorithm))
+                .distinct()
+                .collect(Collectors.toList());
+        final Map<String, byte[]> computed = missing.isEmpty() ? Map.of() : digest(binary, missing).digests;
+
+        return requested.stream()
+                .distinct()
+                .map(algorithm -> stored.containsKey(algorithm) ? stored.get(algorithm) :
+                        asURI(algorithm, computed.get(algorithm)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param digest a digest URI, may be null
+     * @return the MessageDigest algorithm of the digest, or the default algorithm if it is unknown
+     */
+    private static String digestAlgorithm(final URI digest) {
+        if (digest == null) {
+            return DEFAULT_ALGORITHM;
+        }
+        final var algorithm = DIGEST_ALGORITHM.fromScheme(digest.getScheme() + ":" +
+                digest.getSchemeSpecificPart().split(":", 2)[0]);
+        return algorithm == DIGEST_ALGORITHM.MISSING ? DEFAULT_ALGORITHM : algorithm.algorithm;
+    }
+
+    private static String normalizeAlgorithm(final String algorithm) {
+        return DIGEST_ALGORITHM.fromScheme(DIGEST_ALGORITHM.getScheme(algorithm)).algorithm;
+    }
+
+    /**
+     * Compute digests of the content of a binary in a single pass
+     *
+     * @param binary the binary
+     * @param algorithms the MessageDigest algorithms to compute
+     * @return the size of the content and its digests, keyed by algorithm
+     */
+    private static DigestResult digest(final Binary binary, final Collection<String> algorithms) {
+        final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+        try {
+            for (final String algorithm : algorithms) {
+                digests.put(algorithm, MessageDigest.getInstance(algorithm));
+            }
+        } catch (final NoSuchAlgorithmException e) {
+            throw new RepositoryRuntimeException(e);
+        }
+
+        final long size;
+        try (final InputStream content = binary.getContent()) {
+            size = PIPELINED_HASHING ? digestPipelined(content, digests.values()) :
+                    digestSerial(content, digests.values());
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException("Unable to compute fixity of " + binary.getId(), e);
+        }
+
+        final Map<String, byte[]> results = new HashMap<>();
+        digests.forEach((algorithm, digest) -> results.put(algorithm, digest.digest()));
+        return new DigestResult(size, results);
+    }
+
+    private static long digestSerial(final InputStream content, final Collection<MessageDigest> digests)
+            throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long size = 0;
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            for (final MessageDigest digest : digests) {
+                digest.update(buffer, 0, read);
+            }
+            size += read;
+        }
+        return size;
+    }
+
+    private static long digestPipelined(final InputStream content, final Collection<MessageDigest> digests)
+            throws IOException {
+        final BlockingQueue<ByteBuffer> chunks = new ArrayBlockingQueue<>(PIPELINE_DEPTH);
+        final Future<?> hashing;
+        try {
+            hashing = HASHING_EXECUTOR.submit(() -> {
+                ByteBuffer chunk;
+                while ((chunk = chunks.take()) != END_OF_CONTENT) {
+                    for (final MessageDigest digest : digests) {
+                        digest.update(chunk.duplicate());
+                    }
+                }
+                return null;
+            });
+        } catch (final RejectedExecutionException e) {
+            LOGGER.debug("All hashing threads are busy, computing digests on the calling thread");
+            return digestSerial(content, digests);
+        }
+
+        try {
+            long size = 0;
+            while (true) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                final int read = content.readNBytes(buffer, 0, BUFFER_SIZE);
+                if (read > 0) {
+                    enqueue(chunks, ByteBuffer.wrap(buffer, 0, read), hashing);
+                    size += read;
+                }
+                if (read < BUFFER_SIZE) {
+                    break;
+                }
+            }
+            enqueue(chunks, END_OF_CONTENT, hashing);
+            hashing.get();
+            return size;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while computing digests", e);
+        } catch (final ExecutionException e) {
+            throw new IOException("Failed to compute digests", e.getCause());
+        } finally {
+            hashing.cancel(true);
+        }
+    }
+
+    /**
+     * Hand a chunk of content to the hashing thread, without waiting forever if that thread has failed
+     */
+    private static void enqueue(final BlockingQueue<ByteBuffer> chunks, final ByteBuffer chunk,
+                                final Future<?> hashing) throws InterruptedException, ExecutionException {
+        while (!chunks.offer(chunk, 100, MILLISECONDS)) {
+            if (hashing.isDone()) {
+                // rethrows the failure of the hashing thread, if any
+                hashing.get();
+                throw new ExecutionException(new IllegalStateException(
+                        "Hashing stopped before the end of the content"));
+            }
+        }
+    }
+
+    private static class DigestResult {
+        private final long size;
+        private final Map<String, byte[]> digests;
+
+        DigestResult(final long size, final Map<String, byte[]> digests) {
+            this.size = size;
+            this.digests = digests;
+        }
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "fixity-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
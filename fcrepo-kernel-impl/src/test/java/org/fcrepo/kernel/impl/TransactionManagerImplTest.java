@@ -19,11 +19,15 @@ package org.fcrepo.kernel.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
-import org.fcrepo.kernel.api.TransactionManager;
 import org.fcrepo.kernel.api.exception.TransactionRuntimeException;
 import org.fcrepo.persistence.api.PersistentStorageSession;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
@@ -43,7 +47,7 @@ public class TransactionManagerImplTest {
 
     private TransactionImpl testTx;
 
-    private TransactionManager testTxManager;
+    private TransactionManagerImpl testTxManager;
 
     @Mock
     private PersistentStorageSessionManager pssManager;
@@ -65,6 +69,11 @@ public class TransactionManagerImplTest {
         assertNotNull(testTx);
     }
 
+    @Test
+    public void testCreateTransactionCreatesSession() {
+        verify(pssManager).createSession(testTx.getId());
+    }
+
     @Test
     public void testGetTransaction() {
         final TransactionImpl tx = (TransactionImpl) testTxManager.get(testTx.getId());
@@ -77,9 +86,72 @@ public class TransactionManagerImplTest {
         testTxManager.get("invalid-id");
     }
 
+    @Test(expected = TransactionRuntimeException.class)
+    public void testGetTransactionWithNullID() {
+        testTxManager.get(null);
+    }
+
     @Test(expected = TransactionRuntimeException.class)
     public void testGetExpiredTransaction() {
         testTx.expire();
         testTxManager.get(testTx.getId());
     }
+
+    @Test
+    public void testReaperRollsBackExpiredTransaction() throws Exception {
+        testTx.expire();
+        testTxManager.cleanupExpiredTransactions();
+
+        verify(psSession).rollback();
+        verify(pssManager).releaseSession(testTx.getId());
+        assertEquals(0, testTxManager.getActiveTransactionCount());
+        assertEquals(1, testTxManager.getExpiredTransactionCount());
+        try {
+            testTxManager.get(testTx.getId());
+            fail("Reaped transaction should no longer be available");
+        } catch (final TransactionRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testReaperRemovesCommittedTransaction() throws Exception {
+        testTx.commit();
+        testTx.expire();
+        testTxManager.cleanupExpiredTransactions();
+
+        verify(psSession, never()).rollback();
+        verify(pssManager).releaseSession(testTx.getId());
+        assertEquals(0, testTxManager.getActiveTransactionCount());
+        assertEquals(0, testTxManager.getExpiredTransactionCount());
+    }
+
+    @Test
+    public void testReaperSkipsTransactionBeingCommitted() throws Exception {
+        doAnswer(invocation -> {
+            // the transaction expires, and the reaper runs, while its commit is in progress
+            testTx.expire();
+            testTxManager.cleanupExpiredTransactions();
+
+            verify(psSession, never()).rollback();
+            verify(pssManager, never()).releaseSession(testTx.getId());
+            assertEquals(1, testTxManager.getActiveTransactionCount());
+            return null;
+        }).when(psSession).commit();
+
+        testTx.commit();
+
+        assertTrue(testTx.isCommitted());
+        assertEquals(0, testTxManager.getExpiredTransactionCount());
+    }
+
+    @Test
+    public void testReaperKeepsLiveTransactions() throws Exception {
+        testTxManager.create();
+        testTxManager.cleanupExpiredTransactions();
+
+        verify(psSession, never()).rollback();
+        assertEquals(2, testTxManager.getActiveTransactionCount());
+        assertEquals(0, testTxManager.getExpiredTransactionCount());
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.kernel.impl.services;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_FIXITY_STATE;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.jena.graph.Triple;
+import org.fcrepo.kernel.api.exception.UnsupportedAlgorithmException;
+import org.fcrepo.kernel.api.models.Binary;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * FixityServiceImplTest
+ *
+ * @author agent
+ */
+@RunWith(MockitoJUnitRunner.Strict.class)
+public class FixityServiceImplTest {
+
+    private static final String BINARY_ID = "info:fedora/binary";
+
+    private static final String CONTENT = "abc";
+
+    private static final URI SHA1 = URI.create("urn:sha1:a9993e364706816aba3e25717850c26c9cd0d89d");
+
+    private static final URI SHA256 =
+            URI.create("urn:sha-256:ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+
+    private static final URI MD5 = URI.create("urn:md5:900150983cd24fb0d6963f7d28e17f72");
+
+    @Mock
+    private Binary binary;
+
+    @InjectMocks
+    private FixityServiceImpl fixityService;
+
+    @Test
+    public void testCheckFixityUsesStoredDigest() throws Exception {
+        when(binary.getContentDigests()).thenReturn(List.of(SHA1));
+
+        assertEquals(List.of(SHA1), fixityService.checkFixity(binary, List.of("sha")));
+        verify(binary, never()).getContent();
+    }
+
+    @Test
+    public void testCheckFixityComputesMissingDigests() throws Exception {
+        when(binary.getContentDigests()).thenReturn(List.of(SHA1));
+        when(binary.getContent()).thenReturn(new ByteArrayInputStream(CONTENT.getBytes(UTF_8)));
+
+        assertEquals(List.of(SHA256, SHA1, MD5), fixityService.checkFixity(binary, List.of("sha-256", "sha", "md5")));
+        // both missing digests are computed from a single read of the content
+        verify(binary).getContent();
+    }
+
+    @Test(expected = UnsupportedAlgorithmException.class)
+    public void testCheckFixityUnsupportedAlgorithm() throws Exception {
+        fixityService.checkFixity(binary, List.of("crc32"));
+    }
+
+    @Test
+    public void testGetFixitySuccess() {
+        when(binary.getId()).thenReturn(BINARY_ID);
+        when(binary.getContent()).thenReturn(new ByteArrayInputStream(CONTENT.getBytes(UTF_8)));
+
+        final var triples = fixityService.getFixity(binary, SHA1, 3).collect(Collectors.toList());
+
+        assertEquals(List.of("SUCCESS"), objectsOf(triples, HAS_FIXITY_STATE.getURI()));
+        assertEquals(List.of("3"), objectsOf(triples, HAS_SIZE.getURI()));
+    }
+
+    @Test
+    public void testGetFixityBadChecksumAndSize() {
+        when(binary.getId()).thenReturn(BINARY_ID);
+        when(binary.getContent()).thenReturn(new ByteArrayInputStream("abd".getBytes(UTF_8)));
+
+        final var triples = fixityService.getFixity(binary, SHA1, 4).collect(Collectors.toList());
+
+        assertEquals(List.of("BAD_CHECKSUM", "BAD_SIZE"), objectsOf(triples, HAS_FIXITY_STATE.getURI()));
+    }
+
+    private static List<String> objectsOf(final List<Triple> triples, final String predicate) {
+        return triples.stream()
+                .filter(t -> t.getPredicate().getURI().equals(predicate))
+                .map(t -> t.getObject().getLiteralLexicalForm())
+                .collect(Collectors.toList());
+    }
+}
@@ -26,14 +26,34 @@ package org.fcrepo.persistence.api;
  */
 public interface PersistentStorageSessionManager {
 
+    /**
+     * Create the PersistentStorageSession of a transaction, which remains available from getSession until it is
+     * released.
+     *
+     * @param sessionId the externally generated session ID.
+     * @return the PersistentStorageSession instance.
+     * @throws IllegalStateException if a session with the ID already exists.
+     */
+    PersistentStorageSession createSession(final String sessionId);
+
     /**
      * Retrieve a PersistentStorageSession.
      *
      * @param sessionId the externally generated session ID.
      * @return the PersistentStorageSession instance.
+     * @throws IllegalStateException if there is no session with the ID, because it was never created or has been
+     *         released.
      */
     PersistentStorageSession getSession(final String sessionId);
 
+    /**
+     * Release the PersistentStorageSession of a transaction which has ended. A session which has neither committed
+     * nor rolled back is rolled back.
+     *
+     * @param sessionId the externally generated session ID.
+     */
+    void releaseSession(final String sessionId);
+
     /**
      * Retrieve a read-only PersistentStorageSession. Clients should expect
      * invocation on storage modifying methods to throw exception.
@@ -0,0 +1,163 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.common;
+
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
+
+/**
+ * An InputStream which computes several digests of its content in a single pass. The source is read in large
+ * chunks, each of which is fed to every digest once before being handed to the reader.
+ *
+ * @author agent
+ */
+public class MultiDigestInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final InputStream source;
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private boolean endOfStream;
+
+    private long size;
+
+    private Map<String, String> computed;
+
+    /**
+     * @param source the stream to digest
+     * @param algorithms the MessageDigest algorithms to compute
+     */
+    public MultiDigestInputStream(final InputStream source, final Collection<String> algorithms) {
+        this.source = source;
+        for (final String algorithm : algorithms) {
+            try {
+                digests.putIfAbsent(algorithm, MessageDigest.getInstance(algorithm));
+            } catch (final NoSuchAlgorithmException e) {
+                throw new RepositoryRuntimeException(e);
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return buffer[position++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        final int count = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        // skipped content must still be digested, so it is read through the buffer
+        long skipped = 0;
+        while (skipped < n && ensureAvailable()) {
+            final int count = (int) Math.min(n - skipped, limit - position);
+            position += count;
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return limit - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Fill the buffer from the source if it has been consumed
+     *
+     * @return false if the end of the source has been reached
+     */
+    private boolean ensureAvailable() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (endOfStream) {
+            return false;
+        }
+        position = 0;
+        limit = source.readNBytes(buffer, 0, BUFFER_SIZE);
+        if (limit < BUFFER_SIZE) {
+            endOfStream = true;
+        }
+        if (limit > 0) {
+            for (final MessageDigest digest : digests.values()) {
+                digest.update(buffer, 0, limit);
+            }
+            size += limit;
+        }
+        return limit > 0;
+    }
+
+    /**
+     * @return the number of bytes read from the source
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Get the computed digests, which are only complete once the stream has been read to the end
+     *
+     * @return hex encoded digests keyed by algorithm
+     */
+    public Map<String, String> getDigests() {
+        if (computed == null) {
+            final Map<String, String> results = new LinkedHashMap<>();
+            digests.forEach((algorithm, digest) -> results.put(algorithm, encodeHexString(digest.digest())));
+            computed = results;
+        }
+        return computed;
+    }
+}
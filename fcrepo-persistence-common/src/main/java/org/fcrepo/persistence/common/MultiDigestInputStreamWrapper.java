@@ -18,25 +18,26 @@
 package org.fcrepo.persistence.common;
 
 import static java.lang.String.format;
-import static org.apache.commons.codec.binary.Hex.encodeHexString;
 import static org.apache.commons.lang3.StringUtils.substringAfterLast;
+import static org.fcrepo.kernel.api.utils.ContentDigest.asURI;
 import static org.fcrepo.kernel.api.utils.ContentDigest.getAlgorithm;
 
 import java.io.InputStream;
 import java.net.URI;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.fcrepo.kernel.api.exception.InvalidChecksumException;
 import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 
 /**
  * Wrapper for an InputStream that allows for the computation and evaluation
- * of multiple digests at once
+ * of multiple digests at once, in a single pass over the content
  *
  * @author bbpennel
  */
@@ -46,7 +47,9 @@ public class MultiDigestInputStreamWrapper {
 
     private Map<String, String> algToDigest;
 
-    private Map<String, DigestInputStream> algToDigestStream;
+    private Set<String> algorithms;
+
+    private MultiDigestInputStream digestStream;
 
     private boolean streamRetrieved;
 
@@ -57,15 +60,29 @@ public class MultiDigestInputStreamWrapper {
      * @param digests collection of digests for the input stream
      */
     public MultiDigestInputStreamWrapper(final InputStream sourceStream, final Collection<URI> digests) {
+        this(sourceStream, digests, List.of());
+    }
+
+    /**
+     * Construct a MultiDigestInputStreamWrapper which also computes digests that are not verified
+     *
+     * @param sourceStream the original source input stream
+     * @param digests collection of digests for the input stream
+     * @param additionalAlgorithms algorithms of further digests to compute, see {@link #getComputedDigests()}
+     */
+    public MultiDigestInputStreamWrapper(final InputStream sourceStream, final Collection<URI> digests,
+                                         final Collection<String> additionalAlgorithms) {
         this.sourceStream = sourceStream;
         algToDigest = new HashMap<>();
-        algToDigestStream = new HashMap<>();
+        algorithms = new LinkedHashSet<>();
 
         for (final URI digestUri : digests) {
             final String algorithm = getAlgorithm(digestUri);
             final String hash = substringAfterLast(digestUri.toString(), ":");
             algToDigest.put(algorithm, hash);
+            algorithms.add(algorithm);
         }
+        algorithms.addAll(additionalAlgorithms);
     }
 
     /**
@@ -75,19 +92,23 @@ public class MultiDigestInputStreamWrapper {
      */
     public InputStream getInputStream() {
         streamRetrieved = true;
-        InputStream digestStream = sourceStream;
-        for (final String algorithm : algToDigest.keySet()) {
-            try {
-                // Progressively wrap the original stream in layers of digest streams
-                digestStream = new DigestInputStream(
-                        digestStream, MessageDigest.getInstance(algorithm));
-            } catch (final NoSuchAlgorithmException e) {
-                throw new RepositoryRuntimeException(e);
-            }
+        digestStream = new MultiDigestInputStream(sourceStream, algorithms);
+        return digestStream;
+    }
 
-            algToDigestStream.put(algorithm, (DigestInputStream) digestStream);
+    /**
+     * After consuming the inputstream, get all of the computed digests, including those of the additional
+     * algorithms
+     *
+     * @return the computed digests as URIs
+     */
+    public Collection<URI> getComputedDigests() {
+        if (!streamRetrieved) {
+            throw new RepositoryRuntimeException("Cannot get digests before stream has been read");
         }
-        return digestStream;
+        return digestStream.getDigests().entrySet().stream()
+                .map(entry -> asURI(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -100,10 +121,11 @@ public class MultiDigestInputStreamWrapper {
         if (!streamRetrieved) {
             throw new RepositoryRuntimeException("Cannot check fixity before stream has been read");
         }
-        for (final var entry: algToDigestStream.entrySet()) {
+        final var computedDigests = digestStream.getDigests();
+        for (final var entry: algToDigest.entrySet()) {
             final String algorithm = entry.getKey();
-            final String originalDigest = algToDigest.get(algorithm);
-            final String computed = encodeHexString(entry.getValue().getMessageDigest().digest());
+            final String originalDigest = entry.getValue();
+            final String computed = computedDigests.get(algorithm);
 
             if (!originalDigest.equalsIgnoreCase(computed)) {
                 throw new InvalidChecksumException(format(
@@ -0,0 +1,86 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.common;
+
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class MultiDigestInputStreamTest {
+
+    private static final List<String> ALGORITHMS = List.of("MD5", "SHA", "SHA-512");
+
+    @Test
+    public void testDigestsSmallContent() throws Exception {
+        assertDigests(content(100));
+    }
+
+    @Test
+    public void testDigestsLargeContent() throws Exception {
+        // spans several buffers, which are digested in parallel
+        assertDigests(content(1024 * 1024 + 17));
+    }
+
+    @Test
+    public void testSkippedContentIsDigested() throws Exception {
+        final byte[] content = content(300 * 1024);
+        try (final var stream = new MultiDigestInputStream(new ByteArrayInputStream(content), ALGORITHMS)) {
+            assertEquals(content[0] & 0xff, stream.read());
+            assertEquals(200 * 1024, stream.skip(200 * 1024));
+            IOUtils.toByteArray(stream);
+
+            assertEquals(content.length, stream.getSize());
+            assertEquals(expectedDigest("SHA-512", content), stream.getDigests().get("SHA-512"));
+        }
+    }
+
+    private static void assertDigests(final byte[] content) throws Exception {
+        try (final var stream = new MultiDigestInputStream(new ByteArrayInputStream(content), ALGORITHMS)) {
+            final var out = new ByteArrayOutputStream();
+            IOUtils.copy(stream, out, 8192);
+
+            assertArrayEquals(content, out.toByteArray());
+            assertEquals(content.length, stream.getSize());
+            for (final String algorithm : ALGORITHMS) {
+                assertEquals(expectedDigest(algorithm, content), stream.getDigests().get(algorithm));
+            }
+        }
+    }
+
+    private static String expectedDigest(final String algorithm, final byte[] content) throws Exception {
+        return encodeHexString(MessageDigest.getInstance(algorithm).digest(content));
+    }
+
+    private static byte[] content(final int size) {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        return content;
+    }
+}
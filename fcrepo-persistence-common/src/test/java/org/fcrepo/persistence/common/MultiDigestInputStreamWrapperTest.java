@@ -20,6 +20,7 @@ package org.fcrepo.persistence.common;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -78,6 +79,18 @@ public class MultiDigestInputStreamWrapperTest {
         wrapper.checkFixity();
     }
 
+    @Test
+    public void getComputedDigests_AdditionalAlgorithm() throws Exception {
+        final var digests = asList(SHA1_URI);
+        final var wrapper = new MultiDigestInputStreamWrapper(contentStream, digests, asList("SHA-512"));
+
+        // Read the stream to allow digest calculation
+        IOUtils.toString(wrapper.getInputStream(), UTF_8);
+
+        wrapper.checkFixity();
+        assertEquals(asList(SHA1_URI, SHA512_URI), wrapper.getComputedDigests());
+    }
+
     @Test
     public void checkFixity_NoDigests() throws Exception {
         final Collection<URI> digests = emptyList();
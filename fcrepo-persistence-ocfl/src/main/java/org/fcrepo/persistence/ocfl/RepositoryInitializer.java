@@ -34,7 +34,8 @@ import javax.inject.Inject;
 
 import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_ID_PREFIX;
 import static org.fcrepo.kernel.api.RdfLexicon.BASIC_CONTAINER;
-import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_FILE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_REBUILD_CHECKPOINT_FILE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.getFedoraToOCFLIndexFile;
 
 /**
  * This class is responsible for initializing the repository on start-up.
@@ -60,10 +61,13 @@ public class RepositoryInitializer {
     @PostConstruct
     public void initialize() {
         //check that the root is initialized
-        final PersistentStorageSession session = this.sessionManager.getSession("initializationSession" +
-                                                                                 System.currentTimeMillis());
+        final String sessionId = "initializationSession" + System.currentTimeMillis();
+        final PersistentStorageSession session = this.sessionManager.createSession(sessionId);
 
-        if (!FEDORA_TO_OCFL_INDEX_FILE.exists()) {
+        if (!getFedoraToOCFLIndexFile().exists() || FEDORA_TO_OCFL_INDEX_REBUILD_CHECKPOINT_FILE.exists()) {
+            fedoraToOCFLObjectIndexUtil.rebuild();
+        } else if (fedoraToOCFLObjectIndexUtil.hasUnpopulatedIndex()) {
+            LOGGER.info("An index store is missing or was never populated. Rebuilding.");
             fedoraToOCFLObjectIndexUtil.rebuild();
         } else {
             LOGGER.info("The Fedora to OCFL Index already exists. Skipping rebuild.");
@@ -84,6 +88,8 @@ public class RepositoryInitializer {
 
         } catch (PersistentStorageException ex) {
             throw new RepositoryRuntimeException(ex);
+        } finally {
+            this.sessionManager.releaseSession(sessionId);
         }
     }
 
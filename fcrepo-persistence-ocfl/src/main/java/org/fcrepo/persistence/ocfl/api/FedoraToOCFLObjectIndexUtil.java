@@ -26,8 +26,16 @@ package org.fcrepo.persistence.ocfl.api;
 public interface FedoraToOCFLObjectIndexUtil {
 
     /**
-     * Rebuild the index.
+     * Rebuild the index. If a previous rebuild was interrupted, it is resumed rather than restarted.
      */
     public void rebuild();
+
+    /**
+     * Whether any index has not been populated by a rebuild, as is the case for an index store which is missing or
+     * empty, such as one added by an upgrade.
+     *
+     * @return true if a rebuild is required to populate an index
+     */
+    public boolean hasUnpopulatedIndex();
 }
 
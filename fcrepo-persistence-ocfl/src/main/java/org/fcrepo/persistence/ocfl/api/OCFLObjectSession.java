@@ -18,7 +18,9 @@
 
 package org.fcrepo.persistence.ocfl.api;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.List;
 import java.util.stream.Stream;
@@ -54,6 +56,17 @@ public interface OCFLObjectSession {
      */
     WriteOutcome write(String subpath, InputStream stream) throws PersistentStorageException;
 
+    /**
+     * Write content produced by the provided writer to the specified subpath. The content is streamed directly into
+     * the staged file, without buffering a complete copy of it in memory.
+     *
+     * @param subpath path of the resource to write, relative to the OCFL object
+     * @param writer writes the content to the stream it is given
+     * @return information about the data written.
+     * @throws PersistentStorageException thrown if unable to persist content
+     */
+    WriteOutcome write(String subpath, ContentWriter writer) throws PersistentStorageException;
+
     /**
      * Delete a file from this ocfl object.
      *
@@ -136,4 +149,18 @@ public interface OCFLObjectSession {
      */
     Stream<String> listHeadSubpaths() throws PersistentStorageException;
 
+    /**
+     * Produces the content of a file by writing it to an output stream.
+     */
+    @FunctionalInterface
+    interface ContentWriter {
+
+        /**
+         * Write the content to the provided stream. The stream is closed by the caller.
+         *
+         * @param out the stream to write to
+         * @throws IOException if unable to write the content
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.api;
+
+/**
+ * An index which is derived from the content of the OCFL repository, and is only usable once a rebuild has
+ * populated it from every OCFL object. Resetting the index for a new rebuild clears the mark.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public interface RebuildableIndex {
+
+    /**
+     * @return whether a rebuild has populated the index since it was created or last reset
+     */
+    boolean isPopulated();
+
+    /**
+     * Record that a rebuild has populated the index from every OCFL object.
+     */
+    void markPopulated();
+
+    /**
+     * Durably write everything added to the index so far, so that a rebuild checkpoint recorded afterwards does not
+     * run ahead of the index.
+     */
+    void flush();
+}
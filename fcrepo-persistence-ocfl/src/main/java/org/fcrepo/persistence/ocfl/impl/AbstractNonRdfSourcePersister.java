@@ -20,6 +20,7 @@ package org.fcrepo.persistence.ocfl.impl;
 import static java.lang.String.format;
 import static org.fcrepo.kernel.api.RdfLexicon.NON_RDF_SOURCE;
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.CREATE;
+import static org.fcrepo.kernel.api.utils.ContentDigest.DIGEST_ALGORITHM.SHA512;
 import static org.fcrepo.persistence.common.ResourceHeaderUtils.newResourceHeaders;
 import static org.fcrepo.persistence.common.ResourceHeaderUtils.populateBinaryHeaders;
 import static org.fcrepo.persistence.common.ResourceHeaderUtils.populateExternalBinaryHeaders;
@@ -28,7 +29,9 @@ import static org.fcrepo.persistence.common.ResourceHeaderUtils.touchModificatio
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.relativizeSubpath;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.resolveOCFLSubpath;
 
-import java.io.InputStream;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
 
 import org.fcrepo.kernel.api.models.ResourceHeaders;
 import org.fcrepo.kernel.api.operations.CreateResourceOperation;
@@ -54,6 +57,9 @@ abstract class AbstractNonRdfSourcePersister extends AbstractPersister {
 
     private static final Logger log = LoggerFactory.getLogger(AbstractNonRdfSourcePersister.class);
 
+    // Digest algorithm of the OCFL inventory, always computed for internal binaries and recorded in their headers
+    private static final String OCFL_DIGEST_ALGORITHM = SHA512.algorithm;
+
     /**
      * Constructor
      */
@@ -83,32 +89,29 @@ abstract class AbstractNonRdfSourcePersister extends AbstractPersister {
         final var nonRdfSourceOperation = (NonRdfSourceOperation) operation;
 
         final WriteOutcome outcome;
+        final Collection<URI> contentDigests;
         if (forExternalBinary(nonRdfSourceOperation)) {
             outcome = null;
+            contentDigests = nonRdfSourceOperation.getContentDigests();
         } else {
-            // if transmission digests provided, wrap inputstream to calculate for incoming data
+            // compute any transmission digests provided, along with the digest used by the OCFL inventory,
+            // in a single pass over the incoming data
             final var digests = nonRdfSourceOperation.getContentDigests();
-            MultiDigestInputStreamWrapper multiDigestWrapper = null;
-            final InputStream contentStream;
-            if (digests == null || digests.isEmpty()) {
-                contentStream = nonRdfSourceOperation.getContentStream();
-            } else {
-                multiDigestWrapper = new MultiDigestInputStreamWrapper(
-                        nonRdfSourceOperation.getContentStream(),
-                        nonRdfSourceOperation.getContentDigests());
-                contentStream = multiDigestWrapper.getInputStream();
-            }
+            final var multiDigestWrapper = new MultiDigestInputStreamWrapper(
+                    nonRdfSourceOperation.getContentStream(),
+                    digests == null ? List.of() : digests,
+                    List.of(OCFL_DIGEST_ALGORITHM));
 
-            outcome = objectSession.write(subpath, contentStream);
+            outcome = objectSession.write(subpath, multiDigestWrapper.getInputStream());
 
             // Verify that the content matches the provided digests
-            if (multiDigestWrapper != null) {
-                multiDigestWrapper.checkFixity();
-            }
+            multiDigestWrapper.checkFixity();
+            contentDigests = multiDigestWrapper.getComputedDigests();
         }
 
         // Write resource headers
-        final var headers = populateHeaders(objectSession, subpath, nonRdfSourceOperation, outcome);
+        final var headers = populateHeaders(objectSession, subpath, nonRdfSourceOperation, outcome,
+                contentDigests);
         writeHeaders(objectSession, headers, subpath);
     }
 
@@ -120,11 +123,13 @@ abstract class AbstractNonRdfSourcePersister extends AbstractPersister {
      * @param subpath the subpath of the file
      * @param op the operation being persisted
      * @param writeOutcome outcome of persisting the original file
+     * @param contentDigests digests of the content
      * @return populated resource headers
      * @throws PersistentStorageException if unexpectedly unable to retrieve existing object headers
      */
     private ResourceHeaders populateHeaders(final OCFLObjectSession objSession, final String subpath,
-            final NonRdfSourceOperation op, final WriteOutcome writeOutcome) throws PersistentStorageException {
+            final NonRdfSourceOperation op, final WriteOutcome writeOutcome, final Collection<URI> contentDigests)
+            throws PersistentStorageException {
 
         final ResourceHeadersImpl headers;
         final var timeWritten = writeOutcome != null ? writeOutcome.getTimeWritten() : null;
@@ -144,7 +149,7 @@ abstract class AbstractNonRdfSourcePersister extends AbstractPersister {
         populateBinaryHeaders(headers, op.getMimeType(),
                 op.getFilename(),
                 contentSize,
-                op.getContentDigests());
+                contentDigests);
         if (forExternalBinary(op)) {
             populateExternalBinaryHeaders(headers, op.getContentUri().toString(),
                     op.getExternalHandling());
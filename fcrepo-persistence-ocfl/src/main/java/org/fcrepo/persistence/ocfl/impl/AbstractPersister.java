@@ -17,15 +17,29 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.apache.jena.graph.NodeFactory.createURI;
 import static org.fcrepo.kernel.api.FedoraTypes.FCR_ACL;
 import static org.fcrepo.kernel.api.FedoraTypes.FCR_METADATA;
 import static org.fcrepo.kernel.api.FedoraTypes.FEDORA_ID_PREFIX;
+import static org.fcrepo.kernel.api.RdfLexicon.DIRECT_CONTAINER;
 import static org.fcrepo.kernel.api.RdfLexicon.FEDORA_NON_RDF_SOURCE_DESCRIPTION_URI;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_MEMBER_RELATION;
+import static org.fcrepo.kernel.api.RdfLexicon.INDIRECT_CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.INSERTED_CONTENT_RELATION;
+import static org.fcrepo.kernel.api.RdfLexicon.IS_MEMBER_OF_RELATION;
+import static org.fcrepo.kernel.api.RdfLexicon.LDP_MEMBER;
+import static org.fcrepo.kernel.api.RdfLexicon.MEMBERSHIP_RESOURCE;
+import static org.fcrepo.kernel.api.RdfLexicon.MEMBER_SUBJECT;
+import static org.fcrepo.kernel.api.RdfLexicon.NON_RDF_SOURCE;
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.CREATE;
 import static org.fcrepo.persistence.common.ResourceHeaderSerializationUtils.deserializeHeaders;
 import static org.fcrepo.persistence.common.ResourceHeaderSerializationUtils.serializeHeaders;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getSidecarSubpath;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.kernel.api.models.ResourceHeaders;
 import org.fcrepo.kernel.api.operations.CreateResourceOperation;
@@ -38,6 +52,12 @@ import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex;
 import org.fcrepo.persistence.ocfl.api.OCFLObjectSession;
 import org.fcrepo.persistence.ocfl.api.Persister;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
 /**
  * A base abstract persister class
  *
@@ -93,6 +113,255 @@ abstract class AbstractPersister implements Persister {
         return deserializeHeaders(headerStream);
     }
 
+    /**
+     * Records the containment of a newly created resource by its parent, within the session's transaction.
+     * @param session The OCFL persistent storage session
+     * @param operation The create operation
+     */
+    protected static void addContainment(final OCFLPersistentStorageSession session,
+                                         final CreateResourceOperation operation) {
+        final var containmentIndex = session.getContainmentIndex();
+        final var parentId = operation.getParentId();
+        if (containmentIndex != null && parentId != null) {
+            containmentIndex.addContainedBy(session.getId(), parentId, operation.getResourceId());
+        }
+    }
+
+    /**
+     * Recomputes the membership triples generated by a created or updated resource, within the session's
+     * transaction. If the resource is itself a Direct or Indirect Container whose membership properties have
+     * changed, the membership generated by each of its children is recomputed too.
+     * @param session The OCFL persistent storage session
+     * @param resourceId The identifier of the created or updated resource
+     * @param previousProperties The membership properties of the resource before the update, see
+     *                           getMembershipProperties, or null for a created resource
+     * @throws PersistentStorageException if the resource or its parent cannot be read
+     */
+    protected static void updateMembership(final OCFLPersistentStorageSession session, final String resourceId,
+                                           final MembershipProperties previousProperties)
+            throws PersistentStorageException {
+        final var membershipIndex = session.getMembershipIndex();
+        if (membershipIndex == null) {
+            return;
+        }
+        final var headers = session.getHeaders(resourceId, null);
+        membershipIndex.setMembership(session.getId(), resourceId,
+                computeMembership(session, headers.getParent(), resourceId));
+
+        final var containmentIndex = session.getContainmentIndex();
+        if (containmentIndex == null) {
+            return;
+        }
+        final var properties = readMembershipProperties(session, resourceId, headers.getInteractionModel());
+        if (Objects.equals(previousProperties, properties)) {
+            return;
+        }
+        try (final Stream<String> children = containmentIndex.getContainedBy(session.getId(), resourceId, null, -1)) {
+            final Iterator<String> childIds = children.iterator();
+            while (childIds.hasNext()) {
+                final String childId = childIds.next();
+                membershipIndex.setMembership(session.getId(), childId,
+                        computeMembership(session, properties, childId));
+            }
+        }
+    }
+
+    /**
+     * Reads the membership properties of a resource about to be updated, so that updateMembership can tell
+     * whether the membership generated by its children has changed.
+     * @param session The OCFL persistent storage session
+     * @param resourceId The identifier of the resource
+     * @return The membership properties, or null if the resource is not a Direct or Indirect Container or
+     *         membership is not indexed
+     * @throws PersistentStorageException if the resource cannot be read
+     */
+    protected static MembershipProperties getMembershipProperties(final OCFLPersistentStorageSession session,
+                                                                  final String resourceId)
+            throws PersistentStorageException {
+        if (session.getMembershipIndex() == null) {
+            return null;
+        }
+        return readMembershipProperties(session, resourceId,
+                session.getHeaders(resourceId, null).getInteractionModel());
+    }
+
+    /**
+     * Removes the membership triples generated by a deleted resource, within the session's transaction.
+     * @param session The OCFL persistent storage session
+     * @param resourceId The identifier of the deleted resource
+     */
+    protected static void removeMembership(final OCFLPersistentStorageSession session, final String resourceId) {
+        final var membershipIndex = session.getMembershipIndex();
+        if (membershipIndex != null) {
+            membershipIndex.setMembership(session.getId(), resourceId, emptyList());
+        }
+    }
+
+    /**
+     * Computes the membership triples generated by a resource contained by a Direct or Indirect Container.
+     * @param session The OCFL persistent storage session
+     * @param parentId The identifier of the container, may be null
+     * @param childId The identifier of the contained resource
+     * @return The membership triples, empty if the container does not generate membership
+     * @throws PersistentStorageException if the container or resource cannot be read
+     */
+    static List<Triple> computeMembership(final OCFLPersistentStorageSession session, final String parentId,
+                                          final String childId) throws PersistentStorageException {
+        if (parentId == null) {
+            return emptyList();
+        }
+        final var interactionModel = session.getHeaders(parentId, null).getInteractionModel();
+        return computeMembership(session, readMembershipProperties(session, parentId, interactionModel), childId);
+    }
+
+    /**
+     * Computes the membership triples generated by a resource contained by a Direct or Indirect Container.
+     * @param session The OCFL persistent storage session
+     * @param container The membership properties of the container, null if it does not generate membership
+     * @param childId The identifier of the contained resource
+     * @return The membership triples, empty if the container does not generate membership
+     * @throws PersistentStorageException if the resource cannot be read
+     */
+    static List<Triple> computeMembership(final OCFLPersistentStorageSession session,
+                                          final MembershipProperties container, final String childId)
+            throws PersistentStorageException {
+        if (container == null) {
+            return emptyList();
+        }
+
+        final List<Node> members = new ArrayList<>();
+        if (DIRECT_CONTAINER.getURI().equals(container.interactionModel) || MEMBER_SUBJECT.asNode()
+                .equals(container.insertedContentRelation)) {
+            members.add(createURI(childId));
+        } else if (!NON_RDF_SOURCE.getURI().equals(session.getHeaders(childId, null).getInteractionModel())) {
+            session.getTriples(childId, null)
+                    .filter(t -> t.getPredicate().equals(container.insertedContentRelation) && t.getObject().isURI())
+                    .forEach(t -> members.add(t.getObject()));
+        }
+
+        final List<Triple> membership = new ArrayList<>();
+        for (final Node member : members) {
+            if (container.hasMemberRelation != null && container.hasMemberRelation.isURI()) {
+                membership.add(Triple.create(container.membershipResource, container.hasMemberRelation, member));
+            }
+            if (container.isMemberOfRelation != null && container.isMemberOfRelation.isURI()) {
+                membership.add(Triple.create(member, container.isMemberOfRelation, container.membershipResource));
+            }
+        }
+        return membership;
+    }
+
+    /**
+     * Reads the membership properties of a container.
+     * @return The membership properties, or null if the container is not a Direct or Indirect Container
+     */
+    private static MembershipProperties readMembershipProperties(final OCFLPersistentStorageSession session,
+                                                                 final String containerId,
+                                                                 final String interactionModel)
+            throws PersistentStorageException {
+        if (!isMembershipContainer(interactionModel)) {
+            return null;
+        }
+        final List<Triple> containerTriples = session.getTriples(containerId, null).collect(toList());
+        final Node membershipResource = findObject(containerTriples, MEMBERSHIP_RESOURCE.asNode(),
+                createURI(containerId));
+        final Node isMemberOfRelation = findObject(containerTriples, IS_MEMBER_OF_RELATION.asNode(), null);
+        final Node hasMemberRelation = findObject(containerTriples, HAS_MEMBER_RELATION.asNode(),
+                isMemberOfRelation == null ? LDP_MEMBER.asNode() : null);
+        final Node insertedContentRelation = findObject(containerTriples, INSERTED_CONTENT_RELATION.asNode(),
+                MEMBER_SUBJECT.asNode());
+        return new MembershipProperties(interactionModel, membershipResource, hasMemberRelation,
+                isMemberOfRelation, insertedContentRelation);
+    }
+
+    private static boolean isMembershipContainer(final String interactionModel) {
+        return DIRECT_CONTAINER.getURI().equals(interactionModel)
+                || INDIRECT_CONTAINER.getURI().equals(interactionModel);
+    }
+
+    /**
+     * The properties of a Direct or Indirect Container which determine the membership its children generate.
+     */
+    static final class MembershipProperties {
+
+        private final String interactionModel;
+
+        private final Node membershipResource;
+
+        private final Node hasMemberRelation;
+
+        private final Node isMemberOfRelation;
+
+        private final Node insertedContentRelation;
+
+        private MembershipProperties(final String interactionModel, final Node membershipResource,
+                                     final Node hasMemberRelation, final Node isMemberOfRelation,
+                                     final Node insertedContentRelation) {
+            this.interactionModel = interactionModel;
+            this.membershipResource = membershipResource;
+            this.hasMemberRelation = hasMemberRelation;
+            this.isMemberOfRelation = isMemberOfRelation;
+            this.insertedContentRelation = insertedContentRelation;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof MembershipProperties)) {
+                return false;
+            }
+            final MembershipProperties other = (MembershipProperties) o;
+            return Objects.equals(interactionModel, other.interactionModel)
+                    && Objects.equals(membershipResource, other.membershipResource)
+                    && Objects.equals(hasMemberRelation, other.hasMemberRelation)
+                    && Objects.equals(isMemberOfRelation, other.isMemberOfRelation)
+                    && Objects.equals(insertedContentRelation, other.insertedContentRelation);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(interactionModel, membershipResource, hasMemberRelation, isMemberOfRelation,
+                    insertedContentRelation);
+        }
+    }
+
+    private static Node findObject(final List<Triple> triples, final Node predicate, final Node defaultValue) {
+        return triples.stream().filter(t -> t.getPredicate().equals(predicate) && t.getObject().isURI())
+                .map(Triple::getObject).findFirst().orElse(defaultValue);
+    }
+
+    /**
+     * Whether a triple of a resource references another repository resource, and so belongs in the reference index.
+     * Hash URIs and the resource itself are not resources whose inbound references can be looked up, so triples
+     * referencing them are not references.
+     * @param resourceId The identifier of the resource stating the triple
+     * @param triple The triple
+     * @return true if the subject is a URI and the object is the identifier of another repository resource
+     */
+    protected static boolean isReference(final String resourceId, final Triple triple) {
+        if (!triple.getSubject().isURI() || !triple.getObject().isURI()) {
+            return false;
+        }
+        final String object = triple.getObject().getURI();
+        return object.startsWith(FEDORA_ID_PREFIX) && object.indexOf('#') < 0 && !object.equals(resourceId);
+    }
+
+    /**
+     * Replaces the references stated by a created or updated resource, within the session's transaction.
+     * @param session The OCFL persistent storage session
+     * @param resourceId The identifier of the resource
+     * @param references The references now stated by the resource
+     */
+    protected static void updateReferences(final OCFLPersistentStorageSession session, final String resourceId,
+                                           final List<Triple> references) {
+        final var referenceIndex = session.getReferenceIndex();
+        if (referenceIndex != null) {
+            referenceIndex.setReferences(session.getId(), resourceId, references);
+        }
+    }
+
     @Override
     public boolean handle(final ResourceOperation operation) {
             return resourceOperationClass.isInstance(operation) && resourceOperationType.equals(operation.getType());
@@ -17,6 +17,7 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import org.apache.jena.graph.Triple;
 import org.fcrepo.kernel.api.models.ResourceHeaders;
 import org.fcrepo.kernel.api.operations.CreateResourceOperation;
 import org.fcrepo.kernel.api.operations.RdfSourceOperation;
@@ -30,6 +31,9 @@ import org.fcrepo.persistence.ocfl.api.OCFLObjectSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.CREATE;
 import static org.fcrepo.persistence.common.ResourceHeaderUtils.newResourceHeaders;
 import static org.fcrepo.persistence.common.ResourceHeaderUtils.touchCreationHeaders;
@@ -62,9 +66,10 @@ abstract class AbstractRDFSourcePersister extends AbstractPersister {
      * @param session The session.
      * @param operation The operation
      * @param rootId The fedora root object identifier tha maps to the OCFL object root.
+     * @return The written triples which reference other repository resources
      * @throws PersistentStorageException
      */
-    protected void persistRDF(final OCFLObjectSession session, final ResourceOperation operation,
+    protected List<Triple> persistRDF(final OCFLObjectSession session, final ResourceOperation operation,
                               final String rootId) throws PersistentStorageException {
 
         final RdfSourceOperation rdfSourceOp = (RdfSourceOperation)operation;
@@ -72,12 +77,18 @@ abstract class AbstractRDFSourcePersister extends AbstractPersister {
 
         final String subpath = relativizeSubpath(rootId, operation.getResourceId());
         final String resolvedSubpath = resolveOCFLSubpath(rootId, subpath);
-        //write user triples
-        final var outcome = writeRDF(session, rdfSourceOp.getTriples(), resolvedSubpath);
+        //write user triples, picking out the references as they are written
+        final List<Triple> references = new ArrayList<>();
+        final var outcome = writeRDF(session, rdfSourceOp.getTriples(), resolvedSubpath, triple -> {
+            if (isReference(operation.getResourceId(), triple)) {
+                references.add(triple);
+            }
+        });
 
         // Write resource headers
         final var headers = populateHeaders(session, resolvedSubpath, rdfSourceOp, outcome);
         writeHeaders(session, headers, resolvedSubpath);
+        return references;
     }
 
     /**
@@ -0,0 +1,342 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import edu.wisc.library.ocfl.api.OcflRepository;
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies a task to every object in an OCFL repository on a fixed pool of daemon worker threads, periodically
+ * recording its progress in a checkpoint file so that an interrupted walk can be resumed.
+ *
+ * Objects are numbered in the order they are listed by the repository. The checkpoint records a high-water mark, the
+ * number of leading objects which have all been processed along with the id of the last of them, the ids of objects
+ * beyond the mark which have been processed, which are no more than the number in flight, and the ids of objects
+ * whose task failed. It is rewritten in full at intervals and at the end of a walk, so its size does not grow with
+ * the repository. A resumed walk skips the objects below the mark, unless their task failed, and the processed
+ * objects beyond it. If the repository no longer lists the recorded object at the mark, the checkpoint is discarded
+ * and every object is processed again.
+ *
+ * A task failure is recorded against the object, which is retried when the walk is resumed. Walks which stop on
+ * failure dispatch no further objects after the first.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+final class CheckpointedObjectWalker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CheckpointedObjectWalker.class);
+
+    private static final long PROGRESS_INTERVAL = 10000;
+
+    private static final long CHECKPOINT_INTERVAL = 1000;
+
+    private static final String MARK = "mark";
+
+    private static final String COMPLETE = "complete";
+
+    private static final String FAILED = "failed";
+
+    private final String name;
+
+    private final OcflRepository ocflRepository;
+
+    private final int threads;
+
+    private final File checkpointFile;
+
+    private final boolean stopOnFailure;
+
+    /**
+     * @param name the lower case name of the walk, used in log messages and worker thread names
+     * @param ocflRepository the repository to walk
+     * @param threads the number of worker threads
+     * @param checkpointFile the checkpoint file
+     * @param stopOnFailure whether to stop dispatching objects after the first failure
+     */
+    CheckpointedObjectWalker(final String name, final OcflRepository ocflRepository, final int threads,
+                             final File checkpointFile, final boolean stopOnFailure) {
+        this.name = name;
+        this.ocflRepository = ocflRepository;
+        this.threads = threads;
+        this.checkpointFile = checkpointFile;
+        this.stopOnFailure = stopOnFailure;
+    }
+
+    /**
+     * @return whether a previous walk was interrupted
+     */
+    boolean isResuming() {
+        return checkpointFile.exists();
+    }
+
+    /**
+     * Apply the task to every object not already processed according to the checkpoint.
+     *
+     * @param task the task, which is passed the OCFL id of each object
+     * @return the failures, keyed by OCFL id
+     */
+    Map<String, RuntimeException> walk(final Consumer<String> task) {
+        return walk(task, () -> { });
+    }
+
+    /**
+     * Apply the task to every object not already processed according to the checkpoint.
+     *
+     * @param task the task, which is passed the OCFL id of each object
+     * @param beforeCheckpoint run before each checkpoint is recorded, to make the work of the processed objects
+     *                         durable
+     * @return the failures, keyed by OCFL id
+     */
+    Map<String, RuntimeException> walk(final Consumer<String> task, final Runnable beforeCheckpoint) {
+        final var previous = readCheckpoint();
+        if (previous.mark == 0 && previous.complete.isEmpty() && previous.failed.isEmpty()) {
+            LOGGER.info("Starting {}.", name);
+        } else {
+            LOGGER.info("Resuming interrupted {}, {} objects already processed.", name, previous.mark);
+        }
+
+        final var executor = newExecutor();
+        final var permits = new Semaphore(threads * 2);
+        final Map<String, RuntimeException> failures = new ConcurrentHashMap<>();
+        final var progress = new Progress(previous.failed);
+        final var processed = new AtomicLong();
+        final long start = System.currentTimeMillis();
+
+        try {
+            try (final var ocflIds = ocflRepository.listObjectIds()) {
+                final Iterator<String> it = ocflIds.iterator();
+                long position = 0;
+                while (it.hasNext() && !(stopOnFailure && !failures.isEmpty())) {
+                    final var ocflId = it.next();
+                    final long current = position++;
+                    if ((current < previous.mark || previous.complete.contains(ocflId))
+                            && !previous.failed.contains(ocflId)) {
+                        progress.finish(current, ocflId, true);
+                        continue;
+                    }
+                    permits.acquire();
+                    executor.execute(() -> {
+                        boolean succeeded = false;
+                        try {
+                            task.accept(ocflId);
+                            succeeded = true;
+                        } catch (final RuntimeException e) {
+                            LOGGER.error("Failed {} of {}: {}", name, ocflId, e.getMessage(), e);
+                            failures.put(ocflId, e);
+                        } finally {
+                            progress.finish(current, ocflId, succeeded);
+                            permits.release();
+                        }
+                        final long count = processed.incrementAndGet();
+                        reportProgress(count, start);
+                        if (count % CHECKPOINT_INTERVAL == 0) {
+                            try {
+                                writeCheckpoint(progress, beforeCheckpoint);
+                            } catch (final RuntimeException e) {
+                                LOGGER.warn("Failed to record {} checkpoint: {}", name, e.getMessage());
+                            }
+                        }
+                    });
+                }
+            } finally {
+                awaitTermination(executor);
+            }
+        } catch (final InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new RepositoryRuntimeException("Interrupted during " + name, e);
+        }
+        writeCheckpoint(progress, beforeCheckpoint);
+
+        LOGGER.info("Finished {}: {} objects processed in {} ms, {} failed", name, processed.get(),
+                System.currentTimeMillis() - start, failures.size());
+        return failures;
+    }
+
+    /**
+     * Remove the checkpoint once a walk has completed without failures.
+     */
+    void complete() {
+        checkpointFile.delete();
+    }
+
+    private ExecutorService newExecutor() {
+        final var count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, name.replace(' ', '-') + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void reportProgress(final long count, final long start) {
+        if (count % PROGRESS_INTERVAL == 0) {
+            final long elapsed = Math.max(1, System.currentTimeMillis() - start);
+            LOGGER.info("Progress of {}: {} objects processed ({} objects/s)", name, count, count * 1000 / elapsed);
+        }
+    }
+
+    /**
+     * Read the checkpoint of an interrupted walk, discarding it if the repository no longer lists the object at
+     * its mark.
+     */
+    private Checkpoint readCheckpoint() {
+        final var checkpoint = new Checkpoint();
+        if (!checkpointFile.exists()) {
+            return checkpoint;
+        }
+        try (final var lines = Files.lines(checkpointFile.toPath())) {
+            lines.forEach(line -> {
+                final String[] parts = line.split(" ", 2);
+                if (parts.length < 2) {
+                    return;
+                }
+                if (MARK.equals(parts[0])) {
+                    final String[] mark = parts[1].split(" ", 2);
+                    checkpoint.mark = Long.parseLong(mark[0]);
+                    checkpoint.markId = mark.length > 1 ? mark[1] : null;
+                } else if (COMPLETE.equals(parts[0])) {
+                    checkpoint.complete.add(parts[1]);
+                } else if (FAILED.equals(parts[0])) {
+                    checkpoint.failed.add(parts[1]);
+                }
+            });
+        } catch (final IOException | NumberFormatException e) {
+            throw new RepositoryRuntimeException("Failed to read " + name + " checkpoint: " + e.getMessage(), e);
+        }
+
+        if (checkpoint.mark > 0) {
+            final String listed;
+            try (final var ocflIds = ocflRepository.listObjectIds()) {
+                listed = ocflIds.skip(checkpoint.mark - 1).findFirst().orElse(null);
+            }
+            if (!Objects.equals(listed, checkpoint.markId)) {
+                LOGGER.warn("The objects listed have changed since the {} checkpoint was recorded, processing every "
+                        + "object again.", name);
+                return new Checkpoint();
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Replace the checkpoint with the current progress. Writes are serialized, so an older snapshot of the progress
+     * never replaces a newer one.
+     */
+    private synchronized void writeCheckpoint(final Progress progress, final Runnable beforeCheckpoint) {
+        final List<String> lines = progress.snapshot();
+        beforeCheckpoint.run();
+        try {
+            final File dir = checkpointFile.getAbsoluteFile().getParentFile();
+            dir.mkdirs();
+            final var temp = Files.createTempFile(dir.toPath(), checkpointFile.getName(), ".tmp");
+            Files.write(temp, lines);
+            Files.move(temp, checkpointFile.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException("Failed to write " + name + " checkpoint: " + e.getMessage(), e);
+        }
+    }
+
+    private static void awaitTermination(final ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The progress recorded by a checkpoint
+     */
+    private static class Checkpoint {
+
+        private long mark;
+
+        private String markId;
+
+        private final Set<String> complete = new HashSet<>();
+
+        private final Set<String> failed = new HashSet<>();
+    }
+
+    /**
+     * The progress of a walk, advancing the mark as the objects at it finish.
+     */
+    private static class Progress {
+
+        private final Map<Long, String> finished = new TreeMap<>();
+
+        private final Set<String> failed;
+
+        private long mark;
+
+        private String markId;
+
+        private Progress(final Set<String> failed) {
+            this.failed = new HashSet<>(failed);
+        }
+
+        private synchronized void finish(final long position, final String ocflId, final boolean succeeded) {
+            if (succeeded) {
+                failed.remove(ocflId);
+            } else {
+                failed.add(ocflId);
+            }
+            finished.put(position, ocflId);
+            while (finished.containsKey(mark)) {
+                markId = finished.remove(mark);
+                mark++;
+            }
+        }
+
+        private synchronized List<String> snapshot() {
+            final List<String> lines = new ArrayList<>();
+            if (mark > 0) {
+                lines.add(MARK + " " + mark + " " + markId);
+            }
+            finished.values().forEach(ocflId -> lines.add(COMPLETE + " " + ocflId));
+            failed.forEach(ocflId -> lines.add(FAILED + " " + ocflId));
+            return lines;
+        }
+    }
+}
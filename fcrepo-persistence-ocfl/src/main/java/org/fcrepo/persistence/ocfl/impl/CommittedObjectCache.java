@@ -0,0 +1,243 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToIntFunction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
+import org.slf4j.Logger;
+
+/**
+ * A bounded cache of values derived from the committed state of files in OCFL objects, shared between read-only
+ * persistent storage sessions. Entries are keyed by OCFL object id, subpath and version, and are invalidated per
+ * OCFL object when a session commits changes to that object. Committing only touches the entries of the changed
+ * objects, and only holds back the caching of concurrent loads of objects in the same generation stripe.
+ *
+ * @param <V> the type of the cached values
+ * @author agent
+ * @since 6.0.0
+ */
+public class CommittedObjectCache<V> {
+
+    private static final Logger log = getLogger(CommittedObjectCache.class);
+
+    /**
+     * Loads a value from OCFL on a cache miss.
+     *
+     * @param <V> the type of the loaded value
+     */
+    @FunctionalInterface
+    interface Loader<V> {
+        V load() throws PersistentStorageException;
+    }
+
+    /*
+     * Number of stripes the generations of OCFL objects are spread across. A load is only discarded when an object
+     * in the same stripe is committed while it is in progress.
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Key, V> cache;
+
+    /*
+     * The keys cached for each OCFL object, so that a commit only touches the entries of the objects it changed.
+     */
+    private final ConcurrentHashMap<String, Set<Key>> keysByObject = new ConcurrentHashMap<>();
+
+    /*
+     * Incremented whenever an object of the stripe is invalidated, so that a value read from OCFL before a
+     * concurrent commit is not put into the cache after that commit has invalidated it. Updated while holding the
+     * lock of the stripe.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Object[] stripeLocks = new Object[GENERATION_STRIPES];
+
+    /**
+     * Create a cache holding at most maximumSize entries.
+     *
+     * @param maximumSize the maximum number of entries
+     */
+    public CommittedObjectCache(final long maximumSize) {
+        this(CacheBuilder.newBuilder().maximumSize(maximumSize));
+    }
+
+    /**
+     * Create a cache bounded by the total weight of its entries.
+     *
+     * @param maximumWeight the maximum total weight of all entries
+     * @param weigher computes the weight of a single value
+     */
+    public CommittedObjectCache(final long maximumWeight, final ToIntFunction<V> weigher) {
+        this(CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((final Key k, final V v) -> weigher.applyAsInt(v)));
+    }
+
+    private CommittedObjectCache(final CacheBuilder<? super Key, ? super V> builder) {
+        this.cache = builder
+                .recordStats()
+                .removalListener(this::removed)
+                .build();
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            stripeLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Return the cached value for the file, loading it on a miss.
+     *
+     * @param ocflId the OCFL object id
+     * @param subpath the subpath of the file within the OCFL object
+     * @param versionId the OCFL version id, or null for the head version
+     * @param loader loads the value when it is not cached
+     * @return the value
+     * @throws PersistentStorageException if the value could not be loaded
+     */
+    V get(final String ocflId, final String subpath, final String versionId, final Loader<V> loader)
+            throws PersistentStorageException {
+        final var key = new Key(ocflId, subpath, versionId);
+        final var cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final int stripe = stripe(ocflId);
+        final long loadGeneration = generations.get(stripe);
+        final var value = loader.load();
+        synchronized (stripeLocks[stripe]) {
+            if (loadGeneration == generations.get(stripe)) {
+                cache.put(key, value);
+                keysByObject.compute(ocflId, (id, keys) -> {
+                    final Set<Key> objectKeys = keys == null ? ConcurrentHashMap.newKeySet() : keys;
+                    objectKeys.add(key);
+                    return objectKeys;
+                });
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Invalidate all entries belonging to the specified OCFL objects.
+     *
+     * @param ocflIds the ids of the OCFL objects that changed
+     */
+    void invalidate(final Collection<String> ocflIds) {
+        for (final String ocflId : ocflIds) {
+            final int stripe = stripe(ocflId);
+            synchronized (stripeLocks[stripe]) {
+                generations.incrementAndGet(stripe);
+                final var keys = keysByObject.remove(ocflId);
+                if (keys != null) {
+                    cache.invalidateAll(keys);
+                }
+            }
+        }
+        log.debug("Invalidated cached entries for {} OCFL objects", ocflIds.size());
+    }
+
+    /**
+     * Discard all entries.
+     */
+    void invalidateAll() {
+        for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+            synchronized (stripeLocks[stripe]) {
+                generations.incrementAndGet(stripe);
+            }
+        }
+        cache.invalidateAll();
+        keysByObject.clear();
+    }
+
+    /**
+     * Stop tracking an entry once it has been evicted or invalidated. An entry put again in the meantime is still
+     * present in the cache, and remains tracked.
+     */
+    private void removed(final RemovalNotification<Key, V> notification) {
+        final Key key = notification.getKey();
+        if (key == null) {
+            return;
+        }
+        keysByObject.computeIfPresent(key.ocflId, (id, keys) -> {
+            if (!cache.asMap().containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static int stripe(final String ocflId) {
+        return Math.floorMod(ocflId.hashCode(), GENERATION_STRIPES);
+    }
+
+    /**
+     * @return hit, miss and eviction statistics for this cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the approximate number of entries in this cache
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private static class Key {
+        private final String ocflId;
+        private final String subpath;
+        private final String versionId;
+
+        Key(final String ocflId, final String subpath, final String versionId) {
+            this.ocflId = ocflId;
+            this.subpath = subpath;
+            this.versionId = versionId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return ocflId.equals(key.ocflId) && subpath.equals(key.subpath) &&
+                    Objects.equals(versionId, key.versionId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ocflId, subpath, versionId);
+        }
+    }
+}
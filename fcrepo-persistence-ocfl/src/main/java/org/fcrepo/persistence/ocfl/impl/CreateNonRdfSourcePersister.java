@@ -59,5 +59,7 @@ class CreateNonRdfSourcePersister extends AbstractNonRdfSourcePersister {
         final OCFLObjectSession ocflObjectSession = session.findOrCreateSession(ocflId);
         persistNonRDFSource(operation, ocflObjectSession, rootObjectId);
         index.addMapping(resourceId, rootObjectId, ocflId);
+        addContainment(session, createResourceOp);
+        updateMembership(session, resourceId, null);
     }
 }
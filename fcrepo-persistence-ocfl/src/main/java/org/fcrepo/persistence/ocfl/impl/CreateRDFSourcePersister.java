@@ -72,7 +72,10 @@ class CreateRDFSourcePersister extends AbstractRDFSourcePersister {
 
         final String ocflObjectId = mintOCFLObjectId(rootObjectId);
         final OCFLObjectSession ocflObjectSession = session.findOrCreateSession(ocflObjectId);
-        persistRDF(ocflObjectSession, operation, rootObjectId);
+        final var references = persistRDF(ocflObjectSession, operation, rootObjectId);
         index.addMapping(resourceId, rootObjectId, ocflObjectId);
+        addContainment(session, createResourceOp);
+        updateMembership(session, resourceId, null);
+        updateReferences(session, resourceId, references);
     }
 }
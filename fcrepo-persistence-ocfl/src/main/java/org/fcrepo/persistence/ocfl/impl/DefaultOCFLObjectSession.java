@@ -24,10 +24,15 @@ import static org.fcrepo.persistence.api.CommitOption.NEW_VERSION;
 import static java.lang.String.format;
 import static org.fcrepo.persistence.api.CommitOption.UNVERSIONED;
 
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -35,18 +40,24 @@ import java.time.Instant;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import edu.wisc.library.ocfl.api.model.ObjectDetails;
 import edu.wisc.library.ocfl.api.model.VersionDetails;
 import org.apache.commons.io.FileUtils;
 import org.fcrepo.persistence.api.exceptions.PersistentItemNotFoundException;
 import org.fcrepo.persistence.api.exceptions.PersistentSessionClosedException;
 import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
 import org.fcrepo.persistence.common.FileWriteOutcome;
+import org.fcrepo.persistence.common.InMemoryWriteOutcome;
 import org.fcrepo.persistence.api.CommitOption;
 import org.fcrepo.persistence.api.WriteOutcome;
 import org.fcrepo.persistence.ocfl.api.OCFLObjectSession;
@@ -56,6 +67,7 @@ import org.slf4j.LoggerFactory;
 import edu.wisc.library.ocfl.api.model.ObjectVersionId;
 import edu.wisc.library.ocfl.api.MutableOcflRepository;
 import edu.wisc.library.ocfl.api.OcflObjectUpdater;
+import edu.wisc.library.ocfl.api.OcflObjectVersion;
 import edu.wisc.library.ocfl.api.exception.NotFoundException;
 import edu.wisc.library.ocfl.api.model.CommitInfo;
 
@@ -63,6 +75,13 @@ import edu.wisc.library.ocfl.api.model.CommitInfo;
  * Default implementation of an OCFL object session, which stages changes to the
  * file system prior to committing.
  *
+ * Files no larger than the memory threshold are staged in memory, up to a per-session byte budget, and are only
+ * written to the staging path at commit time. Larger files, and files written once the budget is exhausted, are
+ * staged on disk immediately.
+ *
+ * When inventory caching is enabled, the results of looking up the object in the OCFL repository are retained for
+ * the lifetime of the session, so that the inventory is only loaded once rather than on every read.
+ *
  * @author bbpennel
  */
 public class DefaultOCFLObjectSession implements OCFLObjectSession {
@@ -76,6 +95,18 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
 
     private Set<String> deletePaths;
 
+    // Content of small files staged in memory, keyed by subpath
+    private final Map<String, byte[]> memoryStaged = new ConcurrentHashMap<>();
+
+    private final int memoryThreshold;
+
+    private final long memoryBudget;
+
+    private final AtomicLong memoryStagedBytes = new AtomicLong();
+
+    // Indicates that at least one file has been staged to disk, so the staging path must be consulted
+    private volatile boolean stagedToDisk;
+
     private boolean objectDeleted;
 
     // Indicates that the session has been committed or closed, and may not be written to
@@ -83,6 +114,23 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
 
     private MutableOcflRepository ocflRepository;
 
+    // Indicates that the results of inventory lookups may be reused for the lifetime of the session
+    private final boolean cacheInventory;
+
+    // Cached inventory lookups, only populated when cacheInventory is enabled
+    private volatile Boolean objectExists;
+
+    private volatile OcflObjectVersion headVersion;
+
+    private volatile VersionDetails headVersionDetails;
+
+    private volatile ObjectDetails objectDetails;
+
+    // Root of the OCFL storage, used to read committed files directly from disk, or null if not known
+    private final Path storageRoot;
+
+    // Number of times the inventory of the object was loaded from the OCFL repository by this session
+    private final AtomicInteger inventoryLoads = new AtomicInteger();
 
     private static CommitOption globalDefaultCommitOption =
             Boolean.valueOf(getProperty("fcrepo.autoversioning.enabled", "false")) ? NEW_VERSION : UNVERSIONED;
@@ -97,6 +145,58 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
      */
     public DefaultOCFLObjectSession(final String objectIdentifier, final Path stagingPath,
             final MutableOcflRepository ocflRepository) {
+        this(objectIdentifier, stagingPath, ocflRepository, 0, 0, false);
+    }
+
+    /**
+     * Instantiate an OCFL object session which stages small files in memory
+     *
+     * @param objectIdentifier identifier for the OCFL object
+     * @param stagingPath path in which changes to the OCFL object will be staged.
+     * @param ocflRepository the OCFL repository in which the object is stored.
+     * @param memoryThreshold maximum size in bytes of a file staged in memory, 0 to stage all files on disk.
+     * @param memoryBudget maximum number of bytes staged in memory by this session.
+     */
+    public DefaultOCFLObjectSession(final String objectIdentifier, final Path stagingPath,
+            final MutableOcflRepository ocflRepository, final int memoryThreshold, final long memoryBudget) {
+        this(objectIdentifier, stagingPath, ocflRepository, memoryThreshold, memoryBudget, false);
+    }
+
+    /**
+     * Instantiate an OCFL object session
+     *
+     * @param objectIdentifier identifier for the OCFL object
+     * @param stagingPath path in which changes to the OCFL object will be staged.
+     * @param ocflRepository the OCFL repository in which the object is stored.
+     * @param memoryThreshold maximum size in bytes of a file staged in memory, 0 to stage all files on disk.
+     * @param memoryBudget maximum number of bytes staged in memory by this session.
+     * @param cacheInventory if true, the object's inventory is loaded at most once for the lifetime of the session.
+     */
+    public DefaultOCFLObjectSession(final String objectIdentifier, final Path stagingPath,
+            final MutableOcflRepository ocflRepository, final int memoryThreshold, final long memoryBudget,
+            final boolean cacheInventory) {
+        this(objectIdentifier, stagingPath, ocflRepository, memoryThreshold, memoryBudget, cacheInventory, null);
+    }
+
+    /**
+     * Instantiate an OCFL object session which reads committed files directly from the OCFL storage root, so that
+     * their content can be read from any position.
+     *
+     * @param objectIdentifier identifier for the OCFL object
+     * @param stagingPath path in which changes to the OCFL object will be staged.
+     * @param ocflRepository the OCFL repository in which the object is stored.
+     * @param memoryThreshold maximum size in bytes of a file staged in memory, 0 to stage all files on disk.
+     * @param memoryBudget maximum number of bytes staged in memory by this session.
+     * @param cacheInventory if true, the object's inventory is loaded at most once for the lifetime of the session.
+     * @param storageRoot root directory of the OCFL storage, or null to read committed files from the repository.
+     */
+    public DefaultOCFLObjectSession(final String objectIdentifier, final Path stagingPath,
+            final MutableOcflRepository ocflRepository, final int memoryThreshold, final long memoryBudget,
+            final boolean cacheInventory, final Path storageRoot) {
+        this.storageRoot = storageRoot;
+        this.cacheInventory = cacheInventory;
+        this.memoryThreshold = memoryThreshold;
+        this.memoryBudget = memoryBudget;
         this.objectIdentifier = objectIdentifier;
         this.stagingPath = stagingPath.resolve(objectIdentifier);
         this.ocflRepository = ocflRepository;
@@ -128,21 +228,26 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
     @Override
     public synchronized WriteOutcome write(final String subpath, final InputStream stream)
             throws PersistentStorageException {
-        // Check that the staging path exists now that we are writing.
-        if (!this.stagingPath.toFile().exists()) {
-            this.stagingPath.toFile().mkdirs();
-        }
         // Determine the staging path for the incoming content
         final var stagedPath = resolveStagedPath(subpath);
         try {
             assertSessionOpen();
 
-            final var parentPath = stagedPath.getParent();
+            var content = stream;
+            final int memoryLimit = memoryLimit(subpath);
+            if (memoryLimit > 0) {
+                final byte[] head = stream.readNBytes(memoryLimit + 1);
+                if (head.length <= memoryLimit) {
+                    stageInMemory(subpath, head);
+                    return new InMemoryWriteOutcome(head.length);
+                }
+                // too large to hold in memory, write what was read followed by the rest of the stream
+                content = new SequenceInputStream(new ByteArrayInputStream(head), stream);
+            }
 
-            // Fill in any missing parent directories
-            Files.createDirectories(parentPath);
+            prepareDiskStaging(subpath, stagedPath);
             // write contents to subpath within the staging path
-            Files.copy(stream, stagedPath, StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(content, stagedPath, StandardCopyOption.REPLACE_EXISTING);
 
             return new FileWriteOutcome(stagedPath);
         } catch (final IOException e) {
@@ -156,6 +261,160 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized WriteOutcome write(final String subpath, final ContentWriter writer)
+            throws PersistentStorageException {
+        assertSessionOpen();
+
+        // Determine the staging path for the incoming content
+        final var stagedPath = resolveStagedPath(subpath);
+        try {
+            final var memoryLimit = memoryLimit(subpath);
+            final var out = new SpillingOutputStream(subpath, stagedPath, memoryLimit);
+            if (memoryLimit == 0) {
+                out.spill();
+            }
+            try (out) {
+                writer.writeTo(out);
+            }
+
+            if (out.isSpilled()) {
+                return new FileWriteOutcome(stagedPath);
+            }
+            final byte[] content = out.toByteArray();
+            stageInMemory(subpath, content);
+            return new InMemoryWriteOutcome(content.length);
+        } catch (final IOException e) {
+            throw new PersistentStorageException("Unable to persist content to " + stagedPath, e);
+        }
+    }
+
+    /**
+     * Determine the largest number of bytes which may be staged in memory for the subpath, taking into account
+     * memory freed by replacing content already staged in memory at that subpath.
+     */
+    private int memoryLimit(final String subpath) {
+        final var existing = memoryStaged.get(subpath);
+        final long available = memoryBudget - memoryStagedBytes.get() + (existing == null ? 0 : existing.length);
+        return (int) Math.max(0, Math.min(memoryThreshold, available));
+    }
+
+    private void stageInMemory(final String subpath, final byte[] content) throws IOException {
+        if (stagedToDisk) {
+            Files.deleteIfExists(resolveStagedPath(subpath));
+        }
+        final var previous = memoryStaged.put(subpath, content);
+        memoryStagedBytes.addAndGet(content.length - (previous == null ? 0 : previous.length));
+    }
+
+    private void unstageFromMemory(final String subpath) {
+        final var previous = memoryStaged.remove(subpath);
+        if (previous != null) {
+            memoryStagedBytes.addAndGet(-previous.length);
+        }
+    }
+
+    /**
+     * Prepare to stage the subpath on disk, replacing any copy of it staged in memory.
+     */
+    private void prepareDiskStaging(final String subpath, final Path stagedPath) throws IOException {
+        unstageFromMemory(subpath);
+        // Fill in any missing parent directories, including the staging path itself
+        Files.createDirectories(stagedPath.getParent());
+        stagedToDisk = true;
+    }
+
+    /**
+     * Write all files staged in memory to the staging path, so that they can be committed along with files staged
+     * on disk.
+     */
+    private void flushMemoryStaging() throws PersistentStorageException {
+        for (final var entry : memoryStaged.entrySet()) {
+            final var stagedPath = resolveStagedPath(entry.getKey());
+            try {
+                Files.createDirectories(stagedPath.getParent());
+                Files.write(stagedPath, entry.getValue());
+            } catch (final IOException e) {
+                throw new PersistentStorageException("Unable to persist content to " + stagedPath, e);
+            }
+        }
+        if (!memoryStaged.isEmpty()) {
+            stagedToDisk = true;
+        }
+        clearMemoryStaging();
+    }
+
+    private void clearMemoryStaging() {
+        memoryStaged.clear();
+        memoryStagedBytes.set(0);
+    }
+
+    /**
+     * Buffers written content in memory until it exceeds the limit, then spills it to the staged file.
+     */
+    private class SpillingOutputStream extends OutputStream {
+        private final String subpath;
+        private final Path stagedPath;
+        private final int limit;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream file;
+
+        SpillingOutputStream(final String subpath, final Path stagedPath, final int limit) {
+            this.subpath = subpath;
+            this.stagedPath = stagedPath;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{ (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (file == null && buffer.size() + len > limit) {
+                spill();
+            }
+            if (file != null) {
+                file.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        private void spill() throws IOException {
+            prepareDiskStaging(subpath, stagedPath);
+            file = new BufferedOutputStream(Files.newOutputStream(stagedPath));
+            buffer.writeTo(file);
+            buffer = null;
+        }
+
+        boolean isSpilled() {
+            return file != null;
+        }
+
+        byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (file != null) {
+                file.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -167,10 +426,13 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
         assertSessionOpen();
 
         final var stagedPath = resolveStagedPath(subpath);
-        final var hasStagedChanges = hasStagedChanges(stagedPath);
+        final var stagedInMemory = memoryStaged.containsKey(subpath);
+        final var hasStagedChanges = stagedInMemory || hasStagedChanges(stagedPath);
 
-        // If the subpath exists in the staging path for this session, then delete from there
-        if (hasStagedChanges) {
+        // If the subpath exists in the staging area for this session, then delete from there
+        if (stagedInMemory) {
+            unstageFromMemory(subpath);
+        } else if (hasStagedChanges) {
             // delete the file from the staging path
             try {
                 Files.delete(stagedPath);
@@ -202,6 +464,7 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
         objectDeleted = true;
         // Reset state of the object
         if (!isStagingEmpty()) {
+            clearMemoryStaging();
             cleanupStaging();
             deletePaths = new HashSet<>();
         } else if (isNewObject()) {
@@ -228,12 +491,11 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
             return true;
         }
         // If the object isn't created yet, then there is no history for the subpath
-        if (!ocflRepository.containsObject(objectIdentifier)) {
+        if (!objectExists()) {
             return true;
         }
         // determine if this subpath exists in the OCFL object
-        return !ocflRepository.getObject(ObjectVersionId.head(objectIdentifier))
-                .containsFile(subpath);
+        return !getHeadVersion().containsFile(subpath);
     }
 
     /**
@@ -243,6 +505,11 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
     public InputStream read(final String subpath) throws PersistentStorageException {
         assertSessionOpen();
 
+        final var memoryContent = memoryStaged.get(subpath);
+        if (memoryContent != null) {
+            return new ByteArrayInputStream(memoryContent);
+        }
+
         final var stagedPath = resolveStagedPath(subpath);
 
         if (hasStagedChanges(stagedPath)) {
@@ -255,7 +522,7 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
             }
         } else if (!objectDeleted) {
             // Fall back to the head version
-            return readVersion(subpath, ObjectVersionId.head(objectIdentifier));
+            return readVersion(subpath, null);
         }
 
         throw new PersistentItemNotFoundException(format("Could not find %s within object %s",
@@ -275,25 +542,43 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
                     subpath, objectIdentifier));
         }
 
-        return readVersion(subpath, ObjectVersionId.version(objectIdentifier, version));
+        return readVersion(subpath, version);
     }
 
-    private InputStream readVersion(final String subpath, final ObjectVersionId version)
+    /**
+     * Read a file from a committed version of the OCFL object
+     *
+     * @param subpath path of the file within the object
+     * @param version identifier of the version to read from, or null to read from the head version
+     * @return the content of the file
+     * @throws PersistentItemNotFoundException if the object or file does not exist
+     */
+    private InputStream readVersion(final String subpath, final String version)
             throws PersistentItemNotFoundException {
         try {
-            // read the head version of the file from the ocfl object
-            final var file = ocflRepository.getObject(version)
-                    .getFile(subpath);
+            final var objectVersion = version == null ? getHeadVersion() :
+                    loadObjectVersion(ObjectVersionId.version(objectIdentifier, version));
+            final var file = objectVersion.getFile(subpath);
             if (file == null) {
                 throw new PersistentItemNotFoundException(format("Could not find %s within object %s version %s",
-                        subpath, objectIdentifier, version.getVersionId()));
+                        subpath, objectIdentifier, version));
+            }
+            // Committed files are read from disk when possible, so that callers may seek within them
+            if (storageRoot != null) {
+                final var storedFile = storageRoot.resolve(file.getStorageRelativePath());
+                if (Files.isRegularFile(storedFile)) {
+                    return new FileInputStream(storedFile.toFile());
+                }
             }
             // Disable automatic fixity check
             return file.getStream().enableFixityCheck(false);
         } catch (final NotFoundException e) {
             throw new PersistentItemNotFoundException(format(
                     "Unable to read %s from object %s version %s, object was not found.",
-                    subpath, objectIdentifier, version.getVersionId()));
+                    subpath, objectIdentifier, version));
+        } catch (final FileNotFoundException e) {
+            throw new PersistentItemNotFoundException(format("Could not find %s within object %s version %s",
+                    subpath, objectIdentifier, version));
         }
     }
 
@@ -319,6 +604,21 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
         // Close the session
         sessionClosed = true;
 
+        // Files staged in memory are committed from the staging path along with those staged on disk
+        flushMemoryStaging();
+
+        log.debug("Committing object {}, inventory loaded {} times during session", objectIdentifier,
+                inventoryLoads.get());
+
+        try {
+            return commitChanges(commitOption);
+        } finally {
+            // the committed object no longer matches any cached inventory
+            clearInventoryCache();
+        }
+    }
+
+    private String commitChanges(final CommitOption commitOption) throws PersistentStorageException {
         // Perform requested deletion of the object
         if (objectDeleted) {
             deleteExistingObject();
@@ -339,6 +639,7 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
 
     private void deleteExistingObject() {
         ocflRepository.purgeObject(objectIdentifier);
+        clearInventoryCache();
     }
 
     private String commitNewObject(final CommitOption commitOption) throws PersistentStorageException {
@@ -408,6 +709,7 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
     public synchronized void close() throws PersistentStorageException {
         sessionClosed = true;
 
+        clearMemoryStaging();
         cleanupStaging();
     }
 
@@ -415,8 +717,7 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
     public List<VersionDetails> listVersions() throws PersistentStorageException {
         assertSessionOpen();
         //get a list of all versions in the object.
-        return this.ocflRepository.describeObject(this.objectIdentifier)
-                                                                    .getVersionMap().values().stream()
+        return getObjectDetails().getVersionMap().values().stream()
                                                                     .filter(v -> !v.isMutable())
                                                                     .sorted(VERSION_COMPARATOR)
                                                                     .collect(Collectors.toList());
@@ -426,8 +727,7 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
     public Stream<String> listHeadSubpaths() throws PersistentStorageException {
         assertSessionOpen();
 
-        return this.ocflRepository.describeVersion(ObjectVersionId.head(this.objectIdentifier))
-                .getFiles()
+        return getHeadVersionDetails().getFiles()
                 .stream().map(f -> f.getPath());
     }
 
@@ -445,15 +745,86 @@ public class DefaultOCFLObjectSession implements OCFLObjectSession {
     }
 
     private boolean isStagingEmpty() {
-        return !stagingPath.toFile().exists() || Objects.requireNonNull(stagingPath.toFile().listFiles()).length == 0;
+        if (!memoryStaged.isEmpty()) {
+            return false;
+        }
+        return !stagedToDisk || !stagingPath.toFile().exists() ||
+                Objects.requireNonNull(stagingPath.toFile().listFiles()).length == 0;
     }
 
     private boolean hasStagedChanges(final Path path) {
-        return path.toFile().exists();
+        return stagedToDisk && path.toFile().exists();
     }
 
     private boolean isNewObject() {
-        return !ocflRepository.containsObject(objectIdentifier);
+        return !objectExists();
+    }
+
+    /**
+     * @return the number of times the inventory of the object has been loaded from the OCFL repository by this
+     *      session
+     */
+    public int getInventoryLoads() {
+        return inventoryLoads.get();
+    }
+
+    private boolean objectExists() {
+        if (cacheInventory && objectExists != null) {
+            return objectExists;
+        }
+        inventoryLoads.incrementAndGet();
+        final boolean exists = ocflRepository.containsObject(objectIdentifier);
+        if (cacheInventory) {
+            objectExists = exists;
+        }
+        return exists;
+    }
+
+    private OcflObjectVersion getHeadVersion() {
+        if (cacheInventory && headVersion != null) {
+            return headVersion;
+        }
+        final var version = loadObjectVersion(ObjectVersionId.head(objectIdentifier));
+        if (cacheInventory) {
+            headVersion = version;
+        }
+        return version;
+    }
+
+    private OcflObjectVersion loadObjectVersion(final ObjectVersionId version) {
+        inventoryLoads.incrementAndGet();
+        return ocflRepository.getObject(version);
+    }
+
+    private VersionDetails getHeadVersionDetails() {
+        if (cacheInventory && headVersionDetails != null) {
+            return headVersionDetails;
+        }
+        inventoryLoads.incrementAndGet();
+        final var details = ocflRepository.describeVersion(ObjectVersionId.head(objectIdentifier));
+        if (cacheInventory) {
+            headVersionDetails = details;
+        }
+        return details;
+    }
+
+    private ObjectDetails getObjectDetails() {
+        if (cacheInventory && objectDetails != null) {
+            return objectDetails;
+        }
+        inventoryLoads.incrementAndGet();
+        final var details = ocflRepository.describeObject(objectIdentifier);
+        if (cacheInventory) {
+            objectDetails = details;
+        }
+        return details;
+    }
+
+    private void clearInventoryCache() {
+        objectExists = null;
+        headVersion = null;
+        headVersionDetails = null;
+        objectDetails = null;
     }
 
     private Path resolveStagedPath(final String subpath) {
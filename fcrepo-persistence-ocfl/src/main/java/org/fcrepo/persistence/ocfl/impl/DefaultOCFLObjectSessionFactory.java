@@ -17,7 +17,10 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.OCFL_STORAGE_ROOT_DIR;
 import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.STAGING_DIR;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.STAGING_MEMORY_BUDGET;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.STAGING_MEMORY_THRESHOLD;
 
 import java.io.File;
 
@@ -45,6 +48,8 @@ public class DefaultOCFLObjectSessionFactory implements OCFLObjectSessionFactory
 
     private File ocflStagingDir;
 
+    private File ocflStorageRootDir;
+
     @Inject
     private MutableOcflRepository ocflRepository;
 
@@ -54,7 +59,7 @@ public class DefaultOCFLObjectSessionFactory implements OCFLObjectSessionFactory
      * are not set, default directories will be created in java.io.tmpdir.
      */
     public DefaultOCFLObjectSessionFactory() {
-        this(STAGING_DIR);
+        this(STAGING_DIR, OCFL_STORAGE_ROOT_DIR);
     }
 
     /**
@@ -70,11 +75,25 @@ public class DefaultOCFLObjectSessionFactory implements OCFLObjectSessionFactory
         this.ocflStagingDir = ocflStagingDir;
     }
 
+    /**
+     * Constructor
+     *
+     * @param ocflStagingDir     The OCFL staging directory
+     * @param ocflStorageRootDir The OCFL storage root directory, from which committed files are read directly
+     */
+    public DefaultOCFLObjectSessionFactory(final File ocflStagingDir, final File ocflStorageRootDir) {
+        this(ocflStagingDir);
+        this.ocflStorageRootDir = ocflStorageRootDir;
+    }
+
     @Override
     public OCFLObjectSession create(final String ocflId, final String persistentStorageSessionId) {
 
         final File stagingDirectory = new File(this.ocflStagingDir,
                 persistentStorageSessionId == null ? "read-only" : persistentStorageSessionId);
-        return new DefaultOCFLObjectSession(ocflId, stagingDirectory.toPath(), this.ocflRepository);
+        // Read-only sessions are long lived, so their inventory lookups must not be cached
+        return new DefaultOCFLObjectSession(ocflId, stagingDirectory.toPath(), this.ocflRepository,
+                STAGING_MEMORY_THRESHOLD, STAGING_MEMORY_BUDGET, persistentStorageSessionId != null,
+                ocflStorageRootDir == null ? null : ocflStorageRootDir.toPath());
     }
 }
@@ -17,6 +17,7 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import static java.util.Collections.emptyList;
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.DELETE;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.relativizeSubpath;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.resolveOCFLSubpath;
@@ -47,6 +48,9 @@ class DeleteResourcePersister extends AbstractPersister {
         final var resourceId = operation.getResourceId();
         final var objectSession = session.findOrCreateSession(mapping.getOcflObjectId());
         log.debug("Deleting {} from {}", resourceId, mapping.getOcflObjectId());
+        removeContainment(session, resourceId);
+        removeMembership(session, resourceId);
+        updateReferences(session, resourceId, emptyList());
         if (fedoraResourceRoot.equals(resourceId)) {
             // We are at the root of the object.
             objectSession.deleteObject();
@@ -56,4 +60,15 @@ class DeleteResourcePersister extends AbstractPersister {
             objectSession.delete(ocflSubPath);
         }
     }
+
+    private static void removeContainment(final OCFLPersistentStorageSession session, final String resourceId)
+            throws PersistentStorageException {
+        final var containmentIndex = session.getContainmentIndex();
+        if (containmentIndex != null) {
+            final var parentId = session.getHeaders(resourceId, null).getParent();
+            if (parentId != null) {
+                containmentIndex.removeContainedBy(session.getId(), parentId, resourceId);
+            }
+        }
+    }
 }
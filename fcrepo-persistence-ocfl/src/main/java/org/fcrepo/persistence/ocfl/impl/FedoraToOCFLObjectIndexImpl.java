@@ -22,29 +22,28 @@ import org.fcrepo.persistence.ocfl.api.FedoraOCFLMappingNotFoundException;
 import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An simple in-memory implementation of the {@link org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex}
  *
+ * Lookups are lock-free reads of a concurrent map; only appends to the on-disk index file are serialized.
+ *
  * @author dbernstein
  * @since 6.0.0
  */
-@Component
 public class FedoraToOCFLObjectIndexImpl implements FedoraToOCFLObjectIndex {
 
     private static Logger LOGGER = LoggerFactory.getLogger(FedoraToOCFLObjectIndexImpl.class);
 
-    private Map<String, FedoraOCFLMapping> fedoraOCFLMappingMap = Collections.synchronizedMap(new HashMap<>());
+    private final Map<String, FedoraOCFLMapping> fedoraOCFLMappingMap = new ConcurrentHashMap<>();
 
     /**
      * Constructor.
@@ -58,14 +57,10 @@ public class FedoraToOCFLObjectIndexImpl implements FedoraToOCFLObjectIndex {
      */
     public FedoraToOCFLObjectIndexImpl() throws IOException {
         if (FEDORA_TO_OCFL_INDEX_FILE.exists() && FEDORA_TO_OCFL_INDEX_FILE.canRead()) {
-            Files.lines(FEDORA_TO_OCFL_INDEX_FILE.toPath()).filter(l -> {
-                final String m = l.split("\t")[0];
-                return (!fedoraOCFLMappingMap.containsKey(m));
-            }).forEach(l -> {
+            Files.lines(FEDORA_TO_OCFL_INDEX_FILE.toPath()).forEach(l -> {
                 final String[] map = l.split("\t");
                 if (map.length == 3) {
-                    final FedoraOCFLMapping ocflMapping = new FedoraOCFLMapping(map[1], map[2]);
-                    fedoraOCFLMappingMap.put(map[0], ocflMapping);
+                    fedoraOCFLMappingMap.putIfAbsent(map[0], new FedoraOCFLMapping(map[1], map[2]));
                 } else {
                     LOGGER.warn("Expected 3 tab-separated values, found {}. Ignoring line.", map.length);
                 }
@@ -90,12 +85,15 @@ public class FedoraToOCFLObjectIndexImpl implements FedoraToOCFLObjectIndex {
     public FedoraOCFLMapping addMapping(final String fedoraResourceIdentifier,
                                         final String fedoraRootObjectResourceId,
                                         final String ocflObjectId) {
-        FedoraOCFLMapping mapping = fedoraOCFLMappingMap.get(fedoraRootObjectResourceId);
+        final FedoraOCFLMapping newMapping = new FedoraOCFLMapping(fedoraRootObjectResourceId, ocflObjectId);
+        final FedoraOCFLMapping existing = fedoraOCFLMappingMap.putIfAbsent(fedoraRootObjectResourceId, newMapping);
+        final FedoraOCFLMapping mapping;
 
-        if (mapping == null) {
-            mapping = new FedoraOCFLMapping(fedoraRootObjectResourceId, ocflObjectId);
-            fedoraOCFLMappingMap.put(fedoraRootObjectResourceId, mapping);
+        if (existing == null) {
+            mapping = newMapping;
             writeMappingToDisk(fedoraRootObjectResourceId, mapping);
+        } else {
+            mapping = existing;
         }
 
         if (!fedoraResourceIdentifier.equals(fedoraRootObjectResourceId)) {
@@ -108,11 +106,11 @@ public class FedoraToOCFLObjectIndexImpl implements FedoraToOCFLObjectIndex {
     }
 
     /**
-     * Write any added mappings to the on-disk index.
+     * Write any added mappings to the on-disk index. Synchronized so that concurrent appends do not interleave.
      * @param fedoraId The internal Fedora identifier.
      * @param fedoraOCFLMapping The Fedora to OCFL mapping object.
      */
-    private void writeMappingToDisk(final String fedoraId, final FedoraOCFLMapping fedoraOCFLMapping) {
+    private synchronized void writeMappingToDisk(final String fedoraId, final FedoraOCFLMapping fedoraOCFLMapping) {
         try {
             if (!FEDORA_TO_OCFL_INDEX_FILE.exists()) {
                 final File dir = FEDORA_TO_OCFL_INDEX_FILE.getParentFile();
@@ -130,7 +128,7 @@ public class FedoraToOCFLObjectIndexImpl implements FedoraToOCFLObjectIndex {
     }
 
     @Override
-    public void reset() {
+    public synchronized void reset() {
         fedoraOCFLMappingMap.clear();
         if (FEDORA_TO_OCFL_INDEX_FILE.exists()) {
             FEDORA_TO_OCFL_INDEX_FILE.delete();
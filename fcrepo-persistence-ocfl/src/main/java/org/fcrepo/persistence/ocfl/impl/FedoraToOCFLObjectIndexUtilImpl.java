@@ -18,25 +18,64 @@
 package org.fcrepo.persistence.ocfl.impl;
 
 import edu.wisc.library.ocfl.api.OcflRepository;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.kernel.api.ReferenceIndex;
 import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
 import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
 import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex;
 import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndexUtil;
 import org.fcrepo.persistence.ocfl.api.OCFLObjectSessionFactory;
+import org.fcrepo.persistence.ocfl.api.RebuildableIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+import static org.fcrepo.kernel.api.RdfLexicon.DIRECT_CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.INDIRECT_CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.NON_RDF_SOURCE;
 import static org.fcrepo.persistence.common.ResourceHeaderSerializationUtils.deserializeHeaders;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_REBUILD_CHECKPOINT_FILE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_REBUILD_THREADS;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getRDFFileExtension;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getSidecarSubpath;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.isSidecarSubpath;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.readTriples;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.relativizeSubpath;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.resolveOCFLSubpath;
 
 /**
  * An implementation of {@link FedoraToOCFLObjectIndexUtil}
  *
+ * The containment index is rebuilt alongside the Fedora to OCFL index, from the parent recorded in the headers of
+ * each resource, and the reference index from the RDF of each RDF source. Once every object has been indexed, the
+ * membership index is rebuilt from the children of the Direct and Indirect Containers found while indexing. Each
+ * index which is a {@link RebuildableIndex} is then marked as populated.
+ *
+ * OCFL objects are indexed in parallel by a {@link CheckpointedObjectWalker}, which records its progress in a
+ * checkpoint file once the indexes have been flushed, and the id of each container found is appended to a containers
+ * file alongside it; both are removed once the rebuild completes. If the checkpoint file is present when a rebuild
+ * starts, the previous rebuild was interrupted: the index is not reset, objects recorded in the checkpoint are
+ * skipped, and the containers found in them are read back from the containers file. The rebuild stops at the first
+ * object which fails.
+ *
  * @author dbernstein
  * @since 6.0.0
  */
@@ -54,45 +93,179 @@ public class FedoraToOCFLObjectIndexUtilImpl implements FedoraToOCFLObjectIndexU
     @Inject
     private OcflRepository ocflRepository;
 
+    @Inject
+    private ContainmentIndex containmentIndex;
+
+    @Inject
+    private MembershipIndex membershipIndex;
+
+    @Inject
+    private ReferenceIndex referenceIndex;
+
+    private int threads = FEDORA_TO_OCFL_INDEX_REBUILD_THREADS;
+
+    private File checkpointFile = FEDORA_TO_OCFL_INDEX_REBUILD_CHECKPOINT_FILE;
+
     @Override
     public void rebuild() {
+        final var walker = new CheckpointedObjectWalker("index rebuild", ocflRepository, threads, checkpointFile,
+                true);
+        final Set<String> membershipContainers = ConcurrentHashMap.newKeySet();
+        if (walker.isResuming()) {
+            membershipContainers.addAll(readContainers());
+        } else {
+            fedoraToOCFLObjectIndex.reset();
+            containmentIndex.reset();
+            membershipIndex.reset();
+            referenceIndex.reset();
+        }
 
-        LOGGER.info("Initiating index rebuild.");
-        fedoraToOCFLObjectIndex.reset();
-        LOGGER.debug("Reading object ids...");
-        try (final var ocflIds = ocflRepository.listObjectIds()) {
-            ocflIds.forEach(ocflId -> {
-                LOGGER.debug("Reading {}", ocflId);
-                final var objSession = objectSessionFactory.create(ocflId, null);
-
-                //list all the subpaths
-                try (final var subpaths = objSession.listHeadSubpaths()) {
-
-                    //but first resolve the root identifier
-                    final var sidecarSubpath = getSidecarSubpath(ocflId);
-                    final var rootHeaders = deserializeHeaders(objSession.read(sidecarSubpath));
-                    final var fedoraRootIdentifier = rootHeaders.getId();
-
-                    subpaths.forEach(subpath -> {
-                        if (isSidecarSubpath(subpath)) {
-                            //we're only interested in sidecar subpaths
-                            try {
-                                final var headers = deserializeHeaders(objSession.read(subpath));
-                                final var fedoraIdentifier = headers.getId();
-                                fedoraToOCFLObjectIndex.addMapping(fedoraIdentifier, fedoraRootIdentifier, ocflId);
-                                LOGGER.debug("Rebuilt fedora-to-ocfl object index entry for {}", fedoraIdentifier);
-                            } catch (PersistentStorageException e) {
-                                throw new RepositoryRuntimeException(format("fedora-to-ocfl index rebuild failed: %s",
-                                        e.getMessage()), e);
-                            }
+        final Map<String, RuntimeException> failures;
+        try (final var containers = openContainers()) {
+            failures = walker.walk(ocflId -> indexObject(ocflId, containerId -> {
+                if (membershipContainers.add(containerId)) {
+                    writeContainer(containers, containerId);
+                }
+            }), () -> rebuildableIndexes().forEach(RebuildableIndex::flush));
+        } catch (final IOException e) {
+            throw new RepositoryRuntimeException("Failed to write index rebuild containers: " + e.getMessage(), e);
+        }
+
+        if (!failures.isEmpty()) {
+            throw failures.values().iterator().next();
+        }
+
+        rebuildMembership(membershipContainers);
+
+        rebuildableIndexes().forEach(RebuildableIndex::markPopulated);
+        walker.complete();
+        containersFile().delete();
+        LOGGER.info("Index rebuild complete");
+    }
+
+    @Override
+    public boolean hasUnpopulatedIndex() {
+        return rebuildableIndexes().anyMatch(index -> !index.isPopulated());
+    }
+
+    private Stream<RebuildableIndex> rebuildableIndexes() {
+        return Stream.of(fedoraToOCFLObjectIndex, containmentIndex, membershipIndex, referenceIndex)
+                .filter(RebuildableIndex.class::isInstance)
+                .map(RebuildableIndex.class::cast);
+    }
+
+    /**
+     * Index the resources of an OCFL object, passing the id of each Direct or Indirect Container to the given
+     * consumer.
+     */
+    private void indexObject(final String ocflId, final Consumer<String> membershipContainers) {
+        LOGGER.debug("Reading {}", ocflId);
+        final var objSession = objectSessionFactory.create(ocflId, null);
+
+        //list all the subpaths
+        try (final var subpaths = objSession.listHeadSubpaths()) {
+
+            //but first resolve the root identifier
+            final var sidecarSubpath = getSidecarSubpath(ocflId);
+            final var rootHeaders = deserializeHeaders(objSession.read(sidecarSubpath));
+            final var fedoraRootIdentifier = rootHeaders.getId();
+
+            subpaths.forEach(subpath -> {
+                if (isSidecarSubpath(subpath)) {
+                    //we're only interested in sidecar subpaths
+                    try {
+                        final var headers = deserializeHeaders(objSession.read(subpath));
+                        final var fedoraIdentifier = headers.getId();
+                        fedoraToOCFLObjectIndex.addMapping(fedoraIdentifier, fedoraRootIdentifier, ocflId);
+                        if (headers.getParent() != null) {
+                            containmentIndex.addContainedBy(null, headers.getParent(), fedoraIdentifier);
                         }
-                    });
-                } catch (final PersistentStorageException e) {
-                    throw new RepositoryRuntimeException("Failed to rebuild fedora-to-ocfl index: " +
-                            e.getMessage(), e);
+                        if (DIRECT_CONTAINER.getURI().equals(headers.getInteractionModel()) ||
+                                INDIRECT_CONTAINER.getURI().equals(headers.getInteractionModel())) {
+                            membershipContainers.accept(fedoraIdentifier);
+                        }
+                        if (!NON_RDF_SOURCE.getURI().equals(headers.getInteractionModel())) {
+                            final var rdfSubpath = resolveOCFLSubpath(fedoraRootIdentifier,
+                                    relativizeSubpath(fedoraRootIdentifier, fedoraIdentifier)) +
+                                    getRDFFileExtension();
+                            referenceIndex.setReferences(null, fedoraIdentifier,
+                                    readTriples(objSession, rdfSubpath, null).stream()
+                                            .filter(t -> AbstractPersister.isReference(fedoraIdentifier, t))
+                                            .collect(toList()));
+                        }
+                        LOGGER.debug("Rebuilt fedora-to-ocfl object index entry for {}", fedoraIdentifier);
+                    } catch (PersistentStorageException e) {
+                        throw new RepositoryRuntimeException(format("fedora-to-ocfl index rebuild failed: %s",
+                                e.getMessage()), e);
+                    }
                 }
             });
+        } catch (final PersistentStorageException e) {
+            throw new RepositoryRuntimeException("Failed to rebuild fedora-to-ocfl index: " +
+                    e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute the membership generated by the children of each container, which requires every resource to be
+     * present in the Fedora to OCFL index.
+     */
+    private void rebuildMembership(final Set<String> membershipContainers) {
+        final var session = new OCFLPersistentStorageSession(fedoraToOCFLObjectIndex, objectSessionFactory);
+        for (final String containerId : membershipContainers) {
+            final List<String> children = containmentIndex.getContainedBy(null, containerId, null, -1)
+                    .collect(toList());
+            for (final String childId : children) {
+                try {
+                    membershipIndex.setMembership(null, childId,
+                            AbstractPersister.computeMembership(session, containerId, childId));
+                } catch (final PersistentStorageException e) {
+                    throw new RepositoryRuntimeException(format("membership index rebuild failed for %s: %s",
+                            childId, e.getMessage()), e);
+                }
+            }
+        }
+        LOGGER.info("Rebuilt membership of {} containers", membershipContainers.size());
+    }
+
+    private Set<String> readContainers() {
+        final Set<String> containers = new HashSet<>();
+        if (containersFile().exists()) {
+            try (final var lines = Files.lines(containersFile().toPath())) {
+                lines.forEach(containers::add);
+            } catch (final IOException e) {
+                throw new RepositoryRuntimeException("Failed to read index rebuild containers: " + e.getMessage(),
+                        e);
+            }
+        }
+        return containers;
+    }
+
+    /**
+     * The file listing the Direct and Indirect Containers found by an interrupted rebuild.
+     */
+    private File containersFile() {
+        return new File(checkpointFile.getPath() + ".containers");
+    }
+
+    private BufferedWriter openContainers() throws IOException {
+        final File dir = checkpointFile.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        return new BufferedWriter(new FileWriter(containersFile(), true));
+    }
+
+    private static void writeContainer(final BufferedWriter containers, final String containerId) {
+        synchronized (containers) {
+            try {
+                containers.write(containerId);
+                containers.newLine();
+                containers.flush();
+            } catch (final IOException e) {
+                throw new RepositoryRuntimeException("Failed to write index rebuild containers: " + e.getMessage(),
+                        e);
+            }
         }
-        LOGGER.info("Index rebuild complete");
     }
 }
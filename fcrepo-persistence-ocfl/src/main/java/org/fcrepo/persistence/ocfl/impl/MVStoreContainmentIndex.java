@@ -0,0 +1,142 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.SEPARATOR;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.key;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.lastPart;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.openStore;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.setPopulated;
+
+import com.google.common.collect.Streams;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.persistence.ocfl.api.RebuildableIndex;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ContainmentIndex} backed by an embedded, on-disk H2 MVStore B-tree.
+ *
+ * Each containment relationship is stored as a single key made of the parent and child identifiers, so the children
+ * of a parent form a contiguous, ordered range of keys. Listing walks that range with a cursor, holding only the
+ * pages it touches in memory, and can start at any child.
+ *
+ * The repository root is persisted as its own parent, so a resource is never recorded, or listed, as containing
+ * itself.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class MVStoreContainmentIndex implements ContainmentIndex, RebuildableIndex, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreContainmentIndex.class);
+
+    private static final String MAP_NAME = "containment";
+
+    private final MVStore store;
+
+    private final MVStoreTransactionalKeySet containment;
+
+    /**
+     * Constructor
+     *
+     * @param storeFile The file backing the store, created if it does not exist.
+     * @param cacheSizeMb The size of the in-memory page cache in MB.
+     */
+    public MVStoreContainmentIndex(final File storeFile, final int cacheSizeMb) {
+        this.store = openStore(storeFile, cacheSizeMb);
+        this.containment = new MVStoreTransactionalKeySet(store, MAP_NAME);
+        LOGGER.info("Opened containment index store {} with {} entries", storeFile, containment.size());
+    }
+
+    @Override
+    public Stream<String> getContainedBy(final String txId, final String parentId, final String afterId,
+                                         final int limit) {
+        final String prefix = parentId + SEPARATOR;
+        // the separator sorts the child itself before any identifier which follows it
+        final String from = afterId == null ? prefix : key(parentId, afterId, "");
+
+        final Stream<String> children = Streams.stream(containment.iterator(txId, prefix, from))
+                .map(key -> key.substring(prefix.length()))
+                .filter(childId -> !childId.equals(parentId));
+        return limit < 0 ? children : children.limit(limit);
+    }
+
+    @Override
+    public void addContainedBy(final String txId, final String parentId, final String childId) {
+        if (parentId.equals(childId)) {
+            return;
+        }
+        containment.add(txId, key(parentId, childId));
+        LOGGER.debug("added containment of {} by {} in {}", childId, parentId, txId);
+    }
+
+    @Override
+    public void removeContainedBy(final String txId, final String parentId, final String childId) {
+        containment.remove(txId, key(parentId, childId));
+        LOGGER.debug("removed containment of {} by {} in {}", childId, parentId, txId);
+    }
+
+    @Override
+    public void commitTransaction(final String txId, final Predicate<String> resourceFilter) {
+        // a containment is recorded on behalf of the contained resource
+        containment.commit(txId, key -> resourceFilter.test(lastPart(key)));
+    }
+
+    @Override
+    public void rollbackTransaction(final String txId) {
+        containment.rollback(txId);
+    }
+
+    @Override
+    public void reset() {
+        setPopulated(store, false);
+        containment.clear();
+        store.commit();
+    }
+
+    @Override
+    public boolean isPopulated() {
+        return MVStoreTransactionalKeySet.isPopulated(store);
+    }
+
+    @Override
+    public void markPopulated() {
+        setPopulated(store, true);
+    }
+
+    @Override
+    public void flush() {
+        store.commit();
+    }
+
+    /**
+     * Flush any buffered writes and close the underlying store.
+     */
+    @Override
+    public void close() {
+        if (!store.isClosed()) {
+            store.close();
+        }
+    }
+}
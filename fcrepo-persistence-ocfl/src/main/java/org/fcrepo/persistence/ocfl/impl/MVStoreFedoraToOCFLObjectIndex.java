@@ -0,0 +1,151 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.setPopulated;
+
+import org.fcrepo.persistence.ocfl.api.FedoraOCFLMappingNotFoundException;
+import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex;
+import org.fcrepo.persistence.ocfl.api.RebuildableIndex;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/**
+ * A {@link org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex} backed by an embedded, on-disk H2 MVStore
+ * B-tree. Only the pages touched by lookups are held in memory (bounded by the store's page cache), so neither heap
+ * usage nor startup time grows with the number of mappings. Writes are buffered by the store and flushed in batches
+ * by its background commit thread.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class MVStoreFedoraToOCFLObjectIndex implements FedoraToOCFLObjectIndex, RebuildableIndex, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreFedoraToOCFLObjectIndex.class);
+
+    private static final String MAP_NAME = "fedoraToOcfl";
+
+    private static final char SEPARATOR = '\t';
+
+    /**
+     * Maximum delay in milliseconds before buffered writes are committed to disk.
+     */
+    private static final int AUTO_COMMIT_DELAY_MS = 1000;
+
+    private final MVStore store;
+
+    private final MVMap<String, String> fedoraOCFLMappingMap;
+
+    /**
+     * Constructor
+     *
+     * Each entry maps a fedora identifier to the fedora root object identifier and OCFL object identifier, stored
+     * as a single tab-separated value.
+     *
+     * @param storeFile The file backing the store, created if it does not exist.
+     * @param cacheSizeMb The size of the in-memory page cache in MB.
+     */
+    public MVStoreFedoraToOCFLObjectIndex(final File storeFile, final int cacheSizeMb) {
+        final File dir = storeFile.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        this.store = new MVStore.Builder()
+                .fileName(storeFile.getAbsolutePath())
+                .cacheSize(cacheSizeMb)
+                .open();
+        this.store.setAutoCommitDelay(AUTO_COMMIT_DELAY_MS);
+        this.fedoraOCFLMappingMap = store.openMap(MAP_NAME);
+        LOGGER.info("Opened fedora-to-ocfl index store {} with {} entries", storeFile, fedoraOCFLMappingMap.size());
+    }
+
+    @Override
+    public FedoraOCFLMapping getMapping(final String fedoraResourceIdentifier)
+            throws FedoraOCFLMappingNotFoundException {
+
+        LOGGER.debug("getting {}", fedoraResourceIdentifier);
+        final String value = fedoraOCFLMappingMap.get(fedoraResourceIdentifier);
+        if (value == null) {
+            throw new FedoraOCFLMappingNotFoundException(fedoraResourceIdentifier);
+        }
+
+        return decode(value);
+    }
+
+    @Override
+    public FedoraOCFLMapping addMapping(final String fedoraResourceIdentifier,
+                                        final String fedoraRootObjectResourceId,
+                                        final String ocflObjectId) {
+        final String encoded = encode(fedoraRootObjectResourceId, ocflObjectId);
+        final String existing = fedoraOCFLMappingMap.putIfAbsent(fedoraRootObjectResourceId, encoded);
+        final String rootValue = existing == null ? encoded : existing;
+
+        if (!fedoraResourceIdentifier.equals(fedoraRootObjectResourceId)) {
+            fedoraOCFLMappingMap.put(fedoraResourceIdentifier, rootValue);
+        }
+
+        final FedoraOCFLMapping mapping = decode(rootValue);
+        LOGGER.debug("added mapping {} for {}", mapping, fedoraResourceIdentifier);
+        return mapping;
+    }
+
+    @Override
+    public void reset() {
+        setPopulated(store, false);
+        fedoraOCFLMappingMap.clear();
+        store.commit();
+    }
+
+    @Override
+    public boolean isPopulated() {
+        return MVStoreTransactionalKeySet.isPopulated(store);
+    }
+
+    @Override
+    public void markPopulated() {
+        setPopulated(store, true);
+    }
+
+    @Override
+    public void flush() {
+        store.commit();
+    }
+
+    /**
+     * Flush any buffered writes and close the underlying store.
+     */
+    @Override
+    public void close() {
+        if (!store.isClosed()) {
+            store.close();
+        }
+    }
+
+    private static String encode(final String rootObjectIdentifier, final String ocflObjectId) {
+        return rootObjectIdentifier + SEPARATOR + ocflObjectId;
+    }
+
+    private static FedoraOCFLMapping decode(final String value) {
+        final int separator = value.indexOf(SEPARATOR);
+        return new FedoraOCFLMapping(value.substring(0, separator), value.substring(separator + 1));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.SEPARATOR;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.firstPart;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.key;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.lastPart;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.openStore;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.setPopulated;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Streams;
+import org.apache.jena.graph.Triple;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.persistence.ocfl.api.RebuildableIndex;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link MembershipIndex} backed by an embedded, on-disk H2 MVStore B-tree.
+ *
+ * Each membership triple is stored as a key made of its subject, predicate, object and the proxy which generates
+ * it, so the membership of a subject forms a contiguous, ordered range of keys which is walked with a cursor. A
+ * second set of keys, led by the proxy, finds the triples to replace when a proxy or its container changes.
+ * Membership objects are resource identifiers and are returned as URI nodes.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class MVStoreMembershipIndex implements MembershipIndex, RebuildableIndex, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreMembershipIndex.class);
+
+    private static final String MEMBERSHIP_MAP_NAME = "membership";
+
+    private static final String PROXY_MAP_NAME = "membershipByProxy";
+
+    /**
+     * Sorts after the separator, so a key built with it follows every key of the triple it is appended to.
+     */
+    private static final String AFTER_SEPARATOR = "\u0001";
+
+    private final MVStore store;
+
+    private final MVStoreTransactionalKeySet membership;
+
+    private final MVStoreTransactionalKeySet byProxy;
+
+    /**
+     * Constructor
+     *
+     * @param storeFile The file backing the store, created if it does not exist.
+     * @param cacheSizeMb The size of the in-memory page cache in MB.
+     */
+    public MVStoreMembershipIndex(final File storeFile, final int cacheSizeMb) {
+        this.store = openStore(storeFile, cacheSizeMb);
+        this.membership = new MVStoreTransactionalKeySet(store, MEMBERSHIP_MAP_NAME);
+        this.byProxy = new MVStoreTransactionalKeySet(store, PROXY_MAP_NAME);
+        LOGGER.info("Opened membership index store {} with {} entries", storeFile, membership.size());
+    }
+
+    @Override
+    public Stream<Triple> getMembership(final String txId, final String subjectId, final Triple after,
+                                        final int limit) {
+        final String prefix = subjectId + SEPARATOR;
+        final String from = after == null ? prefix : key(subjectId, after.getPredicate().getURI(),
+                after.getObject().getURI()) + AFTER_SEPARATOR;
+
+        // a triple generated by more than one proxy is stored once per proxy, but only returned once
+        final var keys = Iterators.peekingIterator(membership.iterator(txId, prefix, from));
+        final var triples = Streams.stream(keys).map(MVStoreMembershipIndex::withoutProxy)
+                .filter(triple -> !keys.hasNext() || !triple.equals(withoutProxy(keys.peek())))
+                .map(MVStoreMembershipIndex::toTriple);
+        return limit < 0 ? triples : triples.limit(limit);
+    }
+
+    @Override
+    public void setMembership(final String txId, final String proxyId, final Collection<Triple> triples) {
+        final Set<String> current = new HashSet<>();
+        for (final Triple triple : triples) {
+            current.add(key(triple.getSubject().getURI(), triple.getPredicate().getURI(),
+                    triple.getObject().getURI()));
+        }
+
+        final String prefix = proxyId + SEPARATOR;
+        final List<String> previous = new ArrayList<>();
+        byProxy.iterator(txId, prefix, prefix)
+                .forEachRemaining(proxyKey -> previous.add(proxyKey.substring(prefix.length())));
+
+        for (final String triple : previous) {
+            if (!current.remove(triple)) {
+                membership.remove(txId, key(triple, proxyId));
+                byProxy.remove(txId, key(proxyId, triple));
+            }
+        }
+        for (final String triple : current) {
+            membership.add(txId, key(triple, proxyId));
+            byProxy.add(txId, key(proxyId, triple));
+        }
+        LOGGER.debug("set {} membership triples generated by {} in {}", triples.size(), proxyId, txId);
+    }
+
+    @Override
+    public void commitTransaction(final String txId, final Predicate<String> resourceFilter) {
+        membership.commit(txId, key -> resourceFilter.test(lastPart(key)));
+        byProxy.commit(txId, key -> resourceFilter.test(firstPart(key)));
+    }
+
+    @Override
+    public void rollbackTransaction(final String txId) {
+        membership.rollback(txId);
+        byProxy.rollback(txId);
+    }
+
+    @Override
+    public void reset() {
+        setPopulated(store, false);
+        membership.clear();
+        byProxy.clear();
+        store.commit();
+    }
+
+    @Override
+    public boolean isPopulated() {
+        return MVStoreTransactionalKeySet.isPopulated(store);
+    }
+
+    @Override
+    public void markPopulated() {
+        setPopulated(store, true);
+    }
+
+    @Override
+    public void flush() {
+        store.commit();
+    }
+
+    /**
+     * Flush any buffered writes and close the underlying store.
+     */
+    @Override
+    public void close() {
+        if (!store.isClosed()) {
+            store.close();
+        }
+    }
+
+    /**
+     * Strip the proxy from a membership key, leaving the subject, predicate and object of the triple.
+     */
+    private static String withoutProxy(final String membershipKey) {
+        return membershipKey.substring(0, membershipKey.lastIndexOf(SEPARATOR));
+    }
+
+    private static Triple toTriple(final String tripleKey) {
+        final String[] parts = tripleKey.split(String.valueOf(SEPARATOR), 3);
+        return Triple.create(createURI(parts[0]), createURI(parts[1]), createURI(parts[2]));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.SEPARATOR;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.firstPart;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.key;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.lastPart;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.openStore;
+import static org.fcrepo.persistence.ocfl.impl.MVStoreTransactionalKeySet.setPopulated;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Streams;
+import org.apache.jena.graph.Triple;
+import org.fcrepo.kernel.api.ReferenceIndex;
+import org.fcrepo.persistence.ocfl.api.RebuildableIndex;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ReferenceIndex} backed by an embedded, on-disk H2 MVStore B-tree.
+ *
+ * Each reference is stored twice: keyed by its object, so the inbound references of a resource form a contiguous,
+ * ordered range of keys which is walked with a cursor, and keyed by the resource stating it, so the references of a
+ * resource can be diffed against its new triples when it is updated. Only references between URIs are recorded.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class MVStoreReferenceIndex implements ReferenceIndex, RebuildableIndex, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MVStoreReferenceIndex.class);
+
+    private static final String INBOUND_MAP_NAME = "inbound";
+
+    private static final String OUTBOUND_MAP_NAME = "outbound";
+
+    private final MVStore store;
+
+    private final MVStoreTransactionalKeySet inbound;
+
+    private final MVStoreTransactionalKeySet outbound;
+
+    /**
+     * Constructor
+     *
+     * @param storeFile The file backing the store, created if it does not exist.
+     * @param cacheSizeMb The size of the in-memory page cache in MB.
+     */
+    public MVStoreReferenceIndex(final File storeFile, final int cacheSizeMb) {
+        this.store = openStore(storeFile, cacheSizeMb);
+        this.inbound = new MVStoreTransactionalKeySet(store, INBOUND_MAP_NAME);
+        this.outbound = new MVStoreTransactionalKeySet(store, OUTBOUND_MAP_NAME);
+        LOGGER.info("Opened reference index store {} with {} entries", storeFile, inbound.size());
+    }
+
+    @Override
+    public Stream<Triple> getInboundReferences(final String txId, final String targetId, final int limit) {
+        final String prefix = targetId + SEPARATOR;
+
+        // a triple stated by more than one resource is stored once per resource, but only returned once
+        final var keys = Iterators.peekingIterator(inbound.iterator(txId, prefix, prefix));
+        final var triples = Streams.stream(keys).map(MVStoreReferenceIndex::withoutResource)
+                .filter(triple -> !keys.hasNext() || !triple.equals(withoutResource(keys.peek())))
+                .map(MVStoreReferenceIndex::toTriple);
+        return limit < 0 ? triples : triples.limit(limit);
+    }
+
+    @Override
+    public void setReferences(final String txId, final String resourceId, final Collection<Triple> references) {
+        final Set<String> current = new HashSet<>();
+        for (final Triple triple : references) {
+            if (triple.getSubject().isURI() && triple.getObject().isURI()) {
+                current.add(key(triple.getSubject().getURI(), triple.getPredicate().getURI(),
+                        triple.getObject().getURI()));
+            }
+        }
+
+        final String prefix = resourceId + SEPARATOR;
+        final List<String> previous = new ArrayList<>();
+        outbound.iterator(txId, prefix, prefix)
+                .forEachRemaining(outboundKey -> previous.add(outboundKey.substring(prefix.length())));
+
+        for (final String triple : previous) {
+            if (!current.remove(triple)) {
+                inbound.remove(txId, inboundKey(triple, resourceId));
+                outbound.remove(txId, key(resourceId, triple));
+            }
+        }
+        for (final String triple : current) {
+            inbound.add(txId, inboundKey(triple, resourceId));
+            outbound.add(txId, key(resourceId, triple));
+        }
+        LOGGER.debug("set {} references stated by {} in {}", references.size(), resourceId, txId);
+    }
+
+    @Override
+    public void commitTransaction(final String txId, final Predicate<String> resourceFilter) {
+        inbound.commit(txId, key -> resourceFilter.test(lastPart(key)));
+        outbound.commit(txId, key -> resourceFilter.test(firstPart(key)));
+    }
+
+    @Override
+    public void rollbackTransaction(final String txId) {
+        inbound.rollback(txId);
+        outbound.rollback(txId);
+    }
+
+    @Override
+    public void reset() {
+        setPopulated(store, false);
+        inbound.clear();
+        outbound.clear();
+        store.commit();
+    }
+
+    @Override
+    public boolean isPopulated() {
+        return MVStoreTransactionalKeySet.isPopulated(store);
+    }
+
+    @Override
+    public void markPopulated() {
+        setPopulated(store, true);
+    }
+
+    @Override
+    public void flush() {
+        store.commit();
+    }
+
+    /**
+     * Flush any buffered writes and close the underlying store.
+     */
+    @Override
+    public void close() {
+        if (!store.isClosed()) {
+            store.close();
+        }
+    }
+
+    /**
+     * Reorder a triple key of subject, predicate and object so that it leads with the object, followed by the
+     * resource stating it.
+     */
+    private static String inboundKey(final String tripleKey, final String resourceId) {
+        final String[] parts = tripleKey.split(String.valueOf(SEPARATOR), 3);
+        return key(parts[2], parts[0], parts[1], resourceId);
+    }
+
+    /**
+     * Strip the resource stating a reference from an inbound key, leaving the object, subject and predicate.
+     */
+    private static String withoutResource(final String inboundKey) {
+        return inboundKey.substring(0, inboundKey.lastIndexOf(SEPARATOR));
+    }
+
+    private static Triple toTriple(final String inboundKey) {
+        final String[] parts = inboundKey.split(String.valueOf(SEPARATOR), 3);
+        return Triple.create(createURI(parts[1]), createURI(parts[2]), createURI(parts[0]));
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+/**
+ * An ordered set of string keys held in a map of an on-disk H2 MVStore, the shared storage of the indexes kept by
+ * the OCFL persistence layer.
+ *
+ * Keys added or removed within a transaction are held in memory until the transaction commits, and are merged into
+ * iterations made within that transaction. Iteration walks the stored keys with a cursor, so only the pages it
+ * touches are held in memory.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+class MVStoreTransactionalKeySet {
+
+    /**
+     * Separates the parts of a composite key. It sorts before any character of an identifier, so keys sharing a
+     * leading part are contiguous.
+     */
+    static final char SEPARATOR = '\u0000';
+
+    /**
+     * Maximum delay in milliseconds before buffered writes are committed to disk.
+     */
+    private static final int AUTO_COMMIT_DELAY_MS = 1000;
+
+    private static final String PRESENT = "";
+
+    /**
+     * Map of a store holding its status, kept apart from the maps of the index itself.
+     */
+    private static final String STATUS_MAP_NAME = "status";
+
+    private static final String POPULATED = "populated";
+
+    private final MVMap<String, String> map;
+
+    private final Map<String, TransactionChanges> transactions = new ConcurrentHashMap<>();
+
+    /**
+     * Keys added or removed within a transaction and not yet committed
+     */
+    private static class TransactionChanges {
+        final NavigableSet<String> added = new ConcurrentSkipListSet<>();
+        final Set<String> removed = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Constructor
+     *
+     * @param store the store holding the keys
+     * @param mapName the name of the map within the store
+     */
+    MVStoreTransactionalKeySet(final MVStore store, final String mapName) {
+        this.map = store.openMap(mapName);
+    }
+
+    /**
+     * Open a store, creating it if it does not exist
+     *
+     * @param storeFile the file backing the store
+     * @param cacheSizeMb the size of the in-memory page cache in MB
+     * @return the store
+     */
+    static MVStore openStore(final File storeFile, final int cacheSizeMb) {
+        final File dir = storeFile.getParentFile();
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+        final MVStore store = new MVStore.Builder()
+                .fileName(storeFile.getAbsolutePath())
+                .cacheSize(cacheSizeMb)
+                .open();
+        store.setAutoCommitDelay(AUTO_COMMIT_DELAY_MS);
+        return store;
+    }
+
+    /**
+     * @param store the store of an index
+     * @return whether a rebuild has populated the index held in the store
+     */
+    static boolean isPopulated(final MVStore store) {
+        return store.<String, String>openMap(STATUS_MAP_NAME).containsKey(POPULATED);
+    }
+
+    /**
+     * Record whether a rebuild has populated the index held in a store, committing the store so that the status
+     * is not ahead of the index on disk.
+     *
+     * @param store the store of an index
+     * @param populated whether the index is populated
+     */
+    static void setPopulated(final MVStore store, final boolean populated) {
+        final MVMap<String, String> status = store.openMap(STATUS_MAP_NAME);
+        if (populated) {
+            status.put(POPULATED, PRESENT);
+        } else {
+            status.remove(POPULATED);
+        }
+        store.commit();
+    }
+
+    /**
+     * Join the parts of a composite key
+     *
+     * @param parts the parts
+     * @return the key
+     */
+    static String key(final String... parts) {
+        return String.join(String.valueOf(SEPARATOR), parts);
+    }
+
+    /**
+     * Iterate over keys in order, as seen by a transaction
+     *
+     * @param txId the transaction, or null to only see committed keys
+     * @param prefix only keys starting with this prefix are returned
+     * @param from the first key to return, or the first key after it if it is not present
+     * @return the keys
+     */
+    Iterator<String> iterator(final String txId, final String prefix, final String from) {
+        final Iterator<String> committed = inRange(map.keyIterator(from), prefix);
+        final TransactionChanges changes = txId == null ? null : transactions.get(txId);
+        if (changes == null) {
+            return committed;
+        }
+        return new MergingIterator(Iterators.filter(committed, key -> !changes.removed.contains(key)),
+                inRange(changes.added.tailSet(from).iterator(), prefix));
+    }
+
+    /**
+     * @param txId the transaction, or null to apply the change immediately
+     * @param key the key to add
+     */
+    void add(final String txId, final String key) {
+        if (txId == null) {
+            map.put(key, PRESENT);
+        } else {
+            final TransactionChanges changes = transactions.computeIfAbsent(txId, k -> new TransactionChanges());
+            changes.removed.remove(key);
+            changes.added.add(key);
+        }
+    }
+
+    /**
+     * @param txId the transaction, or null to apply the change immediately
+     * @param key the key to remove
+     */
+    void remove(final String txId, final String key) {
+        if (txId == null) {
+            map.remove(key);
+        } else {
+            final TransactionChanges changes = transactions.computeIfAbsent(txId, k -> new TransactionChanges());
+            changes.added.remove(key);
+            changes.removed.add(key);
+        }
+    }
+
+    /**
+     * Apply the changes of a transaction to the stored keys
+     *
+     * @param txId the transaction
+     */
+    void commit(final String txId) {
+        commit(txId, key -> true);
+    }
+
+    /**
+     * Apply the changes of a transaction to the matching stored keys, and discard the rest
+     *
+     * @param txId the transaction
+     * @param keyFilter matches the keys whose changes are applied
+     */
+    void commit(final String txId, final Predicate<String> keyFilter) {
+        final TransactionChanges changes = transactions.remove(txId);
+        if (changes != null) {
+            changes.removed.stream().filter(keyFilter).forEach(map::remove);
+            changes.added.stream().filter(keyFilter).forEach(key -> map.put(key, PRESENT));
+        }
+    }
+
+    /**
+     * @param key a composite key
+     * @return the first part of the key
+     */
+    static String firstPart(final String key) {
+        final int separator = key.indexOf(SEPARATOR);
+        return separator < 0 ? key : key.substring(0, separator);
+    }
+
+    /**
+     * @param key a composite key
+     * @return the last part of the key
+     */
+    static String lastPart(final String key) {
+        return key.substring(key.lastIndexOf(SEPARATOR) + 1);
+    }
+
+    /**
+     * Discard the changes of a transaction
+     *
+     * @param txId the transaction
+     */
+    void rollback(final String txId) {
+        transactions.remove(txId);
+    }
+
+    /**
+     * Remove all stored keys
+     */
+    void clear() {
+        map.clear();
+    }
+
+    /**
+     * @return the number of stored keys
+     */
+    long size() {
+        return map.sizeAsLong();
+    }
+
+    /**
+     * Limit an ordered iterator of keys to those starting with the prefix, stopping at the first which does not.
+     */
+    private static Iterator<String> inRange(final Iterator<String> keys, final String prefix) {
+        final PeekingIterator<String> peeking = Iterators.peekingIterator(keys);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return peeking.hasNext() && peeking.peek().startsWith(prefix);
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return peeking.next();
+            }
+        };
+    }
+
+    /**
+     * Merges two ordered iterators of keys, dropping duplicates
+     */
+    private static class MergingIterator implements Iterator<String> {
+
+        private final PeekingIterator<String> first;
+
+        private final PeekingIterator<String> second;
+
+        MergingIterator(final Iterator<String> first, final Iterator<String> second) {
+            this.first = Iterators.peekingIterator(first);
+            this.second = Iterators.peekingIterator(second);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return first.hasNext() || second.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (!first.hasNext()) {
+                return second.next();
+            }
+            if (!second.hasNext()) {
+                return first.next();
+            }
+            final int comparison = first.peek().compareTo(second.peek());
+            if (comparison == 0) {
+                second.next();
+            }
+            return comparison <= 0 ? first.next() : second.next();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running latency statistics for committing individual OCFL objects.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class OCFLCommitStats {
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Record the commit of a single OCFL object.
+     *
+     * @param nanos the time taken to commit the object, in nanoseconds
+     */
+    void record(final long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * @return the number of OCFL objects committed
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the mean time taken to commit an OCFL object, in milliseconds
+     */
+    public double getMeanMillis() {
+        final long n = count.sum();
+        return n == 0 ? 0 : (double) NANOSECONDS.toMicros(totalNanos.sum()) / n / 1000;
+    }
+
+    /**
+     * @return the longest time taken to commit an OCFL object, in milliseconds
+     */
+    public double getMaxMillis() {
+        return (double) NANOSECONDS.toMicros(maxNanos.get()) / 1000;
+    }
+}
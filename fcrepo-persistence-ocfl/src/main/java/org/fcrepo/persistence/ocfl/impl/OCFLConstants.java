@@ -36,6 +36,97 @@ public final class OCFLConstants {
     public static final File OCFL_WORK_DIR = resolveDir("fcrepo.ocfl.work.dir");
     public static final File FEDORA_TO_OCFL_INDEX_FILE = new File(OCFL_WORK_DIR.toString() + File.separator +
             "fedoraToOcflIndex.tsv");
+    public static final File FEDORA_TO_OCFL_INDEX_STORE = new File(OCFL_WORK_DIR.toString() + File.separator +
+            "fedoraToOcflIndex.mv.db");
+    public static final File FEDORA_TO_OCFL_INDEX_REBUILD_CHECKPOINT_FILE = new File(OCFL_WORK_DIR.toString() +
+            File.separator + "fedoraToOcflIndex.rebuild");
+    public static final File CONTAINMENT_INDEX_STORE = new File(OCFL_WORK_DIR.toString() + File.separator +
+            "containmentIndex.mv.db");
+    public static final File MEMBERSHIP_INDEX_STORE = new File(OCFL_WORK_DIR.toString() + File.separator +
+            "membershipIndex.mv.db");
+    public static final File REFERENCE_INDEX_STORE = new File(OCFL_WORK_DIR.toString() + File.separator +
+            "referenceIndex.mv.db");
+    public static final File FIXITY_AUDIT_CHECKPOINT_FILE = new File(OCFL_WORK_DIR.toString() + File.separator +
+            "fixityAudit.checkpoint");
+
+    /**
+     * Number of worker threads used to rebuild the Fedora to OCFL index.
+     */
+    public static final int FEDORA_TO_OCFL_INDEX_REBUILD_THREADS = Integer.parseInt(getProperty(
+            "fcrepo.ocfl.index.rebuild.threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+    /**
+     * The FedoraToOCFLObjectIndex implementation to use: "tsv" (in-memory map backed by an append-only file) or
+     * "mvstore" (embedded on-disk B-tree store).
+     */
+    public static final String FEDORA_TO_OCFL_INDEX_TYPE = getProperty("fcrepo.ocfl.index.type", "tsv");
+    public static final String FEDORA_TO_OCFL_INDEX_TYPE_MVSTORE = "mvstore";
+
+    /**
+     * Size in MB of the in-memory page cache used by the on-disk index store.
+     */
+    public static final int FEDORA_TO_OCFL_INDEX_CACHE_MB =
+            Integer.parseInt(getProperty("fcrepo.ocfl.index.cache.mb", "16"));
+
+    /**
+     * Maximum number of committed resource headers cached for read-only sessions.
+     */
+    public static final long HEADERS_CACHE_SIZE = Long.parseLong(getProperty("fcrepo.ocfl.headers.cache.size",
+            "10000"));
+
+    /**
+     * Maximum total number of triples held in the cache of parsed committed RDF shared by read-only sessions.
+     */
+    public static final long RDF_CACHE_MAX_TRIPLES = Long.parseLong(getProperty("fcrepo.ocfl.rdf.cache.triples",
+            "1000000"));
+
+    /**
+     * Maximum total number of versions held in the cache of OCFL object version timelines shared by read-only
+     * sessions.
+     */
+    public static final long VERSION_TIMELINE_CACHE_MAX_VERSIONS = Long.parseLong(
+            getProperty("fcrepo.ocfl.version.cache.versions", "1000000"));
+
+    /**
+     * Number of threads used to commit the OCFL objects of a session in parallel. 1 commits serially.
+     */
+    public static final int COMMIT_THREADS = Integer.parseInt(getProperty("fcrepo.ocfl.commit.threads", "1"));
+
+    /**
+     * Files up to this many bytes are staged in memory rather than on disk, while the session's memory budget allows.
+     */
+    public static final int STAGING_MEMORY_THRESHOLD = Integer.parseInt(getProperty(
+            "fcrepo.ocfl.staging.memory.threshold", "65536"));
+
+    /**
+     * Maximum number of bytes an OCFL object session may stage in memory.
+     */
+    public static final long STAGING_MEMORY_BUDGET = Long.parseLong(getProperty(
+            "fcrepo.ocfl.staging.memory.budget", "1048576"));
+
+    /**
+     * Enables the periodic background audit of the fixity of all OCFL objects.
+     */
+    public static final boolean FIXITY_AUDIT_ENABLED = Boolean.parseBoolean(getProperty(
+            "fcrepo.ocfl.fixity.audit.enabled", "false"));
+
+    /**
+     * Hours between the end of one fixity audit pass and the start of the next.
+     */
+    public static final long FIXITY_AUDIT_INTERVAL_HOURS = Long.parseLong(getProperty(
+            "fcrepo.ocfl.fixity.audit.interval.hours", "168"));
+
+    /**
+     * Number of OCFL objects audited concurrently.
+     */
+    public static final int FIXITY_AUDIT_THREADS = Integer.parseInt(getProperty(
+            "fcrepo.ocfl.fixity.audit.threads", "1"));
+
+    /**
+     * Maximum rate in bytes per second at which content is read by the fixity audit, 0 for no limit.
+     */
+    public static final long FIXITY_AUDIT_BYTES_PER_SECOND = Long.parseLong(getProperty(
+            "fcrepo.ocfl.fixity.audit.bytes.per.second", "10485760"));
 
     /**
      * Return the system property key path as file or a file of the temporary directory + "system property key"
@@ -52,6 +143,17 @@ public final class OCFLConstants {
         }
     }
 
+    /**
+     * Return the on-disk file holding the Fedora to OCFL index for the configured index type.
+     * @return The index file
+     */
+    public static File getFedoraToOCFLIndexFile() {
+        if (FEDORA_TO_OCFL_INDEX_TYPE_MVSTORE.equals(FEDORA_TO_OCFL_INDEX_TYPE)) {
+            return FEDORA_TO_OCFL_INDEX_STORE;
+        }
+        return FEDORA_TO_OCFL_INDEX_FILE;
+    }
+
     private OCFLConstants() {
         // This method left intentionally blank.
     }
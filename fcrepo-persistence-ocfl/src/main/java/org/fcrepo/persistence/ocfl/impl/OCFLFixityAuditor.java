@@ -0,0 +1,251 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FIXITY_AUDIT_BYTES_PER_SECOND;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FIXITY_AUDIT_CHECKPOINT_FILE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FIXITY_AUDIT_ENABLED;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FIXITY_AUDIT_INTERVAL_HOURS;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FIXITY_AUDIT_THREADS;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.util.concurrent.RateLimiter;
+import edu.wisc.library.ocfl.api.OcflRepository;
+import edu.wisc.library.ocfl.api.exception.FixityCheckException;
+import edu.wisc.library.ocfl.api.model.ObjectVersionId;
+import org.fcrepo.kernel.api.exception.RepositoryRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically verifies the content of every version of every OCFL object in the repository against the digests
+ * recorded in its inventory.
+ *
+ * Objects are audited concurrently by a {@link CheckpointedObjectWalker}, and content is read no faster than the
+ * configured bandwidth limit so that the audit does not compete with user requests. Each audited object is recorded
+ * in a checkpoint file, which is removed once a pass completes, so an audit interrupted by a restart resumes where it
+ * left off. Failures are logged, counted and posted to the internal event bus as
+ * {@link OCFLFixityFailureEvent}s.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+@Component
+public class OCFLFixityAuditor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OCFLFixityAuditor.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Inject
+    private OcflRepository ocflRepository;
+
+    @Inject
+    private Optional<EventBus> eventBus;
+
+    private int threads = FIXITY_AUDIT_THREADS;
+
+    private long bytesPerSecond = FIXITY_AUDIT_BYTES_PER_SECOND;
+
+    private File checkpointFile = FIXITY_AUDIT_CHECKPOINT_FILE;
+
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong objectsAudited = new AtomicLong();
+
+    private final AtomicLong filesAudited = new AtomicLong();
+
+    private final AtomicLong bytesAudited = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Instant lastCompleted;
+
+    /**
+     * Schedule the audit, if enabled
+     */
+    @PostConstruct
+    public void start() {
+        if (!FIXITY_AUDIT_ENABLED) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "ocfl-fixity-audit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // start promptly if a previous pass was interrupted, otherwise wait for a full interval
+        final long initialDelay = checkpointFile.exists() ? 0 : FIXITY_AUDIT_INTERVAL_HOURS;
+        scheduler.scheduleWithFixedDelay(this::runAudit, initialDelay, FIXITY_AUDIT_INTERVAL_HOURS, TimeUnit.HOURS);
+        LOGGER.info("Fixity audit scheduled every {} hours, limited to {} bytes/s on {} threads",
+                FIXITY_AUDIT_INTERVAL_HOURS, bytesPerSecond, threads);
+    }
+
+    /**
+     * Stop any scheduled or running audit
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void runAudit() {
+        try {
+            audit();
+        } catch (final RuntimeException e) {
+            // keep the schedule alive, the next pass resumes from the checkpoint
+            LOGGER.error("Fixity audit failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Perform a single pass over all OCFL objects, resuming from the checkpoint of an interrupted pass. Objects which
+     * could not be audited are left out of the checkpoint, and the pass is left incomplete so that they are retried
+     * when the next pass resumes.
+     */
+    public void audit() {
+        final var rateLimiter = bytesPerSecond > 0 ? RateLimiter.create(bytesPerSecond) : null;
+        final var walker = new CheckpointedObjectWalker("fixity audit", ocflRepository, threads, checkpointFile,
+                false);
+        final long failuresBefore = failures.get();
+
+        final var incomplete = walker.walk(ocflId -> {
+            auditObject(ocflId, rateLimiter);
+            objectsAudited.incrementAndGet();
+        });
+
+        if (!incomplete.isEmpty()) {
+            LOGGER.warn("Fixity audit incomplete: {} objects could not be audited and will be retried",
+                    incomplete.size());
+            return;
+        }
+        walker.complete();
+        lastCompleted = Instant.now();
+        LOGGER.info("Fixity audit complete: {} failures", failures.get() - failuresBefore);
+    }
+
+    /**
+     * Audit every file of every version of an object, reporting each fixity failure. Content which is carried
+     * forward unchanged between versions is stored once, so each stored file is only read once.
+     *
+     * @throws RepositoryRuntimeException if the object, or any of its files, could not be read
+     */
+    private void auditObject(final String ocflId, final RateLimiter rateLimiter) {
+        LOGGER.debug("Auditing {}", ocflId);
+        final var versionIds = ocflRepository.describeObject(ocflId).getVersionMap().keySet();
+        final Set<String> auditedPaths = new HashSet<>();
+        int unreadable = 0;
+        for (final var versionId : versionIds) {
+            final var objectVersion = ocflRepository.getObject(ObjectVersionId.version(ocflId,
+                    versionId.toString()));
+            for (final var file : objectVersion.getFiles()) {
+                if (!auditedPaths.add(file.getStorageRelativePath())) {
+                    continue;
+                }
+                final var subpath = file.getPath();
+                try (final var stream = file.getStream()) {
+                    bytesAudited.addAndGet(consume(stream, rateLimiter));
+                    stream.checkFixity();
+                    filesAudited.incrementAndGet();
+                } catch (final FixityCheckException e) {
+                    reportFailure(ocflId, subpath, e.getMessage());
+                } catch (final IOException | RuntimeException e) {
+                    reportFailure(ocflId, subpath, "Unable to read content: " + e.getMessage());
+                    unreadable++;
+                }
+            }
+        }
+        if (unreadable > 0) {
+            throw new RepositoryRuntimeException("Unable to read " + unreadable + " files of " + ocflId);
+        }
+    }
+
+    private static long consume(final InputStream stream, final RateLimiter rateLimiter) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            if (rateLimiter != null && read > 0) {
+                rateLimiter.acquire(read);
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private void reportFailure(final String ocflId, final String subpath, final String message) {
+        failures.incrementAndGet();
+        final var event = new OCFLFixityFailureEvent(ocflId, subpath, message);
+        LOGGER.error("{}", event);
+        eventBus.ifPresent(bus -> bus.post(event));
+    }
+
+    /**
+     * @return the number of objects audited since startup
+     */
+    public long getObjectsAudited() {
+        return objectsAudited.get();
+    }
+
+    /**
+     * @return the number of files whose fixity was verified since startup
+     */
+    public long getFilesAudited() {
+        return filesAudited.get();
+    }
+
+    /**
+     * @return the number of bytes of content read by the audit since startup
+     */
+    public long getBytesAudited() {
+        return bytesAudited.get();
+    }
+
+    /**
+     * @return the number of files which failed the audit since startup
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * @return the time the last complete audit pass finished, or null if none has completed since startup
+     */
+    public Instant getLastCompleted() {
+        return lastCompleted;
+    }
+}
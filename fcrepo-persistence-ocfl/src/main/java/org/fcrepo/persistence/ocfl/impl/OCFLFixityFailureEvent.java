@@ -0,0 +1,73 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+/**
+ * Posted to the internal event bus when the fixity audit finds a file whose content does not match the digest
+ * recorded in the inventory of its OCFL object, or which could not be read.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class OCFLFixityFailureEvent {
+
+    private final String ocflId;
+
+    private final String subpath;
+
+    private final String message;
+
+    /**
+     * Constructor
+     *
+     * @param ocflId the id of the OCFL object
+     * @param subpath the path of the file within the OCFL object
+     * @param message a description of the failure
+     */
+    public OCFLFixityFailureEvent(final String ocflId, final String subpath, final String message) {
+        this.ocflId = ocflId;
+        this.subpath = subpath;
+        this.message = message;
+    }
+
+    /**
+     * @return the id of the OCFL object
+     */
+    public String getOcflId() {
+        return ocflId;
+    }
+
+    /**
+     * @return the path of the file within the OCFL object
+     */
+    public String getSubpath() {
+        return subpath;
+    }
+
+    /**
+     * @return a description of the failure
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "Fixity failure in " + ocflId + "/" + subpath + ": " + message;
+    }
+}
@@ -18,11 +18,22 @@
 package org.fcrepo.persistence.ocfl.impl;
 
 import edu.wisc.library.ocfl.api.MutableOcflRepository;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.kernel.api.ReferenceIndex;
+import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.CONTAINMENT_INDEX_STORE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_CACHE_MB;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_STORE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_TYPE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDEX_TYPE_MVSTORE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.MEMBERSHIP_INDEX_STORE;
 import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.OCFL_STORAGE_ROOT_DIR;
 import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.OCFL_WORK_DIR;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.REFERENCE_INDEX_STORE;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.createRepository;
 
 /**
@@ -43,4 +54,43 @@ public class OCFLPersistenceConfig {
     public MutableOcflRepository repository() {
         return createRepository(OCFL_STORAGE_ROOT_DIR, OCFL_WORK_DIR);
     }
-}
\ No newline at end of file
+
+    /**
+     * Create the Fedora to OCFL index, selected by the fcrepo.ocfl.index.type system property.
+     * @return the index
+     */
+    @Bean
+    public FedoraToOCFLObjectIndex fedoraToOCFLObjectIndex() {
+        if (FEDORA_TO_OCFL_INDEX_TYPE_MVSTORE.equals(FEDORA_TO_OCFL_INDEX_TYPE)) {
+            return new MVStoreFedoraToOCFLObjectIndex(FEDORA_TO_OCFL_INDEX_STORE, FEDORA_TO_OCFL_INDEX_CACHE_MB);
+        }
+        return new FedoraToOCFLObjectIndexImpl();
+    }
+
+    /**
+     * Create the containment index, stored alongside the Fedora to OCFL index.
+     * @return the index
+     */
+    @Bean
+    public ContainmentIndex containmentIndex() {
+        return new MVStoreContainmentIndex(CONTAINMENT_INDEX_STORE, FEDORA_TO_OCFL_INDEX_CACHE_MB);
+    }
+
+    /**
+     * Create the membership index of Direct and Indirect Containers, stored alongside the Fedora to OCFL index.
+     * @return the index
+     */
+    @Bean
+    public MembershipIndex membershipIndex() {
+        return new MVStoreMembershipIndex(MEMBERSHIP_INDEX_STORE, FEDORA_TO_OCFL_INDEX_CACHE_MB);
+    }
+
+    /**
+     * Create the index of inbound references, stored alongside the Fedora to OCFL index.
+     * @return the index
+     */
+    @Bean
+    public ReferenceIndex referenceIndex() {
+        return new MVStoreReferenceIndex(REFERENCE_INDEX_STORE, FEDORA_TO_OCFL_INDEX_CACHE_MB);
+    }
+}
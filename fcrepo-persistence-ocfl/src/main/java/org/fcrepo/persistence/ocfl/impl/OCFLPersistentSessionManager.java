@@ -17,19 +17,36 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import com.google.common.cache.CacheStats;
+import org.apache.jena.graph.Triple;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.kernel.api.ReferenceIndex;
+import org.fcrepo.kernel.api.models.ResourceHeaders;
 import org.fcrepo.persistence.api.PersistentStorageSession;
 import org.fcrepo.persistence.api.PersistentStorageSessionManager;
+import org.fcrepo.persistence.api.exceptions.PersistentStorageException;
 import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex;
 import org.fcrepo.persistence.ocfl.api.OCFLObjectSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import javax.inject.Inject;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.HEADERS_CACHE_SIZE;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.RDF_CACHE_MAX_TRIPLES;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.VERSION_TIMELINE_CACHE_MAX_VERSIONS;
 
 /**
  * OCFL implementation of PersistentStorageSessionManager
  *
+ * Transactional sessions are created along with their transaction and held until the transaction ends, when the
+ * transaction manager releases them.
+ *
  * @author whikloj
  * @author dbernstein
  * @since 2019-09-20
@@ -37,9 +54,20 @@ import java.util.Map;
 @Component
 public class OCFLPersistentSessionManager implements PersistentStorageSessionManager {
 
-    private PersistentStorageSession readOnlySession;
+    private static final Logger LOGGER = LoggerFactory.getLogger(OCFLPersistentSessionManager.class);
+
+    private volatile PersistentStorageSession readOnlySession;
+
+    private final ConcurrentMap<String, OCFLPersistentStorageSession> sessions = new ConcurrentHashMap<>();
+
+    private final CommittedObjectCache<ResourceHeaders> headersCache =
+            new CommittedObjectCache<>(HEADERS_CACHE_SIZE);
+
+    private final CommittedObjectCache<List<Triple>> rdfCache =
+            new CommittedObjectCache<>(RDF_CACHE_MAX_TRIPLES, List::size);
 
-    private Map<String, PersistentStorageSession> sessionMap;
+    private final CommittedObjectCache<OCFLVersionTimeline> versionTimelineCache =
+            new CommittedObjectCache<>(VERSION_TIMELINE_CACHE_MAX_VERSIONS, OCFLVersionTimeline::size);
 
     @Inject
     private OCFLObjectSessionFactory objectSessionFactory;
@@ -47,38 +75,117 @@ public class OCFLPersistentSessionManager implements PersistentStorageSessionMan
     @Inject
     private FedoraToOCFLObjectIndex fedoraOcflIndex;
 
+    @Inject
+    private ContainmentIndex containmentIndex;
+
+    @Inject
+    private MembershipIndex membershipIndex;
+
+    @Inject
+    private ReferenceIndex referenceIndex;
+
     /**
      * Default constructor
      */
     public OCFLPersistentSessionManager() {
-        this.sessionMap = new HashMap<>();
     }
 
     @Override
-    public PersistentStorageSession getSession(final String sessionId) {
+    public PersistentStorageSession createSession(final String sessionId) {
 
         if (sessionId == null) {
             throw new IllegalArgumentException("session id must be non-null");
         }
 
-        final PersistentStorageSession session = sessionMap.get(sessionId);
+        final var session = new OCFLPersistentStorageSession(sessionId,
+                fedoraOcflIndex,
+                objectSessionFactory,
+                headersCache,
+                rdfCache,
+                versionTimelineCache,
+                containmentIndex,
+                membershipIndex,
+                referenceIndex);
+        if (sessions.putIfAbsent(sessionId, session) != null) {
+            throw new IllegalStateException("Session " + sessionId + " already exists");
+        }
+        return session;
+    }
+
+    @Override
+    public PersistentStorageSession getSession(final String sessionId) {
 
-        if (session != null) {
-            return session;
+        if (sessionId == null) {
+            throw new IllegalArgumentException("session id must be non-null");
         }
 
-        final PersistentStorageSession newSession = new OCFLPersistentStorageSession(sessionId,
-                fedoraOcflIndex,
-                objectSessionFactory);
-        sessionMap.put(sessionId, newSession);
-        return newSession;
+        final var session = sessions.get(sessionId);
+        if (session == null) {
+            throw new IllegalStateException("No session found with id " + sessionId);
+        }
+        return session;
+    }
+
+    @Override
+    public void releaseSession(final String sessionId) {
+        final var session = sessions.remove(sessionId);
+        if (session == null || session.isComplete()) {
+            return;
+        }
+        // the transaction ended without resolving its session, so release the staged changes
+        LOGGER.warn("Rolling back unresolved session {}", sessionId);
+        try {
+            session.rollback();
+        } catch (final PersistentStorageException | RuntimeException e) {
+            LOGGER.warn("Failed to roll back unresolved session {}: {}", sessionId, e.getMessage());
+        }
     }
 
     @Override
     public PersistentStorageSession getReadOnlySession() {
         if (this.readOnlySession == null) {
-            this.readOnlySession = new OCFLPersistentStorageSession(fedoraOcflIndex, objectSessionFactory);
+            synchronized (this) {
+                if (this.readOnlySession == null) {
+                    this.readOnlySession = new OCFLPersistentStorageSession(fedoraOcflIndex, objectSessionFactory,
+                            headersCache, rdfCache, versionTimelineCache);
+                }
+            }
         }
         return this.readOnlySession;
     }
+
+    /**
+     * @return the number of open transactional sessions
+     */
+    public long getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return hit and miss statistics of the cache of committed resource headers
+     */
+    public CacheStats getHeadersCacheStats() {
+        return headersCache.stats();
+    }
+
+    /**
+     * @return latency statistics for the commit of individual OCFL objects
+     */
+    public OCFLCommitStats getCommitStats() {
+        return OCFLPersistentStorageSession.getCommitStats();
+    }
+
+    /**
+     * @return hit and miss statistics of the cache of parsed committed RDF
+     */
+    public CacheStats getRdfCacheStats() {
+        return rdfCache.stats();
+    }
+
+    /**
+     * @return hit and miss statistics of the cache of OCFL object version timelines
+     */
+    public CacheStats getVersionTimelineCacheStats() {
+        return versionTimelineCache.stats();
+    }
 }
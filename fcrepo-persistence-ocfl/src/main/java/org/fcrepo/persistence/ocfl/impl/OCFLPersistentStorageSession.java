@@ -18,8 +18,9 @@
 package org.fcrepo.persistence.ocfl.impl;
 
 import static java.lang.String.format;
+import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.COMMIT_THREADS;
+import static org.apache.jena.graph.NodeFactory.createURI;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getSidecarSubpath;
-import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.resolveVersionId;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getBinaryStream;
 
 import java.io.InputStream;
@@ -29,8 +30,16 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import org.apache.jena.graph.Triple;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.kernel.api.ReferenceIndex;
 import org.fcrepo.kernel.api.RdfStream;
+import org.fcrepo.kernel.api.TransactionalIndex;
+import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.fcrepo.kernel.api.models.ResourceHeaders;
 import org.fcrepo.kernel.api.operations.ResourceOperation;
 import org.fcrepo.persistence.api.CommitOption;
@@ -47,16 +56,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getRDFFileExtension;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getRdfStream;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.readTriples;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.relativizeSubpath;
 
 import static org.fcrepo.persistence.api.CommitOption.NEW_VERSION;
 import static org.fcrepo.persistence.common.ResourceHeaderSerializationUtils.deserializeHeaders;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.resolveOCFLSubpath;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.resolveTopic;
 
 /**
  * OCFL Persistent Storage class.
@@ -87,6 +106,36 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
 
     private OCFLObjectSessionFactory objectSessionFactory;
 
+    private final CommittedObjectCache<ResourceHeaders> headersCache;
+
+    private final CommittedObjectCache<List<Triple>> rdfCache;
+
+    private final CommittedObjectCache<OCFLVersionTimeline> versionTimelineCache;
+
+    // Index of containment relationships, updated by the persisters within this session, may be null
+    private final ContainmentIndex containmentIndex;
+
+    // Index of membership triples, updated by the persisters within this session, may be null
+    private final MembershipIndex membershipIndex;
+
+    // Index of references between resources, updated by the persisters within this session, may be null
+    private final ReferenceIndex referenceIndex;
+
+    // The indexes above which are present, whose changes are resolved along with the session
+    private final List<TransactionalIndex> indexes;
+
+    // Version timelines of the OCFL objects read by this session, which do not change until the session commits
+    private final Map<String, OCFLVersionTimeline> versionTimelines = new ConcurrentHashMap<>();
+
+    /*
+     * Shared pool on which the OCFL objects of a session are committed when parallel commits are enabled,
+     * otherwise null.
+     */
+    private static final ExecutorService COMMIT_EXECUTOR = COMMIT_THREADS > 1 ?
+            Executors.newFixedThreadPool(COMMIT_THREADS, new CommitThreadFactory()) : null;
+
+    private static final OCFLCommitStats COMMIT_STATS = new OCFLCommitStats();
+
     private static Comparator<OCFLObjectSession> CREATION_TIME_ORDER =
             (OCFLObjectSession o1, OCFLObjectSession o2)->o1.getCreated().compareTo(o2.getCreated());
 
@@ -101,6 +150,17 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         }
     }
 
+    private static class CommitThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "ocfl-commit-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     private enum State {
         COMMIT_NOT_STARTED,
         COMMIT_STARTED,
@@ -118,12 +178,32 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
      * @param sessionId            session id.
      * @param fedoraOcflIndex      the index
      * @param objectSessionFactory the session factory
+     * @param headersCache         cache of committed resource headers, shared between sessions
+     * @param rdfCache             cache of parsed committed RDF, shared between sessions
+     * @param versionTimelineCache cache of OCFL object version timelines, shared between sessions
+     * @param containmentIndex     index of containment relationships, may be null
+     * @param membershipIndex      index of membership triples, may be null
+     * @param referenceIndex       index of references between resources, may be null
      */
     protected OCFLPersistentStorageSession(final String sessionId, final FedoraToOCFLObjectIndex fedoraOcflIndex,
-                                           final OCFLObjectSessionFactory objectSessionFactory) {
+                                           final OCFLObjectSessionFactory objectSessionFactory,
+                                           final CommittedObjectCache<ResourceHeaders> headersCache,
+                                           final CommittedObjectCache<List<Triple>> rdfCache,
+                                           final CommittedObjectCache<OCFLVersionTimeline> versionTimelineCache,
+                                           final ContainmentIndex containmentIndex,
+                                           final MembershipIndex membershipIndex,
+                                           final ReferenceIndex referenceIndex) {
         this.sessionId = sessionId;
+        this.containmentIndex = containmentIndex;
+        this.membershipIndex = membershipIndex;
+        this.referenceIndex = referenceIndex;
+        this.indexes = Stream.of(containmentIndex, membershipIndex, referenceIndex).filter(Objects::nonNull)
+                .collect(Collectors.toList());
         this.fedoraOcflIndex = fedoraOcflIndex;
         this.objectSessionFactory = objectSessionFactory;
+        this.headersCache = headersCache;
+        this.rdfCache = rdfCache;
+        this.versionTimelineCache = versionTimelineCache;
         this.sessionMap = new ConcurrentHashMap<>();
 
         //load the persister list if empty
@@ -135,6 +215,38 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
 
     }
 
+    /**
+     * Constructor
+     *
+     * @param sessionId            session id.
+     * @param fedoraOcflIndex      the index
+     * @param objectSessionFactory the session factory
+     * @param headersCache         cache of committed resource headers, shared between sessions
+     * @param rdfCache             cache of parsed committed RDF, shared between sessions
+     * @param versionTimelineCache cache of OCFL object version timelines, shared between sessions
+     */
+    protected OCFLPersistentStorageSession(final String sessionId, final FedoraToOCFLObjectIndex fedoraOcflIndex,
+                                           final OCFLObjectSessionFactory objectSessionFactory,
+                                           final CommittedObjectCache<ResourceHeaders> headersCache,
+                                           final CommittedObjectCache<List<Triple>> rdfCache,
+                                           final CommittedObjectCache<OCFLVersionTimeline> versionTimelineCache) {
+        this(sessionId, fedoraOcflIndex, objectSessionFactory, headersCache, rdfCache, versionTimelineCache, null,
+                null, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param sessionId            session id.
+     * @param fedoraOcflIndex      the index
+     * @param objectSessionFactory the session factory
+     */
+    protected OCFLPersistentStorageSession(final String sessionId, final FedoraToOCFLObjectIndex fedoraOcflIndex,
+                                           final OCFLObjectSessionFactory objectSessionFactory) {
+        this(sessionId, fedoraOcflIndex, objectSessionFactory, new CommittedObjectCache<>(0),
+                new CommittedObjectCache<>(0), new CommittedObjectCache<>(0));
+    }
+
     /**
      * Constructor
      *
@@ -146,6 +258,23 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         this(null, fedoraOcflIndex, objectSessionFactory);
     }
 
+    /**
+     * Constructor
+     *
+     * @param fedoraOcflIndex      the index
+     * @param objectSessionFactory the session factory
+     * @param headersCache         cache of committed resource headers, shared between sessions
+     * @param rdfCache             cache of parsed committed RDF, shared between sessions
+     * @param versionTimelineCache cache of OCFL object version timelines, shared between sessions
+     */
+    protected OCFLPersistentStorageSession(final FedoraToOCFLObjectIndex fedoraOcflIndex,
+                                           final OCFLObjectSessionFactory objectSessionFactory,
+                                           final CommittedObjectCache<ResourceHeaders> headersCache,
+                                           final CommittedObjectCache<List<Triple>> rdfCache,
+                                           final CommittedObjectCache<OCFLVersionTimeline> versionTimelineCache) {
+        this(null, fedoraOcflIndex, objectSessionFactory, headersCache, rdfCache, versionTimelineCache);
+    }
+
     @Override
     public String getId() {
         return this.sessionId;
@@ -205,10 +334,21 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         final var fedoraSubpath = relativizeSubpath(rootIdentifier, identifier);
         final var ocflSubpath = resolveOCFLSubpath(rootIdentifier, fedoraSubpath);
         final var sidecarSubpath = getSidecarSubpath(ocflSubpath);
+        final var versionId = resolveVersionId(mapping.getOcflObjectId(), objSession, version);
+
+        if (isReadOnly()) {
+            // read-only sessions only see committed state, which may be shared between sessions
+            return headersCache.get(mapping.getOcflObjectId(), sidecarSubpath, versionId,
+                    () -> readHeaders(objSession, sidecarSubpath, versionId));
+        }
 
+        return readHeaders(objSession, sidecarSubpath, versionId);
+    }
+
+    private static ResourceHeaders readHeaders(final OCFLObjectSession objSession, final String sidecarSubpath,
+                                               final String versionId) throws PersistentStorageException {
         final InputStream headerStream;
-        if (version != null) {
-            final var versionId = resolveVersionId(objSession, version);
+        if (versionId != null) {
             headerStream = objSession.read(sidecarSubpath, versionId);
         } else {
             headerStream = objSession.read(sidecarSubpath);
@@ -236,7 +376,58 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         final var fedoraSubpath = relativizeSubpath(rootIdentifier, identifier);
         final var ocflSubpath = resolveOCFLSubpath(rootIdentifier, fedoraSubpath);
         final var filePath = ocflSubpath + getRDFFileExtension();
-        return getRdfStream(identifier, objSession, filePath, version);
+
+        final var versionId = resolveVersionId(mapping.getOcflObjectId(), objSession, version);
+        if (isReadOnly()) {
+            final var triples = rdfCache.get(mapping.getOcflObjectId(), filePath, versionId,
+                    () -> readTriples(objSession, filePath, versionId));
+            return new DefaultRdfStream(createURI(resolveTopic(identifier)), triples.stream());
+        }
+
+        return getRdfStream(identifier, objSession, filePath, versionId);
+    }
+
+    /**
+     * Resolve a memento datetime to the id of the OCFL version created within the same second.
+     *
+     * @param ocflId the OCFL object id
+     * @param objSession the session of the OCFL object
+     * @param version the memento datetime, or null for the head state
+     * @return the OCFL version id, or null if the version is null
+     * @throws PersistentStorageException if there is no matching version
+     */
+    private String resolveVersionId(final String ocflId, final OCFLObjectSession objSession, final Instant version)
+            throws PersistentStorageException {
+        if (version == null) {
+            return null;
+        }
+        return OCFLPersistentStorageUtils.resolveVersionId(getVersionTimeline(ocflId, objSession), objSession,
+                version);
+    }
+
+    /**
+     * Get the version timeline of an OCFL object, which read-only sessions share through the timeline cache and
+     * other sessions retain until they commit.
+     *
+     * @param ocflId the OCFL object id
+     * @param objSession the session of the OCFL object
+     * @return the version timeline
+     * @throws PersistentStorageException if the versions of the object could not be read
+     */
+    OCFLVersionTimeline getVersionTimeline(final String ocflId, final OCFLObjectSession objSession)
+            throws PersistentStorageException {
+        if (isReadOnly()) {
+            return versionTimelineCache.get(ocflId, "", null,
+                    () -> new OCFLVersionTimeline(objSession.listVersions()));
+        }
+
+        final var cached = versionTimelines.get(ocflId);
+        if (cached != null) {
+            return cached;
+        }
+        final var timeline = new OCFLVersionTimeline(objSession.listVersions());
+        versionTimelines.put(ocflId, timeline);
+        return timeline;
     }
 
     /**
@@ -249,7 +440,7 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
     List<Instant> listVersions(final String fedoraIdentifier) throws PersistentStorageException {
         final FedoraOCFLMapping mapping = getFedoraOCFLMapping(fedoraIdentifier);
         final OCFLObjectSession objSession = findOrCreateSession(mapping.getOcflObjectId());
-        return OCFLPersistentStorageUtils.listVersions(objSession);
+        return getVersionTimeline(mapping.getOcflObjectId(), objSession).getVersions();
     }
 
     @Override
@@ -263,7 +454,8 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         final var fedoraSubpath = relativizeSubpath(rootIdentifier, identifier);
         final var ocflSubpath = resolveOCFLSubpath(rootIdentifier, fedoraSubpath);
 
-        return getBinaryStream(objSession, ocflSubpath, version);
+        return getBinaryStream(objSession, ocflSubpath,
+                resolveVersionId(mapping.getOcflObjectId(), objSession, version));
     }
 
     @Override
@@ -284,7 +476,7 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         //prepare session for commit
         final List<OCFLObjectSession> sessions = new ArrayList<>(this.sessionMap.values());
 
-        //order in order of session creation time. (supports testing)
+        //order in order of session creation time. (supports testing; not preserved by parallel commits)
         Collections.sort(sessions, CREATION_TIME_ORDER);
 
         try {
@@ -301,14 +493,15 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         }
 
         try {
-            this.sessionsToRollback = new ArrayList<>(sessions.size());
-
+            this.sessionsToRollback = Collections.synchronizedList(new ArrayList<>(sessions.size()));
 
             //perform commit
-            for (final OCFLObjectSession objectSession : sessions) {
-                final CommitOption option = objectSession.getDefaultCommitOption();
-                objectSession.commit(option);
-                sessionsToRollback.add(new CommittedSession(objectSession, option));
+            if (COMMIT_EXECUTOR == null || sessions.size() < 2) {
+                for (final OCFLObjectSession objectSession : sessions) {
+                    commitObjectSession(objectSession);
+                }
+            } else {
+                commitObjectSessionsInParallel(sessions);
             }
 
             state = State.COMMITTED;
@@ -316,7 +509,58 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         } catch (final Exception e) {
             this.state = State.COMMIT_FAILED;
             throw new PersistentStorageException("Commit failed due to : " + e.getMessage(), e);
+        } finally {
+            //committed state of these objects may have changed, even if the commit failed part way through
+            headersCache.invalidate(this.sessionMap.keySet());
+            rdfCache.invalidate(this.sessionMap.keySet());
+            versionTimelineCache.invalidate(this.sessionMap.keySet());
         }
+        complete();
+    }
+
+    /**
+     * Commit the OCFL object sessions on the shared commit pool, waiting for all of them to finish so that
+     * sessionsToRollback is complete before any failure is reported.
+     */
+    private void commitObjectSessionsInParallel(final List<OCFLObjectSession> sessions) throws Exception {
+        final List<Future<?>> futures = new ArrayList<>(sessions.size());
+        for (final OCFLObjectSession objectSession : sessions) {
+            futures.add(COMMIT_EXECUTOR.submit(() -> {
+                commitObjectSession(objectSession);
+                return null;
+            }));
+        }
+
+        Exception failure = null;
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void commitObjectSession(final OCFLObjectSession objectSession) throws PersistentStorageException {
+        final long start = System.nanoTime();
+        final CommitOption option = objectSession.getDefaultCommitOption();
+        objectSession.commit(option);
+        sessionsToRollback.add(new CommittedSession(objectSession, option));
+        final long elapsed = System.nanoTime() - start;
+        COMMIT_STATS.record(elapsed);
+        LOGGER.debug("Committed {} in {} ms", objectSession, elapsed / 1000000);
+    }
+
+    /**
+     * @return latency statistics for the commit of individual OCFL objects, across all sessions
+     */
+    static OCFLCommitStats getCommitStats() {
+        return COMMIT_STATS;
     }
 
     @Override
@@ -371,6 +615,7 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
             //throw an exception if any sessions could not be rolled back.
             if (rollbackFailures.size() > 0) {
                 state = State.ROLLBACK_FAILED;
+                complete();
                 final StringBuilder builder = new StringBuilder();
                 builder.append("Unable to rollback successfully due to the following reasons: \n");
                 for (final String failures : rollbackFailures) {
@@ -382,7 +627,73 @@ public class OCFLPersistentStorageSession implements PersistentStorageSession {
         }
         this.state = State.ROLLED_BACK;
         LOGGER.info("rolled back successfully.");
+        complete();
+
+    }
+
+    /**
+     * @return the index of containment relationships updated by this session, or null if there is none
+     */
+    ContainmentIndex getContainmentIndex() {
+        return containmentIndex;
+    }
 
+    /**
+     * @return the index of membership triples updated by this session, or null if there is none
+     */
+    MembershipIndex getMembershipIndex() {
+        return membershipIndex;
+    }
+
+    /**
+     * @return the index of references between resources updated by this session, or null if there is none
+     */
+    ReferenceIndex getReferenceIndex() {
+        return referenceIndex;
+    }
+
+    /**
+     * @return whether this session has committed or rolled back
+     */
+    boolean isComplete() {
+        return state == State.COMMITTED || state == State.ROLLED_BACK || state == State.ROLLBACK_FAILED;
+    }
+
+    /**
+     * Resolve the index changes made in this session once it has reached a final state. If the rollback failed
+     * because some OCFL objects had already been committed, the changes made on behalf of the resources in those
+     * objects are committed so that the indexes agree with storage.
+     */
+    private void complete() {
+        final Predicate<String> committedResources = state == State.ROLLBACK_FAILED ? committedResourceFilter() : null;
+        for (final TransactionalIndex index : indexes) {
+            if (state == State.COMMITTED) {
+                index.commitTransaction(sessionId);
+            } else if (committedResources != null) {
+                index.commitTransaction(sessionId, committedResources);
+            } else {
+                index.rollbackTransaction(sessionId);
+            }
+        }
+    }
+
+    /**
+     * @return matches the identifiers of the resources held by the OCFL objects this session committed
+     */
+    private Predicate<String> committedResourceFilter() {
+        final Set<OCFLObjectSession> committed = this.sessionsToRollback.stream().map(c -> c.session)
+                .collect(Collectors.toSet());
+        final Set<String> committedOcflIds = this.sessionMap.entrySet().stream()
+                .filter(entry -> committed.contains(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        return resourceId -> {
+            try {
+                return committedOcflIds.contains(fedoraOcflIndex.getMapping(resourceId).getOcflObjectId());
+            } catch (final FedoraOCFLMappingNotFoundException e) {
+                return false;
+            }
+        };
     }
 
     /**
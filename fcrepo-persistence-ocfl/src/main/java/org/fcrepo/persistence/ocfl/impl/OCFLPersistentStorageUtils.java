@@ -21,9 +21,11 @@ import edu.wisc.library.ocfl.api.MutableOcflRepository;
 import edu.wisc.library.ocfl.core.OcflRepositoryBuilder;
 import edu.wisc.library.ocfl.core.extension.layout.config.DefaultLayoutConfig;
 import edu.wisc.library.ocfl.core.storage.filesystem.FileSystemOcflStorage;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.lang.CollectorStreamTriples;
 import org.apache.jena.riot.system.StreamRDF;
 import org.fcrepo.kernel.api.FedoraTypes;
 import org.fcrepo.kernel.api.RdfStream;
@@ -36,13 +38,13 @@ import org.fcrepo.persistence.ocfl.api.OCFLObjectSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
@@ -175,21 +177,34 @@ public class OCFLPersistentStorageUtils {
      */
     public static WriteOutcome writeRDF(final OCFLObjectSession session, final RdfStream triples, final String subpath)
             throws PersistentStorageException {
-        try (final var os = new ByteArrayOutputStream()) {
+        return writeRDF(session, triples, subpath, triple -> { });
+    }
+
+    /**
+     * Writes an RDFStream to a subpath within an ocfl object, passing each triple to a consumer as it is written.
+     *
+     * @param session The object session
+     * @param triples The triples
+     * @param subpath The subpath within the OCFL Object
+     * @param written Receives each triple once it has been written
+     * @return the outcome of the write operation
+     * @throws PersistentStorageException on write failure
+     */
+    public static WriteOutcome writeRDF(final OCFLObjectSession session, final RdfStream triples, final String subpath,
+                                        final Consumer<Triple> written) throws PersistentStorageException {
+        final var outcome = session.write(subpath + getRDFFileExtension(), os -> {
             final StreamRDF streamRDF = getWriterStream(os, getRdfFormat());
             streamRDF.start();
             if (triples != null) {
-                triples.forEach(streamRDF::triple);
+                triples.forEach(triple -> {
+                    streamRDF.triple(triple);
+                    written.accept(triple);
+                });
             }
             streamRDF.finish();
-
-            final var is = new ByteArrayInputStream(os.toByteArray());
-            final var outcome = session.write(subpath + getRDFFileExtension(), is);
-            log.debug("wrote {} to {}", subpath, session);
-            return outcome;
-        } catch (final IOException ex) {
-            throw new PersistentStorageException(format("failed to write subpath %s in %s", subpath, session), ex);
-        }
+        });
+        log.debug("wrote {} to {}", subpath, session);
+        return outcome;
     }
 
     private static InputStream readFile(final OCFLObjectSession objSession, final String subpath, final String version)
@@ -212,6 +227,20 @@ public class OCFLPersistentStorageUtils {
         return readFile(objSession, subpath, versionId);
     }
 
+    /**
+     * Get the content of the specified binary file.
+     *
+     * @param objSession The OCFL object session
+     * @param subpath The path to the desired file
+     * @param versionId The OCFL version id. If null, the head state will be returned.
+     * @return the binary content stream
+     * @throws PersistentStorageException If unable to read the specified binary stream.
+     */
+    public static InputStream getBinaryStream(final OCFLObjectSession objSession,
+            final String subpath, final String versionId) throws PersistentStorageException {
+        return readFile(objSession, subpath, versionId);
+    }
+
     /**
      * Get an RDF stream for the specified file.
      *
@@ -226,14 +255,53 @@ public class OCFLPersistentStorageUtils {
                                          final OCFLObjectSession objSession,
                                          final String subpath,
                                          final Instant version) throws PersistentStorageException {
-        final String versionId = resolveVersionId(objSession, version);
+        return getRdfStream(identifier, objSession, subpath, resolveVersionId(objSession, version));
+    }
+
+    /**
+     * Get an RDF stream for the specified file.
+     *
+     * @param identifier The resource identifier
+     * @param versionId  The OCFL version id.  If null, the head state will be returned.
+     * @param objSession The OCFL object session
+     * @param subpath The path to the desired file.
+     * @return the RDF stream
+     * @throws PersistentStorageException If unable to read the specified rdf stream.
+     */
+    public static RdfStream getRdfStream(final String identifier,
+                                         final OCFLObjectSession objSession,
+                                         final String subpath,
+                                         final String versionId) throws PersistentStorageException {
         try (final InputStream is = readFile(objSession, subpath, versionId)) {
             final Model model = createDefaultModel();
             RDFDataMgr.read(model, is, DEFAULT_RDF_FORMAT.getLang());
             final String topic = resolveTopic(identifier);
             return DefaultRdfStream.fromModel(createURI(topic), model);
         } catch (final IOException ex) {
-            throw new PersistentStorageException(format("unable to read %s ;  version = %s", identifier, version), ex);
+            throw new PersistentStorageException(format("unable to read %s ;  version = %s", identifier, versionId),
+                    ex);
+        }
+    }
+
+    /**
+     * Parse the triples of the specified RDF file into an immutable list, suitable for sharing between sessions.
+     *
+     * @param objSession The OCFL object session
+     * @param subpath The path to the desired file.
+     * @param versionId The OCFL version id. If null, the head state will be returned.
+     * @return the distinct triples in the file
+     * @throws PersistentStorageException If unable to read the specified file.
+     */
+    public static List<Triple> readTriples(final OCFLObjectSession objSession,
+                                           final String subpath,
+                                           final String versionId) throws PersistentStorageException {
+        try (final InputStream is = readFile(objSession, subpath, versionId)) {
+            final var collector = new CollectorStreamTriples();
+            RDFDataMgr.parse(collector, is, DEFAULT_RDF_FORMAT.getLang());
+            return List.copyOf(new LinkedHashSet<>(collector.getCollected()));
+        } catch (final IOException ex) {
+            throw new PersistentStorageException(format("unable to read %s ;  version = %s", subpath, versionId),
+                    ex);
         }
     }
 
@@ -248,29 +316,35 @@ public class OCFLPersistentStorageUtils {
     public static String resolveVersionId(final OCFLObjectSession objSession, final Instant version)
             throws PersistentStorageException {
         if (version != null) {
-            return objSession.listVersions()
-                    .stream()
-                    .filter(vd -> {
-                        //filter by comparing Epoch seconds since
-                        //Memento has second granularity while OCFL versions are
-                        //millisecond granularity
-                        return vd.getCreated()
-                                .toInstant()
-                                .toEpochMilli() / 1000 == version.toEpochMilli() / 1000;
-                    }).map(vd -> vd.getVersionId().toString()) //return the versionId the matches
-                    .findFirst()
-                    .orElseThrow(() -> {
-                        //otherwise throw an exception.
-                        return new PersistentItemNotFoundException(format(
-                                "There is no version in %s with a created date matchin %s",
-                                objSession, version));
-                    });
+            return resolveVersionId(new OCFLVersionTimeline(objSession.listVersions()), objSession, version);
         } else {
             //return null if the instant is null
             return null;
         }
     }
 
+    /**
+     * Resolve an instant to a version using the version timeline of an OCFL object
+     *
+     * @param timeline the version timeline of the object
+     * @param objSession session
+     * @param version version time
+     * @return name of version, or null if the version time is null
+     * @throws PersistentStorageException thrown if version not found
+     */
+    public static String resolveVersionId(final OCFLVersionTimeline timeline, final OCFLObjectSession objSession,
+                                          final Instant version) throws PersistentStorageException {
+        if (version == null) {
+            return null;
+        }
+        final var versionId = timeline.getVersionId(version);
+        if (versionId == null) {
+            throw new PersistentItemNotFoundException(format(
+                    "There is no version in %s with a created date matchin %s", objSession, version));
+        }
+        return versionId;
+    }
+
     /**
      * Returns the subpath to the fedora metadata file associated with the specified subpath.
      * @param subpath   The subpath to the ocfl resource whose metadata file (sidecar subpath) you wish to
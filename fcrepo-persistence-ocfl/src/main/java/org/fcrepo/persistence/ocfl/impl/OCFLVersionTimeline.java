@@ -0,0 +1,105 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.time.temporal.ChronoUnit.SECONDS;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import edu.wisc.library.ocfl.api.model.VersionDetails;
+
+/**
+ * An immutable, time ordered view of the versions of an OCFL object, used to resolve memento datetimes to OCFL
+ * version ids. Versions are indexed by their creation time truncated to the second, since Memento has second
+ * granularity while OCFL versions have millisecond granularity.
+ *
+ * @author agent
+ * @since 6.0.0
+ */
+public class OCFLVersionTimeline {
+
+    private final NavigableMap<Instant, String> versionIds;
+
+    private final NavigableMap<Instant, String> latestVersionIds;
+
+    private final List<Instant> versions;
+
+    /**
+     * Create a timeline from the immutable versions of an OCFL object.
+     *
+     * @param versionDetails the versions, ordered by creation time
+     */
+    public OCFLVersionTimeline(final List<VersionDetails> versionDetails) {
+        final var ids = new TreeMap<Instant, String>();
+        final var latestIds = new TreeMap<Instant, String>();
+        versionDetails.forEach(vd -> {
+            final var second = vd.getCreated().toInstant().truncatedTo(SECONDS);
+            final var versionId = vd.getVersionId().toString();
+            // when several versions were created within the same second, the earliest one represents that second
+            ids.putIfAbsent(second, versionId);
+            // while the latest one is the state of the object once that second has passed
+            latestIds.put(second, versionId);
+        });
+        this.versionIds = Collections.unmodifiableNavigableMap(ids);
+        this.latestVersionIds = Collections.unmodifiableNavigableMap(latestIds);
+        this.versions = versionDetails.stream()
+                .map(vd -> vd.getCreated().toInstant())
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Find the version created within the same second as the specified instant.
+     *
+     * @param instant the memento datetime
+     * @return the OCFL version id, or null if there is no such version
+     */
+    public String getVersionId(final Instant instant) {
+        return versionIds.get(instant.truncatedTo(SECONDS));
+    }
+
+    /**
+     * Find the most recent version created at or before the specified instant. Of several versions created within
+     * the same second, the last one is returned.
+     *
+     * @param instant the point in time
+     * @return the OCFL version id, or null if the object had no versions at that time
+     */
+    public String getVersionIdAtOrBefore(final Instant instant) {
+        final var entry = latestVersionIds.floorEntry(instant.truncatedTo(SECONDS));
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * @return the creation times of all versions, in order
+     */
+    public List<Instant> getVersions() {
+        return versions;
+    }
+
+    /**
+     * @return the number of versions
+     */
+    public int size() {
+        return versions.size();
+    }
+}
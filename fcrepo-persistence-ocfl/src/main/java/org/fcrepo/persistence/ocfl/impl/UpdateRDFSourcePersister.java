@@ -54,6 +54,9 @@ class UpdateRDFSourcePersister extends AbstractRDFSourcePersister {
         final var fedoraOCFLMapping = getMapping(resourceId);
         final var ocflId = fedoraOCFLMapping.getOcflObjectId();
         final OCFLObjectSession objSession = session.findOrCreateSession(ocflId);
-        persistRDF(objSession, operation, fedoraOCFLMapping.getRootObjectIdentifier());
+        final var membershipProperties = getMembershipProperties(session, resourceId);
+        final var references = persistRDF(objSession, operation, fedoraOCFLMapping.getRootObjectIdentifier());
+        updateMembership(session, resourceId, membershipProperties);
+        updateReferences(session, resourceId, references);
     }
 }
@@ -17,15 +17,34 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import static java.util.Collections.emptyList;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.fcrepo.kernel.api.RdfLexicon.DIRECT_CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_MEMBER_RELATION;
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.CREATE;
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.UPDATE;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.DC;
+import org.fcrepo.kernel.api.ContainmentIndex;
+import org.fcrepo.kernel.api.MembershipIndex;
+import org.fcrepo.kernel.api.models.ResourceHeaders;
 import org.fcrepo.kernel.api.operations.NonRdfSourceOperation;
 import org.fcrepo.kernel.api.operations.RdfSourceOperation;
 import org.fcrepo.kernel.api.operations.ResourceOperation;
+import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -38,12 +57,30 @@ import org.mockito.junit.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class AbstractPersisterTest {
 
+    private static final String TX_ID = "tx-id";
+
+    private static final String CONTAINER_ID = "info:fedora/container";
+
+    private static final String CHILD_ID = CONTAINER_ID + "/child";
+
     @Mock
     private NonRdfSourceOperation nonRdfSourceOperation;
 
     @Mock
     private RdfSourceOperation rdfSourceOperation;
 
+    @Mock
+    private OCFLPersistentStorageSession psSession;
+
+    @Mock
+    private MembershipIndex membershipIndex;
+
+    @Mock
+    private ContainmentIndex containmentIndex;
+
+    @Mock
+    private ResourceHeaders containerHeaders;
+
     @Test
     public void testHandleSingles() {
         class MyPersister extends AbstractPersister {
@@ -93,4 +130,54 @@ public class AbstractPersisterTest {
         final MyPersister mp = new MyPersister();
         assertFalse(mp.handle(nonRdfSourceOperation));
     }
+
+    @Test
+    public void testUpdateMembershipKeepsChildrenWhenPropertiesUnchanged() throws Exception {
+        setupDirectContainer(DC.relation.asNode());
+
+        final var previousProperties = AbstractPersister.getMembershipProperties(psSession, CONTAINER_ID);
+        AbstractPersister.updateMembership(psSession, CONTAINER_ID, previousProperties);
+
+        verify(membershipIndex).setMembership(TX_ID, CONTAINER_ID, emptyList());
+        verify(containmentIndex, never()).getContainedBy(anyString(), anyString(), any(), anyInt());
+    }
+
+    @Test
+    public void testUpdateMembershipRecomputesChildrenWhenPropertiesChanged() throws Exception {
+        setupDirectContainer(DC.relation.asNode());
+        final var previousProperties = AbstractPersister.getMembershipProperties(psSession, CONTAINER_ID);
+
+        setupDirectContainer(DC.source.asNode());
+        when(containmentIndex.getContainedBy(TX_ID, CONTAINER_ID, null, -1)).thenReturn(Stream.of(CHILD_ID));
+        AbstractPersister.updateMembership(psSession, CONTAINER_ID, previousProperties);
+
+        verify(membershipIndex).setMembership(TX_ID, CHILD_ID,
+                List.of(Triple.create(createURI(CONTAINER_ID), DC.source.asNode(), createURI(CHILD_ID))));
+    }
+
+    @Test
+    public void testIsReference() {
+        final var subject = createURI(CHILD_ID);
+        final var predicate = DC.relation.asNode();
+
+        assertTrue(AbstractPersister.isReference(CHILD_ID,
+                Triple.create(subject, predicate, createURI(CONTAINER_ID))));
+        assertFalse("Hash URIs are not references", AbstractPersister.isReference(CHILD_ID,
+                Triple.create(subject, predicate, createURI(CONTAINER_ID + "#hash"))));
+        assertFalse("The resource itself is not a reference", AbstractPersister.isReference(CHILD_ID,
+                Triple.create(subject, predicate, createURI(CHILD_ID))));
+        assertFalse("External URIs are not references", AbstractPersister.isReference(CHILD_ID,
+                Triple.create(subject, predicate, createURI("http://example.com/other"))));
+    }
+
+    private void setupDirectContainer(final Node hasMemberRelation) throws Exception {
+        when(psSession.getId()).thenReturn(TX_ID);
+        when(psSession.getMembershipIndex()).thenReturn(membershipIndex);
+        when(psSession.getContainmentIndex()).thenReturn(containmentIndex);
+        when(psSession.getHeaders(CONTAINER_ID, null)).thenReturn(containerHeaders);
+        when(containerHeaders.getInteractionModel()).thenReturn(DIRECT_CONTAINER.getURI());
+        when(psSession.getTriples(CONTAINER_ID, null)).thenAnswer(invocation -> new DefaultRdfStream(
+                createURI(CONTAINER_ID),
+                Stream.of(Triple.create(createURI(CONTAINER_ID), HAS_MEMBER_RELATION.asNode(), hasMemberRelation))));
+    }
 }
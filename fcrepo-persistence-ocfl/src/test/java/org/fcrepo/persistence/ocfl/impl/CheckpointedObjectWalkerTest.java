@@ -0,0 +1,137 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.wisc.library.ocfl.api.OcflRepository;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * @author agent
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CheckpointedObjectWalkerTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private OcflRepository ocflRepository;
+
+    private File checkpointFile;
+
+    private final List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setup() throws Exception {
+        checkpointFile = new File(tempFolder.newFolder(), "walk.checkpoint");
+        when(ocflRepository.listObjectIds()).thenAnswer(invocation -> List.of("a", "b", "c", "d").stream());
+    }
+
+    @Test
+    public void testWalk() throws Exception {
+        final var flushes = new AtomicInteger();
+        final var walker = walker(false);
+
+        assertFalse(walker.isResuming());
+        assertTrue(walker.walk(processed::add, flushes::incrementAndGet).isEmpty());
+        assertEquals(Set.of("a", "b", "c", "d"), Set.copyOf(processed));
+        assertTrue("Progress should be flushed before it is recorded", flushes.get() > 0);
+        assertEquals(List.of("mark 4 d"), Files.readAllLines(checkpointFile.toPath()));
+
+        walker.complete();
+        assertFalse(checkpointFile.exists());
+    }
+
+    @Test
+    public void testResumeSkipsProcessedObjects() throws Exception {
+        Files.write(checkpointFile.toPath(), List.of("mark 1 a", "complete c"));
+        final var walker = walker(false);
+
+        assertTrue(walker.isResuming());
+        assertTrue(walker.walk(processed::add).isEmpty());
+        assertEquals(Set.of("b", "d"), Set.copyOf(processed));
+    }
+
+    @Test
+    public void testResumeRetriesFailedObjects() throws Exception {
+        Files.write(checkpointFile.toPath(), List.of("mark 2 b", "failed a"));
+
+        assertTrue(walker(false).walk(processed::add).isEmpty());
+        assertEquals(Set.of("a", "c", "d"), Set.copyOf(processed));
+        assertEquals(List.of("mark 4 d"), Files.readAllLines(checkpointFile.toPath()));
+    }
+
+    @Test
+    public void testResumeDiscardsCheckpointWhenListingChanged() throws Exception {
+        Files.write(checkpointFile.toPath(), List.of("mark 2 x"));
+
+        assertTrue(walker(false).walk(processed::add).isEmpty());
+        assertEquals(Set.of("a", "b", "c", "d"), Set.copyOf(processed));
+    }
+
+    @Test
+    public void testFailureIsRecorded() throws Exception {
+        final var failures = walker(false).walk(ocflId -> {
+            if (ocflId.equals("b")) {
+                throw new IllegalStateException("fail");
+            }
+            processed.add(ocflId);
+        });
+
+        assertEquals(Set.of("b"), failures.keySet());
+        assertEquals(Set.of("a", "c", "d"), Set.copyOf(processed));
+        assertEquals(List.of("mark 4 d", "failed b"), Files.readAllLines(checkpointFile.toPath()));
+
+        assertTrue(walker(false).walk(processed::add).isEmpty());
+        assertEquals(List.of("mark 4 d"), Files.readAllLines(checkpointFile.toPath()));
+    }
+
+    @Test
+    public void testStopOnFailure() throws Exception {
+        final var failures = walker(true).walk(ocflId -> {
+            throw new IllegalStateException("fail");
+        });
+
+        assertFalse(failures.isEmpty());
+        assertTrue("Objects should not be dispatched after a failure", failures.size() < 4);
+        assertTrue(checkpointFile.exists());
+    }
+
+    private CheckpointedObjectWalker walker(final boolean stopOnFailure) {
+        return new CheckpointedObjectWalker("test walk", ocflRepository, 1, checkpointFile, stopOnFailure);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test class for {@link CommittedObjectCache}
+ *
+ * @author agent
+ */
+public class CommittedObjectCacheTest {
+
+    private static final String OCFL_ID_1 = "ocfl-id-1";
+
+    private static final String OCFL_ID_2 = "ocfl-id-2";
+
+    private static final String SUBPATH = ".fcrepo/resource.json";
+
+    private CommittedObjectCache<String> cache;
+
+    private AtomicInteger loads;
+
+    @Before
+    public void setup() {
+        cache = new CommittedObjectCache<>(100);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testHitAfterLoad() throws Exception {
+        assertEquals("value", cache.get(OCFL_ID_1, SUBPATH, null, this::load));
+        assertEquals("value", cache.get(OCFL_ID_1, SUBPATH, null, this::load));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    public void testVersionsAreCachedSeparately() throws Exception {
+        cache.get(OCFL_ID_1, SUBPATH, null, this::load);
+        cache.get(OCFL_ID_1, SUBPATH, "v1", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testInvalidateObject() throws Exception {
+        cache.get(OCFL_ID_1, SUBPATH, null, this::load);
+        cache.get(OCFL_ID_2, SUBPATH, null, this::load);
+
+        cache.invalidate(singletonList(OCFL_ID_1));
+
+        cache.get(OCFL_ID_1, SUBPATH, null, this::load);
+        cache.get(OCFL_ID_2, SUBPATH, null, this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testLoadRacingInvalidationIsNotCached() throws Exception {
+        cache.get(OCFL_ID_1, SUBPATH, null, () -> {
+            cache.invalidate(singletonList(OCFL_ID_1));
+            return load();
+        });
+
+        cache.get(OCFL_ID_1, SUBPATH, null, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLoadRacingInvalidationOfOtherObjectIsCached() throws Exception {
+        cache.get(OCFL_ID_2, SUBPATH, null, this::load);
+        cache.get(OCFL_ID_1, SUBPATH, null, () -> {
+            cache.invalidate(singletonList(OCFL_ID_2));
+            return load();
+        });
+
+        cache.get(OCFL_ID_1, SUBPATH, null, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAfterEviction() throws Exception {
+        cache = new CommittedObjectCache<>(1);
+        cache.get(OCFL_ID_1, SUBPATH, null, this::load);
+        cache.get(OCFL_ID_1, SUBPATH, "v1", this::load);
+
+        cache.invalidate(singletonList(OCFL_ID_1));
+
+        assertEquals(0, cache.size());
+        cache.get(OCFL_ID_1, SUBPATH, "v1", this::load);
+        assertEquals(3, loads.get());
+    }
+
+    private String load() {
+        loads.incrementAndGet();
+        return "value";
+    }
+}
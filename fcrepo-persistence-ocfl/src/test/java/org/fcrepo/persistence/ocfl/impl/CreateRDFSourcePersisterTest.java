@@ -31,6 +31,7 @@ import org.fcrepo.kernel.api.operations.RdfSourceOperation;
 import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.fcrepo.persistence.api.WriteOutcome;
 import org.fcrepo.persistence.ocfl.api.FedoraToOCFLObjectIndex;
+import org.fcrepo.persistence.ocfl.api.OCFLObjectSession.ContentWriter;
 import org.fcrepo.persistence.ocfl.api.OCFLObjectSession;
 import org.junit.Before;
 import org.junit.Test;
@@ -40,6 +41,8 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.stream.Stream;
@@ -105,7 +108,7 @@ public class CreateRDFSourcePersisterTest {
     private WriteOutcome writeOutcome;
 
     @Captor
-    private ArgumentCaptor<InputStream> userTriplesIsCaptor;
+    private ArgumentCaptor<ContentWriter> userTriplesWriterCaptor;
 
     @Captor
     private ArgumentCaptor<InputStream> headersIsCaptor;
@@ -118,6 +121,7 @@ public class CreateRDFSourcePersisterTest {
                 CreateResourceOperation.class));
 
         when(session.write(anyString(), any(InputStream.class))).thenReturn(writeOutcome);
+        when(session.write(anyString(), any(ContentWriter.class))).thenReturn(writeOutcome);
         when(psSession.findOrCreateSession(anyString())).thenReturn(session);
         when(operation.getType()).thenReturn(CREATE);
 
@@ -212,8 +216,10 @@ public class CreateRDFSourcePersisterTest {
     }
 
     private Model retrievePersistedUserModel(final String subpath) throws Exception {
-        verify(session).write(eq(subpath + getRDFFileExtension()), userTriplesIsCaptor.capture());
-        final InputStream userTriplesIs = userTriplesIsCaptor.getValue();
+        verify(session).write(eq(subpath + getRDFFileExtension()), userTriplesWriterCaptor.capture());
+        final var userTriplesOs = new ByteArrayOutputStream();
+        userTriplesWriterCaptor.getValue().writeTo(userTriplesOs);
+        final InputStream userTriplesIs = new ByteArrayInputStream(userTriplesOs.toByteArray());
         final Model userModel = createDefaultModel();
         RDFDataMgr.read(userModel, userTriplesIs, Lang.NTRIPLES);
         return userModel;
@@ -27,6 +27,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
@@ -80,11 +81,13 @@ public class DefaultOCFLObjectSessionTest {
 
     private MutableOcflRepository ocflRepository;
 
+    private Path repoDir;
+
     @Before
     public void setup() throws Exception {
         tempFolder.create();
 
-        final var repoDir = tempFolder.newFolder("ocfl-repo").toPath();
+        repoDir = tempFolder.newFolder("ocfl-repo").toPath();
         final var workDir = tempFolder.newFolder("ocfl-work").toPath();
 
         ocflRepository = new OcflRepositoryBuilder()
@@ -122,6 +125,105 @@ public class DefaultOCFLObjectSessionTest {
         assertFileInHeadVersion(OBJ_ID, FILE1_SUBPATH, FILE_CONTENT1);
     }
 
+    @Test
+    public void writeNewFileFromWriter_ToNewVersion_NewObject() throws Exception {
+        session.write(FILE1_SUBPATH, out -> out.write(FILE_CONTENT1.getBytes()));
+        assertStreamMatches(FILE_CONTENT1, session.read(FILE1_SUBPATH));
+        final String versionId = session.commit(NEW_VERSION);
+
+        assertEquals("v1", versionId);
+        assertFileInHeadVersion(OBJ_ID, FILE1_SUBPATH, FILE_CONTENT1);
+    }
+
+    @Test
+    public void writeSmallFile_StagedInMemory() throws Exception {
+        session = new DefaultOCFLObjectSession(OBJ_ID, stagingPath, ocflRepository, 1024, 4096);
+        session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT1));
+
+        assertFalse(stagingPath.resolve(OBJ_ID).toFile().exists());
+        assertStreamMatches(FILE_CONTENT1, session.read(FILE1_SUBPATH));
+
+        final String versionId = session.commit(NEW_VERSION);
+        assertEquals("v1", versionId);
+        assertFileInHeadVersion(OBJ_ID, FILE1_SUBPATH, FILE_CONTENT1);
+    }
+
+    @Test
+    public void writeLargeFile_StagedOnDisk() throws Exception {
+        session = new DefaultOCFLObjectSession(OBJ_ID, stagingPath, ocflRepository, 4, 4096);
+        session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT1));
+        session.write(FILE2_SUBPATH, out -> out.write(FILE_CONTENT2.getBytes()));
+
+        assertTrue(stagingPath.resolve(OBJ_ID).resolve(FILE1_SUBPATH).toFile().exists());
+        assertTrue(stagingPath.resolve(OBJ_ID).resolve(FILE2_SUBPATH).toFile().exists());
+
+        session.commit(NEW_VERSION);
+        assertFileInHeadVersion(OBJ_ID, FILE1_SUBPATH, FILE_CONTENT1);
+        assertFileInHeadVersion(OBJ_ID, FILE2_SUBPATH, FILE_CONTENT2);
+    }
+
+    @Test
+    public void writeBeyondMemoryBudget_StagedOnDisk() throws Exception {
+        session = new DefaultOCFLObjectSession(OBJ_ID, stagingPath, ocflRepository, 1024,
+                FILE_CONTENT1.length());
+        session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT1));
+        session.write(FILE2_SUBPATH, fileStream(FILE_CONTENT2));
+
+        assertFalse(stagingPath.resolve(OBJ_ID).resolve(FILE1_SUBPATH).toFile().exists());
+        assertTrue(stagingPath.resolve(OBJ_ID).resolve(FILE2_SUBPATH).toFile().exists());
+
+        session.commit(NEW_VERSION);
+        assertFileInHeadVersion(OBJ_ID, FILE1_SUBPATH, FILE_CONTENT1);
+        assertFileInHeadVersion(OBJ_ID, FILE2_SUBPATH, FILE_CONTENT2);
+    }
+
+    @Test
+    public void delete_FromMemoryStaged_InitialVersion() throws Exception {
+        session = new DefaultOCFLObjectSession(OBJ_ID, stagingPath, ocflRepository, 1024, 4096);
+        session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT1));
+        session.write(FILE2_SUBPATH, fileStream(FILE_CONTENT2));
+        session.delete(FILE1_SUBPATH);
+
+        session.commit(NEW_VERSION);
+        assertFileNotInHeadVersion(OBJ_ID, FILE1_SUBPATH);
+        assertFileInHeadVersion(OBJ_ID, FILE2_SUBPATH, FILE_CONTENT2);
+    }
+
+    @Test
+    public void read_CachedInventory_LoadedOnce() throws Exception {
+        final var preStagingPath = tempFolder.newFolder("prestage").toPath();
+        Files.writeString(preStagingPath.resolve(FILE1_SUBPATH), FILE_CONTENT1);
+        Files.writeString(preStagingPath.resolve(FILE2_SUBPATH), FILE_CONTENT2);
+        ocflRepository.putObject(ObjectVersionId.head(OBJ_ID), preStagingPath, null);
+
+        session = new DefaultOCFLObjectSession(OBJ_ID, stagingPath, ocflRepository, 0, 0, true);
+        assertStreamMatches(FILE_CONTENT1, session.read(FILE1_SUBPATH));
+        assertStreamMatches(FILE_CONTENT2, session.read(FILE2_SUBPATH));
+        assertStreamMatches(FILE_CONTENT1, session.read(FILE1_SUBPATH));
+
+        assertEquals(1, session.getInventoryLoads());
+
+        session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT2));
+        session.delete(FILE2_SUBPATH);
+        assertEquals("Existence check should be the only additional load", 2, session.getInventoryLoads());
+
+        session.commit(NEW_VERSION);
+        assertFileInHeadVersion(OBJ_ID, FILE1_SUBPATH, FILE_CONTENT2);
+        assertFileNotInHeadVersion(OBJ_ID, FILE2_SUBPATH);
+    }
+
+    @Test
+    public void read_UncachedInventory_LoadedPerRead() throws Exception {
+        final var preStagingPath = tempFolder.newFolder("prestage").toPath();
+        Files.writeString(preStagingPath.resolve(FILE1_SUBPATH), FILE_CONTENT1);
+        ocflRepository.putObject(ObjectVersionId.head(OBJ_ID), preStagingPath, null);
+
+        assertStreamMatches(FILE_CONTENT1, session.read(FILE1_SUBPATH));
+        assertStreamMatches(FILE_CONTENT1, session.read(FILE1_SUBPATH));
+
+        assertEquals(2, session.getInventoryLoads());
+    }
+
     @Test
     public void write_OverwriteStagedFile_NewVersion_NewObject() throws Exception {
         session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT1));
@@ -534,6 +636,19 @@ public class DefaultOCFLObjectSessionTest {
         session2.read(FILE1_SUBPATH, "v1");
     }
 
+    @Test
+    public void read_CommittedFileFromStorageRoot() throws Exception {
+        session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT1));
+        session.commit(NEW_VERSION);
+
+        final var readSession = new DefaultOCFLObjectSession(OBJ_ID, stagingPath, ocflRepository, 0, 0, false,
+                repoDir);
+        final var content = readSession.read(FILE1_SUBPATH);
+
+        assertTrue("Committed file must be read from disk", content instanceof FileInputStream);
+        assertStreamMatches(FILE_CONTENT1, content);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void commit_WithoutOption() throws Exception {
         session.write(FILE1_SUBPATH, fileStream(FILE_CONTENT1));
@@ -21,13 +21,19 @@ import static org.fcrepo.persistence.ocfl.impl.OCFLConstants.FEDORA_TO_OCFL_INDE
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.fcrepo.persistence.ocfl.api.FedoraOCFLMappingNotFoundException;
@@ -136,6 +142,30 @@ public class FedoraToOCFLObjectIndexImplTest {
         }
     }
 
+    @Test
+    public void testConcurrentAddMapping() throws Exception {
+        final FedoraToOCFLObjectIndexImpl index = new FedoraToOCFLObjectIndexImpl();
+        final int children = 200;
+        final ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            final List<Callable<FedoraOCFLMapping>> tasks = new ArrayList<>();
+            for (int i = 0; i < children; i++) {
+                final String childId = ROOT_RESOURCE_ID + "/child" + i;
+                tasks.add(() -> index.addMapping(childId, ROOT_RESOURCE_ID, OCFL_ID));
+            }
+            final List<Future<FedoraOCFLMapping>> results = executor.invokeAll(tasks);
+            final FedoraOCFLMapping rootMapping = index.getMapping(ROOT_RESOURCE_ID);
+            for (final Future<FedoraOCFLMapping> result : results) {
+                assertSame(rootMapping, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final List<String> lines = Files.lines(FEDORA_TO_OCFL_INDEX_FILE.toPath()).collect(Collectors.toList());
+        assertEquals(children + 1, lines.size());
+    }
+
     private void removeIndexMappingFile() {
         if (FEDORA_TO_OCFL_INDEX_FILE.exists()) {
             FEDORA_TO_OCFL_INDEX_FILE.delete();
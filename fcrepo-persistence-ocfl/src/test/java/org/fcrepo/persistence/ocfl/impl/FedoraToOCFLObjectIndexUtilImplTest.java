@@ -17,19 +17,35 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.DC;
 import org.fcrepo.kernel.api.operations.CreateResourceOperation;
 import org.fcrepo.kernel.api.operations.NonRdfSourceOperation;
 import org.fcrepo.kernel.api.operations.RdfSourceOperation;
+import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
 import org.fcrepo.persistence.ocfl.api.FedoraOCFLMappingNotFoundException;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static java.lang.System.currentTimeMillis;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.fcrepo.kernel.api.RdfLexicon.BASIC_CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.DIRECT_CONTAINER;
+import static org.fcrepo.kernel.api.RdfLexicon.HAS_MEMBER_RELATION;
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.CREATE;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.createRepository;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -42,46 +58,78 @@ import static org.springframework.test.util.ReflectionTestUtils.setField;
  */
 public class FedoraToOCFLObjectIndexUtilImplTest {
 
-    @Test
-    public void testRebuild() throws Exception {
+    private static final String RESOURCE_1 = "info:fedora/resource1";
+
+    private static final String RESOURCE_2 = RESOURCE_1 + "/resource2";
+
+    private static final String CONTAINER = "info:fedora/container";
+
+    private static final String MEMBER = CONTAINER + "/member";
+
+    private FedoraToOCFLObjectIndexImpl index;
+
+    private FedoraToOCFLObjectIndexUtilImpl util;
+
+    private MVStoreContainmentIndex containmentIndex;
+
+    private MVStoreMembershipIndex membershipIndex;
+
+    private MVStoreReferenceIndex referenceIndex;
+
+    private File checkpointFile;
+
+    private OCFLPersistentSessionManager sessionManager;
+
+    @Before
+    public void setup() throws Exception {
         final var targetDir = new File("target");
         final var dataDir = new File(targetDir, "test-fcrepo-data-" + currentTimeMillis());
         final var repoDir = new File(dataDir,"ocfl-repo");
         final var workDir = new File(dataDir,"ocfl-work");
         final var staging = new File(dataDir,"ocfl-staging");
+        checkpointFile = new File(workDir, "rebuild-checkpoint");
 
         final var repository = createRepository(repoDir, workDir);
 
-        final var index = new FedoraToOCFLObjectIndexImpl();
+        index = new FedoraToOCFLObjectIndexImpl();
+        containmentIndex = new MVStoreContainmentIndex(new File(workDir, "containment.mv.db"), 1);
+        membershipIndex = new MVStoreMembershipIndex(new File(workDir, "membership.mv.db"), 1);
+        referenceIndex = new MVStoreReferenceIndex(new File(workDir, "reference.mv.db"), 1);
 
         final var ocflObjectSessionFactory = new DefaultOCFLObjectSessionFactory(staging);
         setField(ocflObjectSessionFactory, "ocflRepository", repository);
 
-        final var sessionManager = new OCFLPersistentSessionManager();
+        sessionManager = new OCFLPersistentSessionManager();
         setField(sessionManager, "fedoraOcflIndex", index);
         setField(sessionManager, "objectSessionFactory", ocflObjectSessionFactory);
+        setField(sessionManager, "containmentIndex", containmentIndex);
+        setField(sessionManager, "membershipIndex", membershipIndex);
+        setField(sessionManager, "referenceIndex", referenceIndex);
 
-        final var util = new FedoraToOCFLObjectIndexUtilImpl();
+        util = new FedoraToOCFLObjectIndexUtilImpl();
         setField(util, "ocflRepository", repository);
         setField(util, "fedoraToOCFLObjectIndex", index);
         setField(util, "objectSessionFactory", ocflObjectSessionFactory);
+        setField(util, "containmentIndex", containmentIndex);
+        setField(util, "membershipIndex", membershipIndex);
+        setField(util, "referenceIndex", referenceIndex);
+        setField(util, "threads", 2);
+        setField(util, "checkpointFile", checkpointFile);
 
         final var session1Id = "session1";
-        final var resource1 = "info:fedora/resource1";
-        final var resource2 =  resource1 + "/resource2";
 
-        final var session = sessionManager.getSession(session1Id);
+        final var session = sessionManager.createSession(session1Id);
 
         final var operation = mock(RdfSourceOperation.class, withSettings().extraInterfaces(
                 CreateResourceOperation.class));
-        when(operation.getResourceId()).thenReturn(resource1);
+        when(operation.getResourceId()).thenReturn(RESOURCE_1);
         when(operation.getType()).thenReturn(CREATE);
         when(((CreateResourceOperation)operation).isArchivalGroup()).thenReturn(true);
         session.persist(operation);
 
         final var operation2 = mock(NonRdfSourceOperation.class, withSettings().extraInterfaces(
                 CreateResourceOperation.class));
-        when(operation2.getResourceId()).thenReturn(resource2);
+        when(operation2.getResourceId()).thenReturn(RESOURCE_2);
         when(operation2.getType()).thenReturn(CREATE);
         final var bytes = "test".getBytes();
         final var stream = new ByteArrayInputStream(bytes);
@@ -89,21 +137,115 @@ public class FedoraToOCFLObjectIndexUtilImplTest {
         when(operation2.getContentStream()).thenReturn(stream);
         when(operation2.getMimeType()).thenReturn("text/plain");
         when(operation2.getFilename()).thenReturn("test");
-        when(((CreateResourceOperation)operation2).getParentId()).thenReturn(resource1);
+        when(((CreateResourceOperation)operation2).getParentId()).thenReturn(RESOURCE_1);
         session.persist(operation2);
         session.commit();
-        assertNotNull(index.getMapping(resource1));
+        assertNotNull(index.getMapping(RESOURCE_1));
+        assertEquals(List.of(RESOURCE_2), containmentIndex.getContainedBy(null, RESOURCE_1, null, -1)
+                .collect(Collectors.toList()));
+    }
+
+    @After
+    public void tearDown() {
+        containmentIndex.close();
+        membershipIndex.close();
+        referenceIndex.close();
+    }
+
+    @Test
+    public void testRebuild() throws Exception {
+        index.reset();
+        assertNotMapped(RESOURCE_1);
+        assertTrue(util.hasUnpopulatedIndex());
+
+        util.rebuild();
+        assertFalse(util.hasUnpopulatedIndex());
+        assertTrue(containmentIndex.isPopulated());
+        assertTrue(membershipIndex.isPopulated());
+        assertTrue(referenceIndex.isPopulated());
+        assertNotNull(index.getMapping(RESOURCE_1));
+        assertNotNull(index.getMapping(RESOURCE_2));
+        assertEquals(List.of(RESOURCE_2), containmentIndex.getContainedBy(null, RESOURCE_1, null, -1)
+                .collect(Collectors.toList()));
+        assertFalse(checkpointFile.exists());
+    }
+
+    @Test
+    public void testResumeSkipsCheckpointedObjects() throws Exception {
+        final var ocflId = index.getMapping(RESOURCE_1).getOcflObjectId();
+        index.reset();
+        writeCheckpoint(ocflId);
+
+        util.rebuild();
+        assertNotMapped(RESOURCE_1);
+        assertNotMapped(RESOURCE_2);
+        assertFalse(checkpointFile.exists());
+    }
+
+    @Test
+    public void testResumeDoesNotResetIndex() throws Exception {
         index.reset();
+        index.addMapping("info:fedora/other", "info:fedora/other", "other");
+        writeCheckpoint("other");
+
+        util.rebuild();
+        assertNotNull(index.getMapping("info:fedora/other"));
+        assertNotNull(index.getMapping(RESOURCE_1));
+        assertNotNull(index.getMapping(RESOURCE_2));
+    }
 
+    @Test
+    public void testResumeRebuildsMembershipOfCheckpointedContainers() throws Exception {
+        final var session = sessionManager.createSession("session2");
+        session.persist(createRdfSource(CONTAINER, null, DIRECT_CONTAINER.getURI(),
+                Triple.create(createURI(CONTAINER), HAS_MEMBER_RELATION.asNode(), DC.relation.asNode())));
+        session.persist(createRdfSource(MEMBER, CONTAINER, BASIC_CONTAINER.getURI()));
+        session.commit();
+
+        final var membership = Triple.create(createURI(CONTAINER), DC.relation.asNode(), createURI(MEMBER));
+        assertEquals(List.of(membership), getMembership(CONTAINER));
+
+        membershipIndex.reset();
+        assertTrue(getMembership(CONTAINER).isEmpty());
+
+        // an interrupted rebuild which had indexed the container, but not its member
+        writeCheckpoint(index.getMapping(CONTAINER).getOcflObjectId());
+        Files.write(new File(checkpointFile.getPath() + ".containers").toPath(), List.of(CONTAINER));
+
+        util.rebuild();
+        assertEquals(List.of(membership), getMembership(CONTAINER));
+        assertFalse(checkpointFile.exists());
+        assertFalse(new File(checkpointFile.getPath() + ".containers").exists());
+    }
+
+    private RdfSourceOperation createRdfSource(final String resourceId, final String parentId,
+                                              final String interactionModel, final Triple... triples) {
+        final var operation = mock(RdfSourceOperation.class, withSettings().extraInterfaces(
+                CreateResourceOperation.class));
+        when(operation.getResourceId()).thenReturn(resourceId);
+        when(operation.getType()).thenReturn(CREATE);
+        when(operation.getTriples()).thenAnswer(invocation ->
+                new DefaultRdfStream(createURI(resourceId), Stream.of(triples)));
+        when(((CreateResourceOperation) operation).getParentId()).thenReturn(parentId);
+        when(((CreateResourceOperation) operation).getInteractionModel()).thenReturn(interactionModel);
+        return operation;
+    }
+
+    private List<Triple> getMembership(final String subjectId) {
+        return membershipIndex.getMembership(null, subjectId, null, -1).collect(Collectors.toList());
+    }
+
+    private void writeCheckpoint(final String ocflId) throws Exception {
+        checkpointFile.getParentFile().mkdirs();
+        Files.write(checkpointFile.toPath(), List.of("complete " + ocflId));
+    }
+
+    private void assertNotMapped(final String resourceId) {
         try {
-            index.getMapping(resource1);
-            fail(resource1 + " should not exist in index");
+            index.getMapping(resourceId);
+            fail(resourceId + " should not exist in index");
         } catch (final FedoraOCFLMappingNotFoundException e) {
             //do nothing - expected
         }
-
-        util.rebuild();
-        assertNotNull(index.getMapping(resource1));
-        assertNotNull(index.getMapping(resource2));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ * @since 6.0.0
+ */
+public class MVStoreContainmentIndexTest {
+
+    private static final String PARENT_ID = "info:fedora/parent";
+    private static final String CHILD_ID_1 = PARENT_ID + "/child1";
+    private static final String CHILD_ID_2 = PARENT_ID + "/child2";
+    private static final String CHILD_ID_3 = PARENT_ID + "/child3";
+    private static final String GRANDCHILD_ID = CHILD_ID_1 + "/grandchild";
+    private static final String OTHER_ID = "info:fedora/parent2";
+    private static final String TX_ID = "tx1";
+    private static final String ROOT_ID = "info:fedora";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File storeFile;
+
+    @Before
+    public void setup() {
+        storeFile = new File(tempFolder.getRoot(), "containment.mv.db");
+    }
+
+    @Test
+    public void testOrderedListingExcludesOtherParents() {
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_2);
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_1);
+            index.addContainedBy(null, CHILD_ID_1, GRANDCHILD_ID);
+            index.addContainedBy(null, OTHER_ID, OTHER_ID + "/child");
+
+            assertEquals(List.of(CHILD_ID_1, CHILD_ID_2), list(index, null, PARENT_ID, null, -1));
+            assertEquals(List.of(GRANDCHILD_ID), list(index, null, CHILD_ID_1, null, -1));
+        }
+    }
+
+    @Test
+    public void testRootDoesNotContainItself() {
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            index.addContainedBy(null, ROOT_ID, ROOT_ID);
+            index.addContainedBy(null, ROOT_ID, PARENT_ID);
+            index.addContainedBy(TX_ID, ROOT_ID, ROOT_ID);
+
+            assertEquals(List.of(PARENT_ID), list(index, null, ROOT_ID, null, -1));
+            assertEquals(List.of(PARENT_ID), list(index, TX_ID, ROOT_ID, null, -1));
+        }
+    }
+
+    @Test
+    public void testPaging() {
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_1);
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_2);
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_3);
+
+            assertEquals(List.of(CHILD_ID_1, CHILD_ID_2), list(index, null, PARENT_ID, null, 2));
+            assertEquals(List.of(CHILD_ID_3), list(index, null, PARENT_ID, CHILD_ID_2, 2));
+            assertEquals(List.of(), list(index, null, PARENT_ID, CHILD_ID_3, 2));
+        }
+    }
+
+    @Test
+    public void testTransactionChangesIsolatedUntilCommit() {
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_1);
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_3);
+
+            index.addContainedBy(TX_ID, PARENT_ID, CHILD_ID_2);
+            index.removeContainedBy(TX_ID, PARENT_ID, CHILD_ID_3);
+
+            assertEquals(List.of(CHILD_ID_1, CHILD_ID_2), list(index, TX_ID, PARENT_ID, null, -1));
+            assertEquals(List.of(CHILD_ID_1, CHILD_ID_3), list(index, null, PARENT_ID, null, -1));
+
+            index.commitTransaction(TX_ID);
+            assertEquals(List.of(CHILD_ID_1, CHILD_ID_2), list(index, null, PARENT_ID, null, -1));
+        }
+    }
+
+    @Test
+    public void testCommitChangesOfSomeResources() {
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_3);
+
+            index.addContainedBy(TX_ID, PARENT_ID, CHILD_ID_1);
+            index.addContainedBy(TX_ID, PARENT_ID, CHILD_ID_2);
+            index.removeContainedBy(TX_ID, PARENT_ID, CHILD_ID_3);
+            index.commitTransaction(TX_ID, CHILD_ID_1::equals);
+
+            assertEquals(List.of(CHILD_ID_1, CHILD_ID_3), list(index, null, PARENT_ID, null, -1));
+            assertEquals(List.of(CHILD_ID_1, CHILD_ID_3), list(index, TX_ID, PARENT_ID, null, -1));
+        }
+    }
+
+    @Test
+    public void testRollbackDiscardsChanges() {
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            index.addContainedBy(TX_ID, PARENT_ID, CHILD_ID_1);
+            index.rollbackTransaction(TX_ID);
+
+            assertEquals(List.of(), list(index, TX_ID, PARENT_ID, null, -1));
+        }
+    }
+
+    @Test
+    public void testPersistsAcrossReopen() {
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            assertFalse(index.isPopulated());
+            index.addContainedBy(null, PARENT_ID, CHILD_ID_1);
+            index.markPopulated();
+        }
+        try (final var index = new MVStoreContainmentIndex(storeFile, 1)) {
+            assertTrue(index.isPopulated());
+            assertEquals(List.of(CHILD_ID_1), list(index, null, PARENT_ID, null, -1));
+            index.reset();
+            assertFalse(index.isPopulated());
+            assertEquals(List.of(), list(index, null, PARENT_ID, null, -1));
+        }
+    }
+
+    private static List<String> list(final MVStoreContainmentIndex index, final String txId, final String parentId,
+                                     final String afterId, final int limit) {
+        return index.getContainedBy(txId, parentId, afterId, limit).collect(toList());
+    }
+}
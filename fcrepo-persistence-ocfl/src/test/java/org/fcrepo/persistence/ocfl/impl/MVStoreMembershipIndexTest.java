@@ -0,0 +1,136 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.fcrepo.kernel.api.RdfLexicon.LDP_MEMBER;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ * @since 6.0.0
+ */
+public class MVStoreMembershipIndexTest {
+
+    private static final Node MEMBERSHIP_RESOURCE = createURI("info:fedora/collection");
+    private static final String PROXY_ID_1 = "info:fedora/container/proxy1";
+    private static final String PROXY_ID_2 = "info:fedora/container/proxy2";
+    private static final Node MEMBER_1 = createURI("info:fedora/member1");
+    private static final Node MEMBER_2 = createURI("info:fedora/member2");
+    private static final Node MEMBER_3 = createURI("info:fedora/member3");
+    private static final String TX_ID = "tx1";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File storeFile;
+
+    @Before
+    public void setup() {
+        storeFile = new File(tempFolder.getRoot(), "membership.mv.db");
+    }
+
+    @Test
+    public void testSetMembershipReplacesProxyTriples() {
+        try (final var index = new MVStoreMembershipIndex(storeFile, 1)) {
+            index.setMembership(null, PROXY_ID_1, List.of(member(MEMBER_1), member(MEMBER_2)));
+            index.setMembership(null, PROXY_ID_2, List.of(member(MEMBER_3)));
+            assertEquals(List.of(member(MEMBER_1), member(MEMBER_2), member(MEMBER_3)), list(index, null, null, -1));
+
+            index.setMembership(null, PROXY_ID_1, List.of(member(MEMBER_2)));
+            assertEquals(List.of(member(MEMBER_2), member(MEMBER_3)), list(index, null, null, -1));
+
+            index.setMembership(null, PROXY_ID_2, emptyList());
+            assertEquals(List.of(member(MEMBER_2)), list(index, null, null, -1));
+        }
+    }
+
+    @Test
+    public void testTripleFromSeveralProxiesIsListedOnce() {
+        try (final var index = new MVStoreMembershipIndex(storeFile, 1)) {
+            index.setMembership(null, PROXY_ID_1, List.of(member(MEMBER_1)));
+            index.setMembership(null, PROXY_ID_2, List.of(member(MEMBER_1), member(MEMBER_2)));
+            assertEquals(List.of(member(MEMBER_1), member(MEMBER_2)), list(index, null, null, -1));
+
+            index.setMembership(null, PROXY_ID_2, List.of(member(MEMBER_2)));
+            assertEquals(List.of(member(MEMBER_1), member(MEMBER_2)), list(index, null, null, -1));
+        }
+    }
+
+    @Test
+    public void testPaging() {
+        try (final var index = new MVStoreMembershipIndex(storeFile, 1)) {
+            index.setMembership(null, PROXY_ID_1, List.of(member(MEMBER_1), member(MEMBER_2), member(MEMBER_3)));
+
+            assertEquals(List.of(member(MEMBER_1), member(MEMBER_2)), list(index, null, null, 2));
+            assertEquals(List.of(member(MEMBER_3)), list(index, null, member(MEMBER_2), 2));
+            assertEquals(List.of(), list(index, null, member(MEMBER_3), 2));
+        }
+    }
+
+    @Test
+    public void testTransactionIsolation() {
+        try (final var index = new MVStoreMembershipIndex(storeFile, 1)) {
+            index.setMembership(null, PROXY_ID_1, List.of(member(MEMBER_1)));
+            index.setMembership(TX_ID, PROXY_ID_1, List.of(member(MEMBER_2)));
+
+            assertEquals(List.of(member(MEMBER_1)), list(index, null, null, -1));
+            assertEquals(List.of(member(MEMBER_2)), list(index, TX_ID, null, -1));
+
+            index.rollbackTransaction(TX_ID);
+            assertEquals(List.of(member(MEMBER_1)), list(index, TX_ID, null, -1));
+
+            index.setMembership(TX_ID, PROXY_ID_1, List.of(member(MEMBER_2)));
+            index.commitTransaction(TX_ID);
+            assertEquals(List.of(member(MEMBER_2)), list(index, null, null, -1));
+        }
+    }
+
+    @Test
+    public void testReopen() {
+        try (final var index = new MVStoreMembershipIndex(storeFile, 1)) {
+            index.setMembership(null, PROXY_ID_1, List.of(member(MEMBER_1)));
+        }
+        try (final var index = new MVStoreMembershipIndex(storeFile, 1)) {
+            assertEquals(List.of(member(MEMBER_1)), list(index, null, null, -1));
+            index.reset();
+            assertEquals(List.of(), list(index, null, null, -1));
+        }
+    }
+
+    private static Triple member(final Node member) {
+        return Triple.create(MEMBERSHIP_RESOURCE, LDP_MEMBER.asNode(), member);
+    }
+
+    private static List<Triple> list(final MVStoreMembershipIndex index, final String txId, final Triple after,
+                                     final int limit) {
+        return index.getMembership(txId, MEMBERSHIP_RESOURCE.getURI(), after, limit).collect(toList());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ * @since 6.0.0
+ */
+public class MVStoreReferenceIndexTest {
+
+    private static final String TARGET_ID = "info:fedora/authority";
+    private static final String OTHER_TARGET_ID = "info:fedora/authority2";
+    private static final String RESOURCE_ID_1 = "info:fedora/resource1";
+    private static final String RESOURCE_ID_2 = "info:fedora/resource2";
+    private static final Node CREATOR = createURI("http://purl.org/dc/elements/1.1/creator");
+    private static final Node SUBJECT = createURI("http://purl.org/dc/elements/1.1/subject");
+    private static final String TX_ID = "tx1";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File storeFile;
+
+    @Before
+    public void setup() {
+        storeFile = new File(tempFolder.getRoot(), "reference.mv.db");
+    }
+
+    @Test
+    public void testSetReferencesReplacesResourceReferences() {
+        try (final var index = new MVStoreReferenceIndex(storeFile, 1)) {
+            index.setReferences(null, RESOURCE_ID_1, List.of(ref(RESOURCE_ID_1, CREATOR, TARGET_ID),
+                    ref(RESOURCE_ID_1, SUBJECT, OTHER_TARGET_ID)));
+            index.setReferences(null, RESOURCE_ID_2, List.of(ref(RESOURCE_ID_2, CREATOR, TARGET_ID)));
+            assertEquals(List.of(ref(RESOURCE_ID_1, CREATOR, TARGET_ID), ref(RESOURCE_ID_2, CREATOR, TARGET_ID)),
+                    list(index, null, TARGET_ID, -1));
+            assertEquals(List.of(ref(RESOURCE_ID_1, SUBJECT, OTHER_TARGET_ID)),
+                    list(index, null, OTHER_TARGET_ID, -1));
+
+            index.setReferences(null, RESOURCE_ID_1, List.of(ref(RESOURCE_ID_1, SUBJECT, TARGET_ID)));
+            assertEquals(List.of(ref(RESOURCE_ID_1, SUBJECT, TARGET_ID), ref(RESOURCE_ID_2, CREATOR, TARGET_ID)),
+                    list(index, null, TARGET_ID, -1));
+            assertEquals(List.of(), list(index, null, OTHER_TARGET_ID, -1));
+
+            index.setReferences(null, RESOURCE_ID_2, emptyList());
+            assertEquals(List.of(ref(RESOURCE_ID_1, SUBJECT, TARGET_ID)), list(index, null, TARGET_ID, 1));
+        }
+    }
+
+    @Test
+    public void testLiteralObjectsAreIgnored() {
+        try (final var index = new MVStoreReferenceIndex(storeFile, 1)) {
+            index.setReferences(null, RESOURCE_ID_1, List.of(Triple.create(createURI(RESOURCE_ID_1), CREATOR,
+                    createLiteral(TARGET_ID))));
+            assertEquals(List.of(), list(index, null, TARGET_ID, -1));
+        }
+    }
+
+    @Test
+    public void testTransactionIsolation() {
+        try (final var index = new MVStoreReferenceIndex(storeFile, 1)) {
+            index.setReferences(TX_ID, RESOURCE_ID_1, List.of(ref(RESOURCE_ID_1, CREATOR, TARGET_ID)));
+            assertEquals(List.of(), list(index, null, TARGET_ID, -1));
+            assertEquals(List.of(ref(RESOURCE_ID_1, CREATOR, TARGET_ID)), list(index, TX_ID, TARGET_ID, -1));
+
+            index.rollbackTransaction(TX_ID);
+            assertEquals(List.of(), list(index, TX_ID, TARGET_ID, -1));
+
+            index.setReferences(TX_ID, RESOURCE_ID_1, List.of(ref(RESOURCE_ID_1, CREATOR, TARGET_ID)));
+            index.commitTransaction(TX_ID);
+            assertEquals(List.of(ref(RESOURCE_ID_1, CREATOR, TARGET_ID)), list(index, null, TARGET_ID, -1));
+        }
+    }
+
+    private static Triple ref(final String subject, final Node predicate, final String object) {
+        return Triple.create(createURI(subject), predicate, createURI(object));
+    }
+
+    private static List<Triple> list(final MVStoreReferenceIndex index, final String txId, final String targetId,
+                                     final int limit) {
+        return index.getInboundReferences(txId, targetId, limit).collect(toList());
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import edu.wisc.library.ocfl.api.MutableOcflRepository;
+import edu.wisc.library.ocfl.api.model.ObjectVersionId;
+import edu.wisc.library.ocfl.core.OcflRepositoryBuilder;
+import edu.wisc.library.ocfl.core.extension.layout.config.DefaultLayoutConfig;
+import edu.wisc.library.ocfl.core.storage.filesystem.FileSystemOcflStorage;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * @author agent
+ */
+public class OCFLFixityAuditorTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private Path repoDir;
+
+    private File checkpointFile;
+
+    private MutableOcflRepository ocflRepository;
+
+    private OCFLFixityAuditor auditor;
+
+    private final FailureListener listener = new FailureListener();
+
+    @Before
+    public void setup() throws Exception {
+        repoDir = tempFolder.newFolder("ocfl-repo").toPath();
+        final var workDir = tempFolder.newFolder("ocfl-work").toPath();
+        checkpointFile = new File(workDir.toFile(), "fixityAudit.checkpoint");
+
+        ocflRepository = new OcflRepositoryBuilder()
+                .layoutConfig(DefaultLayoutConfig.flatPairTreeConfig())
+                .workDir(workDir)
+                .storage(FileSystemOcflStorage.builder().repositoryRoot(repoDir).build())
+                .buildMutable();
+
+        final var eventBus = new EventBus();
+        eventBus.register(listener);
+
+        auditor = new OCFLFixityAuditor();
+        setField(auditor, "ocflRepository", ocflRepository);
+        setField(auditor, "eventBus", Optional.of(eventBus));
+        setField(auditor, "threads", 2);
+        setField(auditor, "bytesPerSecond", 0L);
+        setField(auditor, "checkpointFile", checkpointFile);
+    }
+
+    @Test
+    public void testAuditIntactRepository() throws Exception {
+        writeObject("obj1", "file1", "content one");
+        writeObject("obj2", "file2", "content two");
+
+        auditor.audit();
+
+        assertEquals(2, auditor.getObjectsAudited());
+        assertEquals(2, auditor.getFilesAudited());
+        assertEquals(22, auditor.getBytesAudited());
+        assertEquals(0, auditor.getFailures());
+        assertNotNull(auditor.getLastCompleted());
+        assertFalse("Checkpoint should be removed after a complete pass", checkpointFile.exists());
+        assertEquals(0, listener.count);
+    }
+
+    @Test
+    public void testAuditDetectsCorruption() throws Exception {
+        writeObject("obj1", "file1", "content one");
+        writeObject("obj2", "file2", "content two");
+
+        final var contentFiles = Files.walk(repoDir)
+                .filter(p -> p.getFileName().toString().equals("file2"))
+                .collect(Collectors.toList());
+        assertEquals(1, contentFiles.size());
+        Files.writeString(contentFiles.get(0), "content 2!!");
+
+        auditor.audit();
+
+        assertEquals(2, auditor.getObjectsAudited());
+        assertEquals(1, auditor.getFilesAudited());
+        assertEquals(1, auditor.getFailures());
+        assertEquals(1, listener.count);
+        assertEquals("obj2", listener.last.getOcflId());
+        assertEquals("file2", listener.last.getSubpath());
+    }
+
+    @Test
+    public void testAuditReadsUnchangedContentOnce() throws Exception {
+        writeObject("obj1", "file1", "content one");
+        writeObject("obj1", "file2", "content two");
+
+        auditor.audit();
+
+        assertEquals(1, auditor.getObjectsAudited());
+        assertEquals(2, auditor.getFilesAudited());
+        assertEquals(22, auditor.getBytesAudited());
+        assertEquals(0, auditor.getFailures());
+    }
+
+    @Test
+    public void testAuditDetectsCorruptionInEarlierVersion() throws Exception {
+        writeObject("obj1", "file1", "content one");
+        ocflRepository.updateObject(ObjectVersionId.head("obj1"), null, updater -> {
+            updater.removeFile("file1");
+            updater.writeFile(new ByteArrayInputStream("content two".getBytes()), "file2");
+        });
+
+        final var contentFile = Files.walk(repoDir)
+                .filter(p -> p.getFileName().toString().equals("file1"))
+                .findFirst().orElseThrow();
+        Files.writeString(contentFile, "content 1!!");
+
+        auditor.audit();
+
+        assertEquals(1, auditor.getObjectsAudited());
+        assertEquals(1, auditor.getFilesAudited());
+        assertEquals(1, auditor.getFailures());
+        assertEquals("obj1", listener.last.getOcflId());
+        assertEquals("file1", listener.last.getSubpath());
+    }
+
+    @Test
+    public void testAuditResumesFromCheckpoint() throws Exception {
+        writeObject("obj1", "file1", "content one");
+        writeObject("obj2", "file2", "content two");
+        Files.writeString(checkpointFile.toPath(), "complete obj1\n");
+
+        auditor.audit();
+
+        assertEquals(1, auditor.getObjectsAudited());
+        assertEquals(1, auditor.getFilesAudited());
+        assertFalse(checkpointFile.exists());
+    }
+
+    @Test
+    public void testAuditRetriesUnreadableObjects() throws Exception {
+        writeObject("obj1", "file1", "content one");
+        writeObject("obj2", "file2", "content two");
+
+        final var contentFile = Files.walk(repoDir)
+                .filter(p -> p.getFileName().toString().equals("file2"))
+                .findFirst().orElseThrow();
+        Files.delete(contentFile);
+
+        auditor.audit();
+
+        assertEquals(1, auditor.getObjectsAudited());
+        assertEquals(1, auditor.getFailures());
+        assertNull("Incomplete pass should not be recorded", auditor.getLastCompleted());
+        assertTrue(Files.readAllLines(checkpointFile.toPath()).contains("failed obj2"));
+
+        Files.writeString(contentFile, "content two");
+        auditor.audit();
+
+        assertEquals(2, auditor.getObjectsAudited());
+        assertEquals(2, auditor.getFilesAudited());
+        assertNotNull(auditor.getLastCompleted());
+        assertFalse(checkpointFile.exists());
+    }
+
+    private void writeObject(final String ocflId, final String subpath, final String content) {
+        ocflRepository.updateObject(ObjectVersionId.head(ocflId), null, updater ->
+                updater.writeFile(new ByteArrayInputStream(content.getBytes()), subpath));
+    }
+
+    /**
+     * Collects fixity failure events posted by the auditor
+     */
+    public static class FailureListener {
+
+        private int count;
+
+        private OCFLFixityFailureEvent last;
+
+        @Subscribe
+        public void onFailure(final OCFLFixityFailureEvent event) {
+            count++;
+            last = event;
+        }
+    }
+}
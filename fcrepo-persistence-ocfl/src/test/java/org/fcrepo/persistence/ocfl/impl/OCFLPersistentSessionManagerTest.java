@@ -30,6 +30,9 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static java.util.UUID.randomUUID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
 /**
  * Test class for {@link OCFLPersistentSessionManager}
@@ -62,7 +65,7 @@ public class OCFLPersistentSessionManagerTest {
 
     @Before
     public void setUp() {
-        readWriteSession = this.sessionManager.getSession(testSessionId);
+        readWriteSession = this.sessionManager.createSession(testSessionId);
         readOnlySession = this.sessionManager.getReadOnlySession();
     }
 
@@ -81,4 +84,46 @@ public class OCFLPersistentSessionManagerTest {
         this.sessionManager.getSession(null);
     }
 
+    @Test
+    public void testSessionReused() {
+        assertSame(readWriteSession, sessionManager.getSession(testSessionId));
+        assertEquals(1, sessionManager.getActiveSessionCount());
+    }
+
+    @Test
+    public void testSessionKeptAfterRollback() throws Exception {
+        try {
+            readWriteSession.persist(mockOperation);
+            fail("Operation should not be supported");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+        readWriteSession.rollback();
+
+        assertSame(readWriteSession, sessionManager.getSession(testSessionId));
+        assertEquals(1, sessionManager.getActiveSessionCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownSession() {
+        sessionManager.getSession(randomUUID().toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDuplicateSession() {
+        sessionManager.createSession(testSessionId);
+    }
+
+    @Test
+    public void testReleaseSession() {
+        sessionManager.releaseSession(testSessionId);
+
+        assertEquals(0, sessionManager.getActiveSessionCount());
+        try {
+            sessionManager.getSession(testSessionId);
+            fail("Released session should no longer be available");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+    }
 }
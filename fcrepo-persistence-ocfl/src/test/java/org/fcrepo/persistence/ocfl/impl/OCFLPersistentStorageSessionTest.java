@@ -18,9 +18,11 @@
 package org.fcrepo.persistence.ocfl.impl;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
 import static org.apache.jena.graph.NodeFactory.createLiteral;
 import static org.apache.jena.graph.NodeFactory.createURI;
 import static org.fcrepo.kernel.api.operations.ResourceOperationType.CREATE;
+import static org.fcrepo.kernel.api.operations.ResourceOperationType.UPDATE;
 import static org.fcrepo.persistence.api.CommitOption.NEW_VERSION;
 import static org.fcrepo.persistence.api.CommitOption.UNVERSIONED;
 
@@ -230,6 +232,96 @@ public class OCFLPersistentStorageSessionTest {
         assertEquals(originalModifiedDate, headers2.getLastModifiedDate());
     }
 
+    @Test
+    public void getTriplesCachedForReadOnlySession() throws Exception {
+        final var title = createTitledResource("my title");
+
+        final var rdfCache = new CommittedObjectCache<List<Triple>>(1000, List::size);
+        final var readOnlySession = createReadOnlySession(rdfCache);
+
+        assertEquals(List.of(title), readOnlySession.getTriples(RESOURCE_ID, null).collect(toList()));
+        assertEquals(List.of(title), readOnlySession.getTriples(RESOURCE_ID, null).collect(toList()));
+
+        assertEquals(1, rdfCache.stats().missCount());
+        assertEquals(1, rdfCache.stats().hitCount());
+    }
+
+    @Test
+    public void cachedTriplesInvalidatedAfterWrite() throws Exception {
+        createTitledResource("my title");
+
+        final var rdfCache = new CommittedObjectCache<List<Triple>>(1000, List::size);
+        final var readOnlySession = createReadOnlySession(rdfCache);
+        readOnlySession.getTriples(RESOURCE_ID, null).collect(toList());
+
+        final var writeSession = createSession(rdfCache);
+        final var newTitle = updateTitle(writeSession, "new title");
+        writeSession.commit();
+
+        assertEquals(0, rdfCache.size());
+        assertEquals(List.of(newTitle), readOnlySession.getTriples(RESOURCE_ID, null).collect(toList()));
+    }
+
+    @Test
+    public void cachedTriplesIsolatedFromTransactions() throws Exception {
+        final var title = createTitledResource("my title");
+
+        final var rdfCache = new CommittedObjectCache<List<Triple>>(1000, List::size);
+        final var readOnlySession = createReadOnlySession(rdfCache);
+        readOnlySession.getTriples(RESOURCE_ID, null).collect(toList());
+
+        //uncommitted changes are only visible within their transaction, and are not cached
+        final var writeSession = createSession(rdfCache);
+        final var newTitle = updateTitle(writeSession, "new title");
+        assertEquals(List.of(newTitle), writeSession.getTriples(RESOURCE_ID, null).collect(toList()));
+        assertEquals(List.of(title), readOnlySession.getTriples(RESOURCE_ID, null).collect(toList()));
+        assertEquals(1, rdfCache.stats().missCount());
+        assertEquals(1, rdfCache.stats().hitCount());
+
+        writeSession.rollback();
+        assertEquals(List.of(title), readOnlySession.getTriples(RESOURCE_ID, null).collect(toList()));
+    }
+
+    /**
+     * Create and commit a resource with a title
+     */
+    private Triple createTitledResource(final String title) throws Exception {
+        mockMappingAndIndex(mintOCFLObjectId(RESOURCE_ID), RESOURCE_ID, ROOT_OBJECT_ID, mapping);
+        final Node resourceUri = createURI(RESOURCE_ID);
+        final var titleTriple = Triple.create(resourceUri, DC.title.asNode(), createLiteral(title));
+        mockResourceOperation(rdfSourceOperation, new DefaultRdfStream(resourceUri, Stream.of(titleTriple)),
+                USER_PRINCIPAL, RESOURCE_ID);
+        session.persist(rdfSourceOperation);
+        session.commit();
+        return titleTriple;
+    }
+
+    /**
+     * Replace the title of the resource within a session
+     */
+    private Triple updateTitle(final OCFLPersistentStorageSession writeSession, final String title)
+            throws Exception {
+        final Node resourceUri = createURI(RESOURCE_ID);
+        final var titleTriple = Triple.create(resourceUri, DC.title.asNode(), createLiteral(title));
+        final var updateOperation = mock(RdfSourceOperation.class);
+        when(updateOperation.getType()).thenReturn(UPDATE);
+        when(updateOperation.getResourceId()).thenReturn(RESOURCE_ID);
+        when(updateOperation.getUserPrincipal()).thenReturn(USER_PRINCIPAL);
+        when(updateOperation.getTriples()).thenReturn(new DefaultRdfStream(resourceUri, Stream.of(titleTriple)));
+        writeSession.persist(updateOperation);
+        return titleTriple;
+    }
+
+    private OCFLPersistentStorageSession createSession(final CommittedObjectCache<List<Triple>> rdfCache) {
+        return new OCFLPersistentStorageSession(new Random().nextLong() + "", index, objectSessionFactory,
+                new CommittedObjectCache<>(0), rdfCache, new CommittedObjectCache<>(0));
+    }
+
+    private OCFLPersistentStorageSession createReadOnlySession(final CommittedObjectCache<List<Triple>> rdfCache) {
+        return new OCFLPersistentStorageSession(null, index, objectSessionFactory, new CommittedObjectCache<>(0),
+                rdfCache, new CommittedObjectCache<>(0));
+    }
+
     @Test(expected = UnsupportedOperationException.class)
     public void unsupportedPersistOperation() throws Exception {
         this.session.persist(unsupportedOperation);
@@ -17,11 +17,33 @@
  */
 package org.fcrepo.persistence.ocfl.impl;
 
+import org.apache.jena.graph.Triple;
+import org.apache.jena.vocabulary.DC;
+import org.fcrepo.kernel.api.rdf.DefaultRdfStream;
+import org.fcrepo.persistence.ocfl.api.OCFLObjectSession;
+import org.fcrepo.persistence.ocfl.api.OCFLObjectSession.ContentWriter;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.jena.graph.NodeFactory.createLiteral;
+import static org.apache.jena.graph.NodeFactory.createURI;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.getRDFFileExtension;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.readTriples;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.relativizeSubpath;
 import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.resolveOCFLSubpath;
+import static org.fcrepo.persistence.ocfl.impl.OCFLPersistentStorageUtils.writeRDF;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Test class for {@link OCFLPersistentStorageUtils}
@@ -136,4 +158,37 @@ public class OCFLPersistentStorageUtilsTest {
         assertEquals("nested-description", resolveOCFLSubpath(rootObjectId, fedoraSubpath));
     }
 
+    @Test
+    public void testReadTriplesDistinct() throws Exception {
+        final var triple = "<info:fedora/object> <http://purl.org/dc/terms/title> \"title\" .\n";
+        final var objSession = mock(OCFLObjectSession.class);
+        when(objSession.read("object.nt", "v1")).thenReturn(new ByteArrayInputStream((triple + triple)
+                .getBytes(UTF_8)));
+
+        final var triples = readTriples(objSession, "object.nt", "v1");
+        assertEquals(1, triples.size());
+        assertEquals("info:fedora/object", triples.get(0).getSubject().getURI());
+    }
+
+    @Test
+    public void testWriteRDFPassesWrittenTriplesToConsumer() throws Exception {
+        final var subject = createURI("info:fedora/object");
+        final var title = Triple.create(subject, DC.title.asNode(), createLiteral("title"));
+        final var relation = Triple.create(subject, DC.relation.asNode(), createURI("info:fedora/other"));
+        final var objSession = mock(OCFLObjectSession.class);
+        final var out = new ByteArrayOutputStream();
+        when(objSession.write(eq("object" + getRDFFileExtension()), any(ContentWriter.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<ContentWriter>getArgument(1).writeTo(out);
+                    return null;
+                });
+
+        final List<Triple> written = new ArrayList<>();
+        writeRDF(objSession, new DefaultRdfStream(subject, Stream.of(title, relation)), "object", written::add);
+
+        assertEquals(List.of(title, relation), written);
+        final var content = out.toString(UTF_8);
+        assertTrue(content.contains("<http://purl.org/dc/elements/1.1/title>"));
+        assertTrue(content.contains("<info:fedora/other>"));
+    }
 }
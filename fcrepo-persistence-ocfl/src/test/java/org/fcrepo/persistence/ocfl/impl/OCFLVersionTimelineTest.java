@@ -0,0 +1,93 @@
+/*
+ * Licensed to DuraSpace under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership.
+ *
+ * DuraSpace licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in
+ * compliance with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.fcrepo.persistence.ocfl.impl;
+
+import static java.time.ZoneOffset.UTC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import edu.wisc.library.ocfl.api.model.VersionDetails;
+import edu.wisc.library.ocfl.api.model.VersionId;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author agent
+ */
+public class OCFLVersionTimelineTest {
+
+    private static final Instant V1_CREATED = Instant.parse("2020-01-01T10:00:00.250Z");
+
+    private static final Instant V2_CREATED = Instant.parse("2020-01-01T10:00:00.750Z");
+
+    private static final Instant V3_CREATED = Instant.parse("2020-02-01T10:00:00.500Z");
+
+    private OCFLVersionTimeline timeline;
+
+    @Before
+    public void setup() {
+        timeline = new OCFLVersionTimeline(List.of(version("v1", V1_CREATED), version("v2", V2_CREATED),
+                version("v3", V3_CREATED)));
+    }
+
+    @Test
+    public void testGetVersionIdWithinSecond() {
+        assertEquals("v1", timeline.getVersionId(Instant.parse("2020-01-01T10:00:00Z")));
+        assertEquals("v3", timeline.getVersionId(Instant.parse("2020-02-01T10:00:00.999Z")));
+    }
+
+    @Test
+    public void testGetVersionIdNoMatch() {
+        assertNull(timeline.getVersionId(Instant.parse("2020-01-15T00:00:00Z")));
+    }
+
+    @Test
+    public void testGetVersionIdAtOrBefore() {
+        assertEquals("v2", timeline.getVersionIdAtOrBefore(Instant.parse("2020-01-15T00:00:00Z")));
+        assertEquals("v3", timeline.getVersionIdAtOrBefore(Instant.parse("2021-01-01T00:00:00Z")));
+        assertEquals("v3", timeline.getVersionIdAtOrBefore(Instant.parse("2020-02-01T10:00:00Z")));
+        assertNull(timeline.getVersionIdAtOrBefore(Instant.parse("2019-12-31T00:00:00Z")));
+    }
+
+    @Test
+    public void testGetVersionIdAtOrBeforeReturnsLatestInSecond() {
+        final var sameSecond = new OCFLVersionTimeline(List.of(version("v1", V1_CREATED),
+                version("v2", V2_CREATED), version("v3", Instant.parse("2020-01-01T10:00:00.900Z"))));
+        assertEquals("v3", sameSecond.getVersionIdAtOrBefore(Instant.parse("2020-01-01T10:00:00Z")));
+        assertEquals("v3", sameSecond.getVersionIdAtOrBefore(Instant.parse("2020-01-01T10:00:01Z")));
+        assertEquals("v1", sameSecond.getVersionId(Instant.parse("2020-01-01T10:00:00Z")));
+    }
+
+    @Test
+    public void testGetVersions() {
+        assertEquals(List.of(V1_CREATED, V2_CREATED, V3_CREATED), timeline.getVersions());
+        assertEquals(3, timeline.size());
+    }
+
+    private static VersionDetails version(final String versionId, final Instant created) {
+        final var details = mock(VersionDetails.class);
+        when(details.getVersionId()).thenReturn(VersionId.fromString(versionId));
+        when(details.getCreated()).thenReturn(created.atOffset(UTC));
+        return details;
+    }
+}